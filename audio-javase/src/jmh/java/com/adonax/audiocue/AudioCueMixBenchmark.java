@@ -0,0 +1,78 @@
+package com.adonax.audiocue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frames mixed per second by {@code AudioCue} for 1, 8 and 32 looping
+ * cursors, at fractional speeds and off-center pans. {@code mixRamping}
+ * changes the volumes on every buffer, so the ramps are always active.
+ * Run with {@code -prof gc} for the allocation rate, which should be 0.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioCueMixBenchmark
+{
+	private static final int BUFFER_FRAMES = 1024;
+	private static final int CUE_FRAMES = 44100;
+
+	@Param({"1", "8", "32"})
+	public int cursors;
+
+	private AudioCue cue;
+	private int[] instances;
+	private boolean toggle;
+
+	@Setup
+	public void setup()
+	{
+		float[] pcm = new float[CUE_FRAMES * 2];
+		for (int i = 0; i < pcm.length; i++)
+		{
+			pcm[i] = (float) Math.sin(i * 0.01) * 0.5f;
+		}
+		cue = AudioCue.makeStereoCue(pcm, "benchmark", cursors);
+		cue.open(new AudioMixer(null, BUFFER_FRAMES, Thread.NORM_PRIORITY));
+		instances = new int[cursors];
+		for (int i = 0; i < cursors; i++)
+		{
+			instances[i] = cue.play(0.5, i % 2 == 0 ? -0.3 : 0.3,
+					1 + i * 0.013, -1);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BUFFER_FRAMES)
+	public float[] mix()
+	{
+		return cue.readTrack();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BUFFER_FRAMES)
+	public float[] mixRamping()
+	{
+		toggle = !toggle;
+		for (int instance : instances)
+		{
+			cue.setVolume(instance, toggle ? 0.25 : 0.5);
+		}
+		return cue.readTrack();
+	}
+}
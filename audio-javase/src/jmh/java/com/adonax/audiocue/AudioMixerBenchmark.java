@@ -0,0 +1,93 @@
+package com.adonax.audiocue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frames mixed per second by {@code AudioMixer} with 64 tracks, for each
+ * {@code AudioMixer.Limiter}. The tracks return precomputed buffers, so
+ * only the summation, the track gains and the limiter are measured; half
+ * of the tracks have a gain other than 1.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioMixerBenchmark
+{
+	private static final int BUFFER_FRAMES = 1024;
+	private static final int TRACKS = 64;
+
+	@Param({"HARD_CLIP", "TANH", "LOOK_AHEAD"})
+	public AudioMixer.Limiter limiter;
+
+	private AudioMixer mixer;
+	private final float[] out = new float[BUFFER_FRAMES * 2];
+
+	private static class BufferTrack implements AudioMixerTrack
+	{
+		private final float[] buffer = new float[BUFFER_FRAMES * 2];
+		private volatile boolean running = true;
+
+		BufferTrack(int track)
+		{
+			for (int i = 0; i < buffer.length; i++)
+			{
+				buffer[i] = (float) Math.sin((i + track * 31) * 0.01) * 0.1f;
+			}
+		}
+
+		@Override
+		public boolean isTrackRunning()
+		{
+			return running;
+		}
+
+		@Override
+		public void setTrackRunning(boolean bool)
+		{
+			running = bool;
+		}
+
+		@Override
+		public float[] readTrack()
+		{
+			return buffer;
+		}
+	}
+
+	@Setup
+	public void setup()
+	{
+		mixer = new AudioMixer(null, BUFFER_FRAMES, Thread.NORM_PRIORITY);
+		mixer.setLimiter(limiter);
+		for (int i = 0; i < TRACKS; i++)
+		{
+			AudioMixerTrack track = new BufferTrack(i);
+			mixer.addTrack(track);
+			if (i % 2 == 1) mixer.setTrackGain(track, 0.5f);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BUFFER_FRAMES)
+	public float[] mix()
+	{
+		mixer.render(out, 0, BUFFER_FRAMES);
+		return out;
+	}
+}
@@ -6,6 +6,7 @@ import javax.sound.sampled.*;
 import javax.sound.sampled.Line.Info;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.function.Function;
@@ -181,6 +182,12 @@ public class AudioCue implements AudioMixerTrack
 	 */
 	public static final int PAN_STEPS = 1024;
 	
+	/*
+	 * The maximum number of frames over which the pan factors are 
+	 * interpolated linearly while the pan changes.
+	 */
+	private static final int PAN_BLOCK_FRAMES = 64;
+	
 	private final LinkedBlockingDeque<AudioCueCursor> availables;
 	private final float[] cue;
 	private final int cueFrameLength;
@@ -1398,6 +1405,12 @@ public class AudioCue implements AudioMixerTrack
 		float targetPanIncr;
 		int targetPanSteps;
 		
+		// cached results of the pan functions
+		float panFactorL;
+		float panFactorR;
+		float panFactorPan = Float.NaN;
+		Function<Float, Float> panFactorFunction;
+		
 		AudioCueCursor(int instanceId)
 		{
 			this.id = instanceId;			
@@ -1476,136 +1489,179 @@ public class AudioCue implements AudioMixerTrack
 
 	/*
 	 * AudioThread code, executing within the while loop of the run() method.
+	 * 
+	 * Each playing cursor is mixed in spans of frames within which no
+	 * volume, pan or speed ramp starts or ends. The gains are linear 
+	 * over a span, so they are stepped by a constant increment and the 
+	 * pan functions are only evaluated at the ends of the span. As the
+	 * pan functions are not linear, spans of a pan ramp are limited to
+	 * PAN_BLOCK_FRAMES. Nothing is allocated unless an event is broadcast.
 	 */
 	private float[] fillBuffer(float[] readBuffer)
 	{
 		// Start with 0-filled buffer, send out silence
 		// if nothing playing.
-		int bufferLength = readBuffer.length;
-		for (int i = 0; i < bufferLength; i++) 
-		{
-			readBuffer[i] = 0;
-		}
+		Arrays.fill(readBuffer, 0);
+		int bufferFrames = readBuffer.length >> 1;
 		
 		for (int ci = 0; ci < polyphony; ci++)
 		{
-			if (cursors[ci].isPlaying) 
+			AudioCueCursor acc = cursors[ci];
+			int frame = 0;
+			while (frame < bufferFrames && acc.isPlaying)
 			{
-				AudioCueCursor acc = cursors[ci];
-				/*
-				 * Usually, pan won't change, so let's 
-				 * store value and only recalculate when 
-				 * it changes.
-				 */
-				float panFactorL = panL.apply(acc.pan);
-				float panFactorR = panR.apply(acc.pan);
-				
-				for (int i = 0; i < bufferLength; i += 2)
-				{
-					// adjust volume if needed
-					if (acc.targetVolumeSteps-- > 0)
-					{
-						acc.volume += acc.targetVolumeIncr;
-						if (acc.targetVolumeSteps == 0) {
-							acc.volume = acc.targetVolume;
-						}
-					}
-					
-					// adjust pan if needed
-					if (acc.targetPanSteps-- > 0)
-					{
-						if (acc.targetPanSteps != 0) {
-							acc.pan += acc.targetPanIncr;
-						} else { 
-							acc.pan = acc.targetPan;
-						}
-						
-						panFactorL = panL.apply(acc.pan);
-						panFactorR = panR.apply(acc.pan);
-					}
-					
-					// get audioVals, with LERP for fractional cursor position
-					float[] audioVals = new float[2];
-					if (acc.cursor == (int)acc.cursor) {
-						audioVals[0] = cue[(int)acc.cursor * 2];
-						audioVals[1] = cue[((int)acc.cursor * 2) + 1];
-					} else {
-						audioVals = readFractionalFrame(audioVals, acc.cursor);
-					}
-					
-					readBuffer[i] += (audioVals[0] 
-							* acc.volume * panFactorL);
-					readBuffer[i + 1] += (audioVals[1] 
-							* acc.volume * panFactorR);
-					
-					// SET UP FOR NEXT ITERATION
-					// adjust pitch if needed
-					if (acc.targetSpeedSteps-- > 0)
-					{
-						acc.speed += acc.targetSpeedIncr;
-					}
-	
-					// set NEXT read position
-					acc.cursor += acc.speed;
-					
-					// test for "eof" and "looping"
-					if (acc.cursor > (cueFrameLength - 1))
-					{
-						// keep looping indefinitely
-						if (acc.loop == -1)
-						{
-							acc.cursor = 0;
-							broadcastLoopEvent(acc);
-						}
-						// loop specific number of times
-						else if (acc.loop > 0)
-						{
-							acc.loop--;
-							acc.cursor = 0;
-							broadcastLoopEvent(acc);
-						}
-						else // no more loops to do
-						{
-							acc.isPlaying = false;
-							broadcastStopEvent(acc);
-							if (acc.recycleWhenDone)
-							{
-								acc.resetInstance();
-								availables.offerFirst(acc);
-								broadcastReleaseEvent(acc);
-							}
-							// cursor is at end of cue before
-							// readBuffer filled, no need to
-							// process further (default 0's)
-							break;
-						}
-					}
-				}
+				int span = bufferFrames - frame;
+				if (acc.targetVolumeSteps > 0) span = Math.min(span, acc.targetVolumeSteps);
+				if (acc.targetPanSteps > 0) span = Math.min(span, 
+						Math.min(acc.targetPanSteps, PAN_BLOCK_FRAMES));
+				if (acc.targetSpeedSteps > 0) span = Math.min(span, acc.targetSpeedSteps);
+				frame = mixSpan(acc, readBuffer, frame, span);
 			}
 		}
 		return readBuffer;
 	}
 	
 	/*
-	 *  Audio thread code, returns a single stereo PCM pair using a
-	 *  LERP (linear interpolation) function. The difference between 
-	 *  `idx` (floating point value) and `intIndex` determines the 
-	 *  weighting amount for the LERP algorithm. As the PCM array of
-	 *  audio data is stereo, we use `stereoIndex` (twice the amount
-	 *  of `intIndex`) to locate the audio values to be weighted. 
+	 * AudioThread code, mixes up to `span` frames of the cursor into the
+	 * buffer, starting at the frame `frame`, and returns the frame after
+	 * the last one mixed. Fewer frames are mixed if the cursor stops.
 	 */
-	private float[] readFractionalFrame(float[] audioVals, double idx)
+	private int mixSpan(AudioCueCursor acc, float[] readBuffer, int frame, int span)
 	{
-		final int intIndex = (int) idx;
-		final int stereoIndex = intIndex * 2;
+		// volume of the first frame and its increment
+		float volume = acc.volume;
+		float volumeIncr = 0;
+		if (acc.targetVolumeSteps > 0)
+		{
+			volumeIncr = acc.targetVolumeIncr;
+			volume += volumeIncr;
+		}
 		
-		audioVals[0] = (float)(cue[stereoIndex + 2] * (idx - intIndex) 
-				+ cue[stereoIndex] * ((intIndex + 1) - idx));
+		// pan factors of the first frame, interpolated to the last frame
+		float panFactorL, panFactorR;
+		float panFactorIncrL = 0, panFactorIncrR = 0;
+		float panEnd = acc.pan;
+		if (acc.targetPanSteps > 0)
+		{
+			panEnd = acc.targetPanSteps == span ? acc.targetPan 
+					: acc.pan + acc.targetPanIncr * span;
+		}
+		if (acc.targetPanSteps > 0 && span > 1)
+		{
+			updatePanFactors(acc, acc.pan + acc.targetPanIncr);
+			panFactorL = acc.panFactorL;
+			panFactorR = acc.panFactorR;
+			updatePanFactors(acc, panEnd);
+			panFactorIncrL = (acc.panFactorL - panFactorL) / (span - 1);
+			panFactorIncrR = (acc.panFactorR - panFactorR) / (span - 1);
+		}
+		else
+		{
+			updatePanFactors(acc, panEnd);
+			panFactorL = acc.panFactorL;
+			panFactorR = acc.panFactorR;
+		}
 		
-		audioVals[1] = (float)(cue[stereoIndex + 3] * (idx - intIndex) 
-				+ cue[stereoIndex + 1] * ((intIndex + 1) - idx));
-
-		return audioVals;
+		double speed = acc.speed;
+		double speedIncr = acc.targetSpeedSteps > 0 ? acc.targetSpeedIncr : 0;
+		double cursor = acc.cursor;
+		final int lastFrame = cueFrameLength - 1;
+		boolean stopped = false;
+		
+		int i = frame * 2;
+		for (int end = (frame + span) * 2; i < end; )
+		{
+			// get audio values, with LERP for fractional cursor position
+			final int intIndex = (int) cursor;
+			final int stereoIndex = intIndex * 2;
+			float valL = cue[stereoIndex];
+			float valR = cue[stereoIndex + 1];
+			if (cursor != intIndex)
+			{
+				float weight = (float) (cursor - intIndex);
+				valL += (cue[stereoIndex + 2] - valL) * weight;
+				valR += (cue[stereoIndex + 3] - valR) * weight;
+			}
+			
+			readBuffer[i++] += valL * volume * panFactorL;
+			readBuffer[i++] += valR * volume * panFactorR;
+			
+			// SET UP FOR NEXT ITERATION
+			volume += volumeIncr;
+			panFactorL += panFactorIncrL;
+			panFactorR += panFactorIncrR;
+			speed += speedIncr;
+			
+			// set NEXT read position
+			cursor += speed;
+			
+			// test for "eof" and "looping"
+			if (cursor > lastFrame)
+			{
+				// keep looping indefinitely, or
+				// loop specific number of times
+				if (acc.loop == -1 || acc.loop > 0)
+				{
+					if (acc.loop > 0) acc.loop--;
+					cursor = 0;
+					broadcastLoopEvent(acc);
+				}
+				else // no more loops to do
+				{
+					stopped = true;
+					break;
+				}
+			}
+		}
+		
+		int frames = (i >> 1) - frame;
+		if (acc.targetVolumeSteps > 0)
+		{
+			acc.targetVolumeSteps -= frames;
+			acc.volume = acc.targetVolumeSteps > 0 ? 
+					acc.volume + acc.targetVolumeIncr * frames : acc.targetVolume;
+		}
+		if (acc.targetPanSteps > 0)
+		{
+			acc.targetPanSteps -= frames;
+			acc.pan = acc.targetPanSteps > 0 ? 
+					acc.pan + acc.targetPanIncr * frames : acc.targetPan;
+		}
+		if (acc.targetSpeedSteps > 0)
+		{
+			acc.targetSpeedSteps = Math.max(0, acc.targetSpeedSteps - frames);
+			acc.speed += acc.targetSpeedIncr * frames;
+		}
+		acc.cursor = cursor;
+		
+		if (stopped)
+		{
+			acc.isPlaying = false;
+			broadcastStopEvent(acc);
+			if (acc.recycleWhenDone)
+			{
+				acc.resetInstance();
+				availables.offerFirst(acc);
+				broadcastReleaseEvent(acc);
+			}
+		}
+		return frame + frames;
+	}
+	
+	/*
+	 * Audio thread code, evaluates the pan functions only if the pan 
+	 * or the pan type has changed since they were last evaluated, as 
+	 * the functions box their arguments.
+	 */
+	private void updatePanFactors(AudioCueCursor acc, float pan)
+	{
+		if (pan != acc.panFactorPan || panL != acc.panFactorFunction)
+		{
+			acc.panFactorL = panL.apply(pan);
+			acc.panFactorR = panR.apply(pan);
+			acc.panFactorPan = pan;
+			acc.panFactorFunction = panL;
+		}
 	}
 	
 	/**
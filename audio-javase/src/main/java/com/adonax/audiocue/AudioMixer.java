@@ -1,9 +1,17 @@
 package com.adonax.audiocue;
 
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.Mixer;
 import javax.sound.sampled.SourceDataLine;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -13,13 +21,14 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * and removed from the mix asynchronously, with the operation 
  * occurring at the next iteration of the read buffer. Unlike a 
  * mixer used in sound studios, the {@code AudioMixer} does not 
- * provide functions such as panning or volume controls. 
+ * provide functions such as panning; a gain can be set per track. 
  * <p>
  * An {@code SourceDataLine} can be in one of two states: (1) running, 
  * or (2) not running. When running, audio data is read from the 
  * constituent tracks, mixed and written as a single stream using a
- * {@code javax.sound.sampled.SourceDataLine}. The mixer imposes a 
- * simple floor/ceiling of -1, 1, to guard against volume overflows.
+ * {@code javax.sound.sampled.SourceDataLine}. Each track is scaled 
+ * by its gain as it is summed, and the sum is passed through a final 
+ * {@code Limiter} to guard against volume overflows.
  * When not running, the {@code SourceDataLine} is allowed to drain 
  * and close. A new {@code SourceDataLine} is instantiated if/when 
  * this {@code AudioMixer} is reopened.
@@ -32,21 +41,73 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * are provided to facilitate the use of default values. These
  * configuration values override those associated with the constituent
  * tracks. 
+ * <p>
+ * Instead of being started, an {@code AudioMixer} can also be rendered 
+ * offline, without a sound device: the {@code render} methods pull the 
+ * mixed frames into a {@code float} array or a {@code ByteBuffer}, or 
+ * write them to a WAV file, as fast as they can be computed. The tracks
+ * are read, and {@code AudioCueListener}s are notified, on the calling 
+ * thread, exactly as if the frames were being played.
  * 
  * @author Philip Freihofner
  * @version AudioCue 2.0.0
  */
 public class AudioMixer 
 {
+	/**
+	 * The {@code enum Limiter} lists the stages that can be applied 
+	 * to the sum of all tracks, to keep it within the range -1 to 1.
+	 */
+	public static enum Limiter
+	{
+		/**
+		 * Clips values outside of the range. Values within the 
+		 * range are unaffected.
+		 */
+		HARD_CLIP,
+		/**
+		 * Applies a {@code tanh} curve, which saturates smoothly 
+		 * towards -1 and 1, but also compresses values within 
+		 * the range slightly.
+		 */
+		TANH,
+		/**
+		 * Lowers the gain ahead of peaks, using a look-ahead of
+		 * {@code LOOK_AHEAD_FRAMES}, so that peaks are limited without 
+		 * distortion. The output is delayed by the look-ahead.
+		 */
+		LOOK_AHEAD
+	}
+	
+	/**
+	 * A value indicating the number of frames by which the 
+	 * {@code Limiter.LOOK_AHEAD} limiter anticipates peaks, and
+	 * delays the output.
+	 */
+	public static final int LOOK_AHEAD_FRAMES = 64;
+	
+	private static final float LOOK_AHEAD_THRESHOLD = 0.98f;
+	private static final float LOOK_AHEAD_RELEASE_FRAMES = 44100 * 0.05f;
+	
 	private AudioMixerTrack[] trackCache;
+	private float[] trackGainCache;
 	public int getTrackCacheCount() {
 		return trackCache == null ? 0 : trackCache.length;
 	}
 	private AudioMixerTrack[] mixerTracks;  
+	private float[] mixerTrackGains;
 	private CopyOnWriteArrayList<AudioMixerTrack> trackManager; 
+	private ConcurrentHashMap<AudioMixerTrack, Float> trackGains;
 	private volatile boolean trackCacheUpdated;
 	private int trackCount;
 	
+	private volatile Limiter limiter = Limiter.HARD_CLIP;
+	private Limiter mixerLimiter;
+	private LookAheadLimiter lookAheadLimiter;
+	
+	private volatile long trackErrorCount;
+	private volatile Exception lastTrackError;
+	
 	/**
 	 * Returns the number of tracks being mixed.
 	 * 
@@ -78,7 +139,6 @@ public class AudioMixer
 	 */
 	public final int sdlByteBufferSize;
 
-	private float[] audioData;
 	private Mixer mixer;
 	
 	/**
@@ -94,6 +154,21 @@ public class AudioMixer
 	public boolean isMixerRunning() {
 		return mixerRunning;
 	}
+	
+	private volatile boolean rendering;
+	private float[] renderBuffer;
+	private int renderIndex;
+	
+	/**
+	 * Indicates if frames are currently being rendered offline by one
+	 * of the {@code render} methods. Tracks which decode ahead may wait
+	 * for their data while rendering, rather than output silence.
+	 * 
+	 * @return {@code true} if rendering offline, otherwise {@code false}
+	 */
+	public boolean isRendering() {
+		return rendering;
+	}
 
 	/**
 	 * Constructor for {@code AudioMixer}, using default
@@ -133,6 +208,7 @@ public class AudioMixer
 	public AudioMixer(Mixer mixer, int bufferFrames, int threadPriority) 
 	{
 		trackManager = new CopyOnWriteArrayList<AudioMixerTrack>();
+		trackGains = new ConcurrentHashMap<AudioMixerTrack, Float>();
 		this.bufferFrames = bufferFrames;
 		this.readBufferSize = bufferFrames * 2;
 		this.sdlByteBufferSize = bufferFrames * 4;
@@ -174,6 +250,79 @@ public class AudioMixer
 	public void removeTrack(AudioMixerTrack track)
 	{
 		trackManager.remove(track);
+		if (!trackManager.contains(track)) trackGains.remove(track);
+	}
+	
+	// reminder: this does NOT update the trackCache!!
+	/**
+	 * Designates a gain to be applied to an {@code AudioMixerTrack}
+	 * as it is summed into the mix, staged like an addition: if the 
+	 * {@code AudioMixer} is running, the gain takes effect when the
+	 * {@code updateTracks} method is executed. The default gain is 1.
+	 * 
+	 * @param track - an {@code AudioMixerTrack} of the mix
+	 * @param gain - the factor applied to the values of the track
+	 * @see #updateTracks()
+	 */
+	public void setTrackGain(AudioMixerTrack track, float gain)
+	{
+		trackGains.put(track, gain);
+	}
+	
+	/**
+	 * Returns the gain designated for an {@code AudioMixerTrack}.
+	 * 
+	 * @param track - an {@code AudioMixerTrack} of the mix
+	 * @return the gain of the track, 1 by default
+	 * @see #setTrackGain(AudioMixerTrack, float)
+	 */
+	public float getTrackGain(AudioMixerTrack track)
+	{
+		Float gain = trackGains.get(track);
+		return gain == null ? 1 : gain;
+	}
+	
+	/**
+	 * Selects the {@code Limiter} applied to the sum of all tracks,
+	 * which takes effect with the next buffer. The default is
+	 * {@code Limiter.HARD_CLIP}.
+	 * 
+	 * @param limiter - a member of the {@code enum AudioMixer.Limiter}
+	 * @see Limiter
+	 */
+	public void setLimiter(Limiter limiter)
+	{
+		if (limiter == null) throw new NullPointerException("limiter");
+		this.limiter = limiter;
+	}
+	
+	public Limiter getLimiter()
+	{
+		return limiter;
+	}
+	
+	/**
+	 * Returns the number of times a track failed to provide a buffer.
+	 * The track is left silent for that buffer; the failure is not 
+	 * printed.
+	 * 
+	 * @return the number of track failures
+	 * @see #getLastTrackError()
+	 */
+	public long getTrackErrorCount()
+	{
+		return trackErrorCount;
+	}
+	
+	/**
+	 * Returns the most recent exception thrown by a track.
+	 * 
+	 * @return the exception, or {@code null} if no track has failed
+	 * @see #getTrackErrorCount()
+	 */
+	public Exception getLastTrackError()
+	{
+		return lastTrackError;
 	}
 
 	/**
@@ -184,15 +333,17 @@ public class AudioMixer
 	 * @see #addTrack(AudioMixerTrack)
 	 * @see #removeTrack(AudioMixerTrack)
 	 */
-	public void updateTracks()
+	public synchronized void updateTracks()
 	{
-		int size = trackManager.size();
-		AudioMixerTrack[] workCopyTracks = new AudioMixerTrack[size]; 
-		for (int i = 0; i < size; i++)
+		AudioMixerTrack[] workCopyTracks = 
+				trackManager.toArray(new AudioMixerTrack[0]); 
+		float[] workCopyGains = new float[workCopyTracks.length];
+		for (int i = 0; i < workCopyTracks.length; i++)
 		{
-			workCopyTracks[i] = trackManager.get(i);
+			workCopyGains[i] = getTrackGain(workCopyTracks[i]);
 		}
 		
+		trackGainCache = workCopyGains;
 		trackCache = workCopyTracks;
 		trackCacheUpdated = true;
 	}
@@ -213,6 +364,8 @@ public class AudioMixer
 	{
 		if (mixerRunning) throw new IllegalStateException(
 				"AudioMixer is already running!");
+		if (rendering) throw new IllegalStateException(
+				"AudioMixer is rendering!");
 		
 		updateTracks();
 		
@@ -238,40 +391,306 @@ public class AudioMixer
 		mixerRunning = false;
 	}
 	
-    private float[] fillBufferFromTracks(float[] normalizedOut)
-	{	
-    	// loop through all tracks, summing	
-		for (int n = 0; n < trackCount; n++)	
+	/*
+	 * Mixes the next buffer of frames, after loading an updated 
+	 * track collection if there is one.
+	 */
+	private float[] mix(float[] normalizedOut)
+	{
+		if (trackCacheUpdated)
 		{
-			if (mixerTracks[n].isTrackRunning())
+			/*
+			 * Concurrency plan: Better to allow a late  
+			 * or redundant update than to skip an update.
+			 */
+			trackCacheUpdated = false; 
+			synchronized (this)
 			{
-				try 
+				mixerTracks = trackCache;
+				mixerTrackGains = trackGainCache;
+			}
+			trackCount = mixerTracks.length;
+		}
+		Arrays.fill(normalizedOut, 0);
+		fillBufferFromTracks(normalizedOut);
+		return limit(normalizedOut);
+	}
+	
+	/**
+	 * Renders the given number of frames offline into a {@code float}
+	 * array, as signed, normalized stereo PCM values. Rendering 
+	 * continues from the last frame rendered by any {@code render} 
+	 * method; on the first call, the staged tracks are loaded as if by
+	 * {@code start}. Must not be called concurrently.
+	 * 
+	 * @param pcm - the array to receive two values per frame
+	 * @param offset - the index of the first value
+	 * @param frames - the number of frames to render
+	 * @throws IllegalStateException if the {@code AudioMixer} is running
+	 * @throws IndexOutOfBoundsException if the array is too small
+	 * @see #start()
+	 */
+	public void render(float[] pcm, int offset, int frames)
+	{
+		if (offset < 0 || frames < 0 || offset + frames * 2L > pcm.length)
+		{
+			throw new IndexOutOfBoundsException("offset: " + offset 
+					+ ", frames: " + frames + ", length: " + pcm.length);
+		}
+		beginRender();
+		try
+		{
+			for (int i = offset, end = offset + frames * 2; i < end; )
+			{
+				if (renderIndex == readBufferSize)
 				{
-					audioData = mixerTracks[n].readTrack();
-					for (int i = 0; i < readBufferSize; i++)
-					{
-						normalizedOut[i] += audioData[i];
-					}
-				} 
-				catch (Exception e) 
+					renderBuffer = mix(renderBuffer);
+					renderIndex = 0;
+				}
+				int count = Math.min(end - i, readBufferSize - renderIndex);
+				System.arraycopy(renderBuffer, renderIndex, pcm, i, count);
+				renderIndex += count;
+				i += count;
+			}
+		}
+		finally
+		{
+			rendering = false;
+		}
+	}
+	
+	/**
+	 * Renders the given number of frames offline into a 
+	 * {@code ByteBuffer}, in the {@code AudioCue.audioFormat}: 16-bit,
+	 * little-endian stereo PCM, four bytes per frame, starting at the 
+	 * position of the buffer, which is advanced. Rendering continues 
+	 * from the last frame rendered by any {@code render} method. Must 
+	 * not be called concurrently.
+	 * 
+	 * @param bytes - the buffer to receive the encoded frames
+	 * @param frames - the number of frames to render
+	 * @throws IllegalStateException if the {@code AudioMixer} is running
+	 * @throws IllegalArgumentException if the buffer has less than
+	 * 				{@code frames * 4} bytes remaining
+	 * @see AudioCue#audioFormat
+	 */
+	public void render(ByteBuffer bytes, int frames)
+	{
+		if (frames < 0 || bytes.remaining() < frames * 4L)
+		{
+			throw new IllegalArgumentException("frames: " + frames 
+					+ ", remaining: " + bytes.remaining());
+		}
+		beginRender();
+		try
+		{
+			for (int n = frames * 2; n > 0; )
+			{
+				if (renderIndex == readBufferSize)
 				{
-					e.printStackTrace();
-				}							
+					renderBuffer = mix(renderBuffer);
+					renderIndex = 0;
+				}
+				int count = Math.min(n, readBufferSize - renderIndex);
+				for (int i = renderIndex, end = renderIndex + count; i < end; i++)
+				{
+					int value = (int) (Math.max(-1, Math.min(1, renderBuffer[i])) * 32767);
+					bytes.put((byte) value);
+					bytes.put((byte) (value >> 8));
+				}
+				renderIndex += count;
+				n -= count;
+			}
+		}
+		finally
+		{
+			rendering = false;
+		}
+	}
+	
+	/**
+	 * Renders the given number of frames offline into a WAV file, in 
+	 * the {@code AudioCue.audioFormat}. Rendering continues from the 
+	 * last frame rendered by any {@code render} method.
+	 * 
+	 * @param file - the WAV file to write
+	 * @param frames - the number of frames to render
+	 * @throws IOException if an I/O exception occurs
+	 * @throws IllegalStateException if the {@code AudioMixer} is running
+	 * @see #getRenderStream(long)
+	 */
+	public void render(File file, long frames) throws IOException
+	{
+		AudioSystem.write(getRenderStream(frames), 
+				AudioFileFormat.Type.WAVE, file);
+	}
+	
+	/**
+	 * Returns a stream which renders the given number of frames offline
+	 * as they are read, in the {@code AudioCue.audioFormat}, e.g. to 
+	 * encode them with {@code AudioSystem.write}. Rendering continues 
+	 * from the last frame rendered by any {@code render} method.
+	 * 
+	 * @param frames - the number of frames to render
+	 * @return the rendered audio
+	 */
+	public AudioInputStream getRenderStream(long frames)
+	{
+		return new AudioInputStream(new RenderInputStream(frames), 
+				AudioCue.audioFormat, frames);
+	}
+	
+	private void beginRender()
+	{
+		if (mixerRunning) throw new IllegalStateException(
+				"AudioMixer is running!");
+		if (renderBuffer == null)
+		{
+			updateTracks();
+			renderBuffer = new float[readBufferSize];
+			renderIndex = readBufferSize;
+		}
+		rendering = true;
+	}
+	
+	private class RenderInputStream extends InputStream
+	{
+		private long remainingFrames;
+		private final byte[] frame = new byte[4];
+		private int frameIndex = frame.length;
+		
+		RenderInputStream(long frames)
+		{
+			remainingFrames = frames;
+		}
+		
+		@Override
+		public int read() throws IOException
+		{
+			if (frameIndex == frame.length)
+			{
+				if (remainingFrames == 0) return -1;
+				render(ByteBuffer.wrap(frame), 1);
+				remainingFrames--;
+				frameIndex = 0;
 			}
-			for (int i = 0; i < readBufferSize; i++)
+			return frame[frameIndex++] & 0xff;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			if (frameIndex < frame.length || len < 4) return super.read(b, off, len);
+			if (remainingFrames == 0) return -1;
+			int frames = (int) Math.min(remainingFrames, len >> 2);
+			render(ByteBuffer.wrap(b, off, frames * 4), frames);
+			remainingFrames -= frames;
+			return frames * 4;
+		}
+		
+		@Override
+		public int available()
+		{
+			return (int) Math.min(Integer.MAX_VALUE, 
+					remainingFrames * 4 + frame.length - frameIndex);
+		}
+	}
+	
+	/*
+	 * Sums all running tracks, scaled by their gains, in a single pass 
+	 * per track. The values are not clamped here, so that the sum is
+	 * exact until the final limiter stage.
+	 */
+	private float[] fillBufferFromTracks(float[] normalizedOut)
+	{	
+		// loop through all tracks, summing	
+		for (int n = 0; n < trackCount; n++)	
+		{
+			AudioMixerTrack track = mixerTracks[n];
+			if (!track.isTrackRunning()) continue;
+			
+			float[] audioData;
+			try 
+			{
+				audioData = track.readTrack();
+			} 
+			catch (Exception e) 
 			{
-				if (normalizedOut[i] > 1)
+				// the track stays silent for this buffer
+				trackErrorCount++;
+				lastTrackError = e;
+				continue;
+			}
+			
+			int length = Math.min(readBufferSize, audioData.length);
+			float gain = mixerTrackGains[n];
+			if (gain == 1)
+			{
+				for (int i = 0; i < length; i++)
 				{
-					normalizedOut[i] = 1;
+					normalizedOut[i] += audioData[i];
 				}
-				else if (normalizedOut[i] < -1)
+			}
+			else if (gain != 0)
+			{
+				for (int i = 0; i < length; i++)
 				{
-					normalizedOut[i] = -1;
+					normalizedOut[i] += audioData[i] * gain;
 				}
 			}
 		}
 		return normalizedOut;
 	}
+	
+	/*
+	 * Applies the selected limiter to the sum of all tracks.
+	 */
+	private float[] limit(float[] normalizedOut)
+	{
+		Limiter limiter = this.limiter;
+		if (limiter != mixerLimiter)
+		{
+			if (lookAheadLimiter != null) lookAheadLimiter.reset();
+			mixerLimiter = limiter;
+		}
+		switch (limiter)
+		{
+			case TANH:
+				for (int i = 0; i < readBufferSize; i++)
+				{
+					// tanh(x) = (1 - e^-2|x|) / (1 + e^-2|x|), with the sign of x
+					float value = normalizedOut[i];
+					float e = (float) Math.exp(-2 * Math.abs(value));
+					normalizedOut[i] = Math.copySign((1 - e) / (1 + e), value);
+				}
+				break;
+			case LOOK_AHEAD:
+				if (lookAheadLimiter == null)
+				{
+					lookAheadLimiter = new LookAheadLimiter(LOOK_AHEAD_FRAMES, 
+							LOOK_AHEAD_THRESHOLD, LOOK_AHEAD_RELEASE_FRAMES);
+				}
+				lookAheadLimiter.process(normalizedOut);
+				// guards against rounding above the threshold
+				clamp(normalizedOut);
+				break;
+			default:
+				clamp(normalizedOut);
+				break;
+		}
+		return normalizedOut;
+	}
+	
+	/*
+	 * Hard clips the mix to [-1, 1].
+	 */
+	private void clamp(float[] normalizedOut)
+	{
+		for (int i = 0; i < readBufferSize; i++)
+		{
+			normalizedOut[i] = Math.max(-1f, Math.min(1f, normalizedOut[i]));
+		}
+	}
     
 	private class AudioMixerPlayer implements Runnable
 	{
@@ -294,18 +713,7 @@ public class AudioMixer
 		{
 			while(mixerRunning)
 			{				
-		    	if (trackCacheUpdated)
-		    	{
-		    		/*
-		    		 * Concurrency plan: Better to allow a late  
-		    		 * or redundant update than to skip an update.
-		    		 */
-		    		trackCacheUpdated = false; 
-		    		mixerTracks = trackCache;
-		    		trackCount = mixerTracks.length;
-		    	}
-		    	Arrays.fill(readBuffer, 0);
-				readBuffer = fillBufferFromTracks(readBuffer);
+				readBuffer = mix(readBuffer);
 				audioBytes = AudioCue.fromPcmToAudioBytes(audioBytes, readBuffer);
 				sdl.write(audioBytes, 0, sdlByteBufferSize);
 			}
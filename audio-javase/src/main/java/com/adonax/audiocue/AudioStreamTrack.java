@@ -0,0 +1,611 @@
+package com.adonax.audiocue;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@code AudioStreamTrack} plays a single, long audio stream, such
+ * as music, as a track of an {@code AudioMixer}. Unlike an
+ * {@code AudioCue}, the media is not decoded into memory up front: a
+ * background thread decodes it incrementally into a bounded ring of
+ * PCM blocks, which are consumed by the {@code AudioMixer}. Memory use
+ * is constant regardless of the length of the media, and play can
+ * start as soon as the first block has been decoded.
+ * <p>
+ * The media is obtained from a {@code Source}, which must provide
+ * streams in the {@code AudioCue.audioFormat}. The source is reopened
+ * in order to loop or to seek backwards; seeking forwards skips frames
+ * of the current stream. If decoding falls behind, the missing frames
+ * are played as silence rather than blocking the thread of the
+ * {@code AudioMixer}.
+ * <p>
+ * Notifications of {@code Listener}s occur on the thread which
+ * processes the audio signal, and should be coded for brevity.
+ *
+ * @see AudioMixer
+ * @see AudioCue#audioFormat
+ */
+public class AudioStreamTrack implements AudioMixerTrack
+{
+	/**
+	 * Provides the streams of an {@code AudioStreamTrack}. Each call
+	 * must return a new stream positioned at the start of the media.
+	 */
+	public interface Source
+	{
+		AudioInputStream open() throws IOException, UnsupportedAudioFileException;
+	}
+
+	/**
+	 * Receives notifications of an {@code AudioStreamTrack} reaching
+	 * the end of its media.
+	 */
+	public interface Listener
+	{
+		void streamLooped(AudioStreamTrack source, int loops);
+		void streamEnded(AudioStreamTrack source);
+	}
+
+	/**
+	 * A value indicating the default number of PCM frames in a block of
+	 * the ring.
+	 */
+	public static final int DEFAULT_BLOCK_FRAMES = 4096;
+	/**
+	 * A value indicating the default number of blocks of the ring. With
+	 * the default block size, the ring holds about 0.75 seconds of media.
+	 */
+	public static final int DEFAULT_BLOCK_COUNT = 8;
+
+	private static final class Block
+	{
+		final float[] pcm;
+		int frames;
+		long startFrame;
+		int generation;
+		boolean looped;
+		boolean end;
+
+		Block(int blockFrames)
+		{
+			pcm = new float[blockFrames * 2];
+		}
+	}
+
+	private final Source source;
+	private final String name;
+	private final ArrayBlockingQueue<Block> freeBlocks;
+	private final ArrayBlockingQueue<Block> filledBlocks;
+	private final CopyOnWriteArrayList<Listener> listeners;
+	private final Thread decoder;
+
+	private volatile AudioMixer audioMixer;
+	private volatile boolean trackRunning;
+	private volatile boolean playing;
+	private volatile boolean disposed;
+	private float[] readBuffer;
+
+	// written by seeks, read by both threads
+	private volatile int generation;
+	private volatile long seekFrame;
+
+	// owned by the decoder thread
+	private AudioInputStream stream;
+	private byte[] audioBytes;
+	private long decodedFrame;
+	private int decodedGeneration;
+
+	// owned by the mixer thread
+	private Block current;
+	private int currentIndex;
+	private float gainL = 1, gainR = 1;
+
+	private volatile float volumeL = 1, volumeR = 1;
+	private volatile int loop;
+	private volatile long framePosition;
+	private volatile long frameLength;
+	private volatile long underruns;
+
+	/**
+	 * Constructor for {@code AudioStreamTrack}, using the default
+	 * block size and count.
+	 *
+	 * @param source - the {@code Source} of the media
+	 * @param name - a {@code String} to associate with the track
+	 * @throws IOException if the media cannot be read
+	 * @throws UnsupportedAudioFileException if the media format is
+	 * 					not supported
+	 */
+	public AudioStreamTrack(Source source, String name)
+			throws IOException, UnsupportedAudioFileException
+	{
+		this(source, name, DEFAULT_BLOCK_FRAMES, DEFAULT_BLOCK_COUNT);
+	}
+
+	/**
+	 * Constructor for {@code AudioStreamTrack}. The source is opened
+	 * immediately and decoding starts on a background thread, so the
+	 * ring is filled by the time the track is started.
+	 *
+	 * @param source - the {@code Source} of the media
+	 * @param name - a {@code String} to associate with the track
+	 * @param blockFrames - the number of PCM frames in a block
+	 * @param blockCount - the number of blocks of the ring, at least 2
+	 * @throws IOException if the media cannot be read
+	 * @throws UnsupportedAudioFileException if the media format is
+	 * 					not supported
+	 */
+	public AudioStreamTrack(Source source, String name, int blockFrames, int blockCount)
+			throws IOException, UnsupportedAudioFileException
+	{
+		if (blockFrames < 1) throw new IllegalArgumentException("Invalid block frames: " + blockFrames);
+		if (blockCount < 2) throw new IllegalArgumentException("Invalid block count: " + blockCount);
+		this.source = source;
+		this.name = name;
+		freeBlocks = new ArrayBlockingQueue<Block>(blockCount);
+		filledBlocks = new ArrayBlockingQueue<Block>(blockCount);
+		for (int i = 0; i < blockCount; i++)
+		{
+			freeBlocks.add(new Block(blockFrames));
+		}
+		listeners = new CopyOnWriteArrayList<Listener>();
+
+		stream = source.open();
+		long length = stream.getFrameLength();
+		frameLength = length < 0 ? -1 : length;
+		audioBytes = new byte[blockFrames * AudioCue.audioFormat.getFrameSize()];
+
+		decoder = new Thread(this::decode, "AudioStreamTrack-" + name);
+		decoder.setDaemon(true);
+		decoder.start();
+	}
+
+	public String getName() { return name; }
+
+	public void addListener(Listener listener)
+	{
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener)
+	{
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Adds this track to the given {@code AudioMixer}.
+	 *
+	 * @param audioMixer - the {@code AudioMixer} that will handle media
+	 * 					   output for this track
+	 * @throws IllegalStateException if the track is already open
+	 */
+	public void open(AudioMixer audioMixer)
+	{
+		if (this.audioMixer != null) throw new IllegalStateException("Already open.");
+		if (disposed) throw new IllegalStateException("Already disposed.");
+		this.audioMixer = audioMixer;
+		readBuffer = new float[audioMixer.bufferFrames * 2];
+		trackRunning = true;
+		audioMixer.addTrack(this);
+		audioMixer.updateTracks();
+	}
+
+	/**
+	 * Removes this track from its {@code AudioMixer}. The decoded
+	 * blocks are kept, so the track can be reopened without delay.
+	 *
+	 * @throws IllegalStateException if the track is already closed
+	 */
+	public void close()
+	{
+		if (audioMixer == null) throw new IllegalStateException("Already closed.");
+		audioMixer.removeTrack(this);
+		audioMixer.updateTracks();
+		audioMixer = null;
+	}
+
+	public boolean isOpen()
+	{
+		return audioMixer != null;
+	}
+
+	/**
+	 * Stops decoding and releases the stream. The track is closed if
+	 * it is open.
+	 */
+	public void dispose()
+	{
+		if (disposed) return;
+		if (audioMixer != null) close();
+		playing = false;
+		synchronized (this)
+		{
+			disposed = true;
+			notifyAll();
+		}
+	}
+
+	public boolean isDisposed()
+	{
+		return disposed;
+	}
+
+	/**
+	 * Starts or resumes play from the current position.
+	 */
+	public void start()
+	{
+		playing = true;
+	}
+
+	/**
+	 * Pauses play. The current position is kept.
+	 */
+	public void stop()
+	{
+		playing = false;
+	}
+
+	public boolean isPlaying()
+	{
+		return playing;
+	}
+
+	/**
+	 * Sets the volumes of the left and right channels, with values
+	 * usually between 0 (silent) and 1 (full volume). Changes are
+	 * ramped over one buffer to prevent audible clicks.
+	 *
+	 * @param left - the volume of the left channel
+	 * @param right - the volume of the right channel
+	 */
+	public void setVolume(float left, float right)
+	{
+		volumeL = left;
+		volumeR = right;
+	}
+
+	public float getLeftVolume()
+	{
+		return volumeL;
+	}
+
+	public float getRightVolume()
+	{
+		return volumeR;
+	}
+
+	/**
+	 * Sets the number of times the media restarts when it ends. A value
+	 * of -1 loops indefinitely. As the media is decoded ahead of play,
+	 * a change may not affect the end of the media if it is less than
+	 * the length of the ring away.
+	 *
+	 * @param loops - the number of loops, or -1 to loop indefinitely
+	 */
+	public void setLooping(int loops)
+	{
+		loop = Math.max(-1, loops);
+	}
+
+	public int getLooping()
+	{
+		return loop;
+	}
+
+	/**
+	 * Returns the media length in sample frames. The length is unknown
+	 * for some formats until the media has been decoded to its end once.
+	 *
+	 * @return length in sample frames, or -1 if unknown
+	 */
+	public long getFrameLength()
+	{
+		return frameLength;
+	}
+
+	/**
+	 * Returns the position of play in sample frames.
+	 *
+	 * @return the frame position
+	 */
+	public long getFramePosition()
+	{
+		return framePosition;
+	}
+
+	/**
+	 * Moves the position of play to the given frame. Frames which have
+	 * been decoded ahead are discarded, and play resumes once the block
+	 * at the new position has been decoded.
+	 *
+	 * @param frame - the frame position, clamped to the known length
+	 */
+	public synchronized void setFramePosition(long frame)
+	{
+		if (disposed) throw new IllegalStateException("Already disposed.");
+		frame = Math.max(0, frame);
+		long length = frameLength;
+		if (length >= 0) frame = Math.min(frame, length);
+		if (frame == framePosition && seekFrame == frame) return;
+		seekFrame = frame;
+		framePosition = frame;
+		generation++;
+		// hand the stale blocks back, which also wakes the decoder if the ring was full
+		for (Block block; (block = filledBlocks.poll()) != null; )
+		{
+			freeBlocks.offer(block);
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Returns the number of buffers in which decoding had fallen behind
+	 * and silence was played instead.
+	 *
+	 * @return the number of underruns
+	 */
+	public long getUnderrunCount()
+	{
+		return underruns;
+	}
+
+	@Override  // AudioMixerTrack interface
+	public boolean isTrackRunning()
+	{
+		return trackRunning;
+	}
+
+	@Override  // AudioMixerTrack interface
+	public void setTrackRunning(boolean trackRunning)
+	{
+		this.trackRunning = trackRunning;
+	}
+
+	@Override  // AudioMixerTrack interface
+	public float[] readTrack()
+	{
+		float[] buffer = readBuffer;
+		Arrays.fill(buffer, 0);
+		if (!playing) return buffer;
+
+		int frames = buffer.length >> 1;
+		float targetL = volumeL, targetR = volumeR;
+		float incrL = (targetL - gainL) / frames;
+		float incrR = (targetR - gainR) / frames;
+
+		int i = 0;
+		int gen = generation;
+		while (i < buffer.length)
+		{
+			if (current != null && current.generation != gen)
+			{
+				freeBlocks.offer(current);
+				current = null;
+			}
+			if (current == null)
+			{
+				current = pollBlock();
+				if (current == null)
+				{
+					underruns++;
+					break;
+				}
+				currentIndex = 0;
+				if (current.generation != gen) continue;
+				if (current.looped) broadcastLoopEvent();
+				if (current.end)
+				{
+					freeBlocks.offer(current);
+					current = null;
+					playing = false;
+					broadcastEndEvent();
+					break;
+				}
+			}
+
+			float[] pcm = current.pcm;
+			int count = Math.min(current.frames - currentIndex, (buffer.length - i) >> 1);
+			for (int j = currentIndex * 2, end = j + count * 2; j < end; j += 2, i += 2)
+			{
+				gainL += incrL;
+				gainR += incrR;
+				buffer[i] = pcm[j] * gainL;
+				buffer[i + 1] = pcm[j + 1] * gainR;
+			}
+			currentIndex += count;
+			if (generation == gen) framePosition = current.startFrame + currentIndex;
+			if (currentIndex == current.frames)
+			{
+				freeBlocks.offer(current);
+				current = null;
+			}
+		}
+		gainL = targetL;
+		gainR = targetR;
+		return buffer;
+	}
+
+	/*
+	 * Mixer thread code, waits for the decoder while the mixer is
+	 * rendering offline, as there is no deadline to meet.
+	 */
+	private Block pollBlock()
+	{
+		AudioMixer audioMixer = this.audioMixer;
+		if (audioMixer == null || !audioMixer.isRendering()) return filledBlocks.poll();
+		try
+		{
+			return filledBlocks.poll(1, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/*
+	 * Decoder thread code.
+	 */
+	private void decode()
+	{
+		boolean looped = false;
+		boolean ended = false;
+		try
+		{
+			while (!disposed)
+			{
+				int gen = generation;
+				if (gen != decodedGeneration)
+				{
+					seek(seekFrame);
+					decodedGeneration = gen;
+					looped = false;
+					ended = false;
+				}
+				if (ended)
+				{
+					synchronized (this)
+					{
+						while (!disposed && generation == decodedGeneration) wait();
+					}
+					continue;
+				}
+				Block block = freeBlocks.poll(50, TimeUnit.MILLISECONDS);
+				if (block == null) continue;
+
+				int frames = fill(block.pcm);
+				if (frames == 0)
+				{
+					if (frameLength < 0) frameLength = decodedFrame;
+					int loops = loop;
+					if (loops != 0 && decodedFrame > 0)
+					{
+						if (loops > 0) loop = loops - 1;
+						seek(0);
+						looped = true;
+						frames = fill(block.pcm);
+					}
+				}
+				block.generation = gen;
+				block.startFrame = decodedFrame;
+				block.frames = frames;
+				block.looped = looped;
+				block.end = frames == 0;
+				looped = false;
+				ended = block.end;
+				decodedFrame += frames;
+				filledBlocks.offer(block);
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			closeStream();
+		}
+	}
+
+	/*
+	 * Decoder thread code, positions the stream at the given frame,
+	 * reopening the source if the frame has already been decoded.
+	 */
+	private void seek(long frame)
+	{
+		try
+		{
+			if (stream == null || frame < decodedFrame)
+			{
+				closeStream();
+				stream = source.open();
+				decodedFrame = 0;
+			}
+			long bytes = (frame - decodedFrame) * AudioCue.audioFormat.getFrameSize();
+			while (bytes > 0)
+			{
+				long skipped = stream.skip(bytes);
+				if (skipped <= 0)
+				{
+					int read = stream.read(audioBytes, 0, (int) Math.min(bytes, audioBytes.length));
+					if (read < 0) break;
+					skipped = read;
+				}
+				bytes -= skipped;
+			}
+			decodedFrame = frame - bytes / AudioCue.audioFormat.getFrameSize();
+		}
+		catch (IOException | UnsupportedAudioFileException e)
+		{
+			// treated as the end of the media
+			closeStream();
+		}
+	}
+
+	/*
+	 * Decoder thread code, decodes up to one block of frames, and
+	 * returns the number of frames decoded, 0 at the end of the media.
+	 */
+	private int fill(float[] pcm)
+	{
+		if (stream == null) return 0;
+		int length = 0;
+		try
+		{
+			int read;
+			while (length < audioBytes.length
+					&& (read = stream.read(audioBytes, length, audioBytes.length - length)) != -1)
+			{
+				length += read;
+			}
+		}
+		catch (IOException e)
+		{
+			// treated as the end of the media
+			closeStream();
+		}
+		// 16-bit little-endian stereo, two values per frame
+		int values = length >> 1;
+		for (int i = 0, b = 0; i < values; i++, b += 2)
+		{
+			pcm[i] = ((audioBytes[b] & 0xff) | (audioBytes[b + 1] << 8)) / 32767f;
+		}
+		return values >> 1;
+	}
+
+	private void closeStream()
+	{
+		if (stream == null) return;
+		try
+		{
+			stream.close();
+		}
+		catch (IOException ignored)
+		{
+		}
+		stream = null;
+	}
+
+	private void broadcastLoopEvent()
+	{
+		for (Listener listener : listeners)
+		{
+			listener.streamLooped(this, loop);
+		}
+	}
+
+	private void broadcastEndEvent()
+	{
+		for (Listener listener : listeners)
+		{
+			listener.streamEnded(this);
+		}
+	}
+}
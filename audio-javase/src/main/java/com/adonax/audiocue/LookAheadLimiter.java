@@ -0,0 +1,143 @@
+package com.adonax.audiocue;
+
+import java.util.Arrays;
+
+/**
+ * A stereo look-ahead peak limiter, used by {@code AudioMixer} for
+ * {@code AudioMixer.Limiter.LOOK_AHEAD}. The output is delayed by the
+ * look-ahead, which allows the gain to be lowered along a linear ramp
+ * before a peak arrives, so that peaks are limited to the threshold
+ * without clipping. The gain recovers with an exponential release.
+ * <p>
+ * For each incoming frame, the gain required to bring it down to the
+ * threshold is computed. The minimum of the required gains over the
+ * look-ahead window is then averaged over a window of the same length,
+ * which yields a gain that reaches the required gain of each peak at
+ * the time the peak is output.
+ */
+class LookAheadLimiter
+{
+	private final float threshold;
+	private final float releaseCoeff;
+	private final int lookAhead;
+	private final int window;
+
+	// delay line of the input frames
+	private final float[] delay;
+	private int delayIndex;
+
+	// monotonic queue of the required gains over the window, for
+	// their sliding minimum
+	private final long[] queueFrames;
+	private final float[] queueGains;
+	private int queueHead, queueSize;
+	private long frame;
+
+	// box filter of the minimum gains
+	private final float[] minimums;
+	private int minimumIndex;
+	private double minimumSum;
+
+	private float gain;
+
+	/**
+	 * Constructor for {@code LookAheadLimiter}.
+	 *
+	 * @param lookAheadFrames - the number of frames by which peaks are
+	 * 				anticipated, and the output is delayed, at least 1
+	 * @param threshold - the maximum absolute output value
+	 * @param releaseFrames - the time constant of the release, in frames
+	 */
+	LookAheadLimiter(int lookAheadFrames, float threshold, float releaseFrames)
+	{
+		if (lookAheadFrames < 1) throw new IllegalArgumentException(
+				"Invalid look-ahead: " + lookAheadFrames);
+		this.lookAhead = lookAheadFrames;
+		this.window = lookAheadFrames + 1;
+		this.threshold = threshold;
+		this.releaseCoeff = (float) (1 - Math.exp(-1.0 / releaseFrames));
+		delay = new float[lookAheadFrames * 2];
+		queueFrames = new long[window];
+		queueGains = new float[window];
+		minimums = new float[window];
+		reset();
+	}
+
+	/**
+	 * Returns the number of frames by which the output is delayed.
+	 *
+	 * @return the latency in frames
+	 */
+	int getLatency()
+	{
+		return lookAhead;
+	}
+
+	/**
+	 * Clears the delay line and restores unity gain.
+	 */
+	void reset()
+	{
+		Arrays.fill(delay, 0);
+		Arrays.fill(minimums, 1);
+		delayIndex = 0;
+		minimumIndex = 0;
+		minimumSum = window;
+		queueHead = 0;
+		queueSize = 0;
+		frame = 0;
+		gain = 1;
+	}
+
+	/**
+	 * Limits the interleaved stereo values of the buffer in place. The
+	 * values are delayed by the look-ahead across calls.
+	 *
+	 * @param buffer - the interleaved stereo values to limit
+	 */
+	void process(float[] buffer)
+	{
+		for (int i = 0, n = buffer.length; i < n; i += 2)
+		{
+			float left = buffer[i], right = buffer[i + 1];
+			float peak = Math.max(Math.abs(left), Math.abs(right));
+			float required = peak > threshold ? threshold / peak : 1;
+
+			// sliding minimum of the required gains over the window
+			if (queueSize > 0 && queueFrames[queueHead] <= frame - window)
+			{
+				queueHead = (queueHead + 1) % window;
+				queueSize--;
+			}
+			while (queueSize > 0 
+					&& queueGains[(queueHead + queueSize - 1) % window] >= required)
+			{
+				queueSize--;
+			}
+			int tail = (queueHead + queueSize) % window;
+			queueFrames[tail] = frame;
+			queueGains[tail] = required;
+			queueSize++;
+			float minimum = queueGains[queueHead];
+
+			// averaging the minimums over the window ramps the gain
+			// down linearly, reaching each peak's gain in time
+			minimumSum += minimum - minimums[minimumIndex];
+			minimums[minimumIndex] = minimum;
+			minimumIndex = (minimumIndex + 1) % window;
+			float target = (float) Math.min(1, minimumSum / window);
+
+			if (target < gain) gain = target;
+			else gain += (target - gain) * releaseCoeff;
+
+			// output the delayed frame, and store the incoming one
+			int d = delayIndex * 2;
+			buffer[i] = delay[d] * gain;
+			buffer[i + 1] = delay[d + 1] * gain;
+			delay[d] = left;
+			delay[d + 1] = right;
+			delayIndex = (delayIndex + 1) % lookAhead;
+			frame++;
+		}
+	}
+}
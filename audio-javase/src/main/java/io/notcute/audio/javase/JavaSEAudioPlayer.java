@@ -4,10 +4,11 @@ import com.adonax.audiocue.AudioCue;
 import com.adonax.audiocue.AudioCueInstanceEvent;
 import com.adonax.audiocue.AudioCueListener;
 import com.adonax.audiocue.AudioMixer;
+import com.adonax.audiocue.AudioStreamTrack;
 import io.notcute.app.Assets;
 import io.notcute.app.javase.JavaSEAssets;
 import io.notcute.audio.AudioPlayer;
-import io.notcute.util.MathUtils;
+import io.notcute.context.Context;
 import io.notcute.util.signalslot.VoidSignal1;
 import io.notcute.util.signalslot.VoidSignal2;
 
@@ -15,6 +16,7 @@ import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -22,7 +24,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
+public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener, AudioStreamTrack.Listener {
 
     protected static AudioInputStream getSupportedAudioInputStream(AudioInputStream ais) {
         if (ais == null) throw new IllegalArgumentException("ais == NULL!");
@@ -69,6 +71,30 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
         return audioMixer;
     }
 
+    private final JavaSESampleCache sampleCache;
+
+    public JavaSEAudioPlayer(JavaSESampleCache sampleCache) {
+        this.sampleCache = Objects.requireNonNull(sampleCache);
+    }
+
+    /**
+     * Creates a new player, which stores decoded sounds in the "samples" directory
+     * of the cache directory of the given context.
+     *
+     * @param contextHolder the context holder providing the cache directory
+     */
+    public JavaSEAudioPlayer(Context.Holder contextHolder) {
+        this(new JavaSESampleCache(new File(contextHolder.getCacheDir(), "samples")));
+    }
+
+    public JavaSEAudioPlayer() {
+        this(new JavaSESampleCache());
+    }
+
+    public JavaSESampleCache getSampleCache() {
+        return sampleCache;
+    }
+
     protected final List<JavaSEMusic> musics = new CopyOnWriteArrayList<>();
     protected final List<JavaSESound> sounds = new CopyOnWriteArrayList<>();
 
@@ -76,10 +102,8 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
     public Sound loadSound(File input) {
         Objects.requireNonNull(input);
         try {
-            AudioInputStream ais = AudioSystem.getAudioInputStream(input);
-            ais = getSupportedAudioInputStream(ais);
-            float[] cue = loadAudioInputStream(ais);
-            JavaSESound sound = new JavaSESound(AudioCue.makeStereoCue(cue, input.toURI().toString(), 1));
+            float[] cue = sampleCache.obtain(input);
+            JavaSESound sound = new JavaSESound(cue, input.toURI().toString());
             sounds.add(sound);
             onSoundLoad.emit(sound);
             return sound;
@@ -91,11 +115,9 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
 
     @Override
     public Sound loadSound(Assets assets, String input) {
-        try {
-            AudioInputStream ais = AudioSystem.getAudioInputStream(assets.readAsset(input));
-            ais = getSupportedAudioInputStream(ais);
-            float[] cue = loadAudioInputStream(ais);
-            JavaSESound sound = new JavaSESound(AudioCue.makeStereoCue(cue, input, 1));
+        try (InputStream stream = assets.readAsset(input)) {
+            float[] cue = sampleCache.obtain(stream);
+            JavaSESound sound = new JavaSESound(cue, input);
             sounds.add(sound);
             onSoundLoad.emit(sound);
             return sound;
@@ -133,37 +155,36 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
 
     @Override
     public void prepareMusic(Music music) throws IOException {
-        AudioCue audioCue = ((JavaSEMusic) music).audioCue;
-        if (audioCue != null && !((JavaSEMusic) music).isPrepared()) {
-            ((JavaSEMusic) music).setInstanceID(audioCue.obtainInstance());
-            return;
-        }
-        try {
+        JavaSEMusic javaSEMusic = (JavaSEMusic) music;
+        if (javaSEMusic.track == null) {
+            // Music is streamed, so only the first blocks are decoded here
             String name;
-            AudioInputStream ais;
-            File file = ((JavaSEMusic) music).file;
+            AudioStreamTrack.Source source;
+            File file = javaSEMusic.file;
             if (file != null) {
-                ais = AudioSystem.getAudioInputStream(file);
+                source = () -> getSupportedAudioInputStream(AudioSystem.getAudioInputStream(file));
                 name = file.getAbsolutePath();
             }
             else {
-                String assetName = ((JavaSEMusic) music).assetName;
-                InputStream input = JavaSEAssets.class.getClassLoader().getResourceAsStream(assetName);
-                Objects.requireNonNull(input);
-                ais = AudioSystem.getAudioInputStream(input);
+                String assetName = javaSEMusic.assetName;
+                source = () -> {
+                    InputStream input = JavaSEAssets.class.getClassLoader().getResourceAsStream(assetName);
+                    Objects.requireNonNull(input);
+                    return getSupportedAudioInputStream(AudioSystem.getAudioInputStream(new BufferedInputStream(input)));
+                };
                 name = assetName;
             }
-            ais = getSupportedAudioInputStream(ais);
-            float[] cue = loadAudioInputStream(ais);
-            ((JavaSEMusic) music).setAudioCue(AudioCue.makeStereoCue(cue, name, 1));
-            audioCue = ((JavaSEMusic) music).audioCue;
-            ((JavaSEMusic) music).setInstanceID(audioCue.obtainInstance());
-            ((JavaSEMusic) music).setLength((int) (audioCue.getFrameLength() * 1000.0 / AudioCue.audioFormat.getFrameRate()));
-            ((JavaSEMusic) music).setPrepared(true);
-            onMusicPrepare.emit(music);
+            try {
+                javaSEMusic.setTrack(new AudioStreamTrack(source, name));
+            }
+            catch (UnsupportedAudioFileException e) {
+                throw new IOException(e);
+            }
+            javaSEMusic.track.addListener(this);
         }
-        catch (UnsupportedAudioFileException e) {
-            throw new IOException(e);
+        if (!javaSEMusic.isPrepared()) {
+            javaSEMusic.setPrepared(true);
+            onMusicPrepare.emit(music);
         }
     }
 
@@ -189,13 +210,12 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
                 return;
             }
         }
-        AudioCue audioCue = ((JavaSEMusic)music).audioCue;
-        int instanceID = ((JavaSEMusic)music).instanceID;
-        if (!audioCue.isPlayerRunning()) audioCue.open(audioMixer);
-        if (!audioCue.isPlaying(instanceID)) {
+        AudioStreamTrack track = ((JavaSEMusic)music).track;
+        if (!track.isOpen()) track.open(audioMixer);
+        if (!track.isPlaying()) {
             ((JavaSEMusic)music).apply();
-            audioCue.setFramePosition(instanceID, 0);
-            audioCue.start(instanceID);
+            track.setFramePosition(0);
+            track.start();
             onMusicStart.emit(music);
         }
     }
@@ -204,9 +224,7 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
     public void pauseMusic(Music music) {
         Objects.requireNonNull(music);
         checkMusicPrepared(music);
-        AudioCue audioCue = ((JavaSEMusic)music).audioCue;
-        int instanceID = ((JavaSEMusic)music).instanceID;
-        audioCue.stop(instanceID);
+        ((JavaSEMusic)music).track.stop();
         onMusicPause.emit(music);
     }
 
@@ -214,9 +232,7 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
     public void resumeMusic(Music music) {
         Objects.requireNonNull(music);
         checkMusicPrepared(music);
-        AudioCue audioCue = ((JavaSEMusic)music).audioCue;
-        int instanceID = ((JavaSEMusic)music).instanceID;
-        audioCue.start(instanceID);
+        ((JavaSEMusic)music).track.start();
         onMusicResume.emit(music);
     }
 
@@ -224,13 +240,10 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
     public void stopMusic(Music music) {
         Objects.requireNonNull(music);
         checkMusicPrepared(music);
-        AudioCue audioCue = ((JavaSEMusic)music).audioCue;
-        int instanceID = ((JavaSEMusic)music).instanceID;
-        if (audioCue.isPlaying(instanceID)) audioCue.stop(instanceID);
-        if (audioCue.isPlayerRunning()) {
-            audioCue.close();
-            audioCue.releaseInstance(instanceID);
-            ((JavaSEMusic) music).setInstanceID(-1);
+        AudioStreamTrack track = ((JavaSEMusic)music).track;
+        track.stop();
+        if (track.isOpen()) {
+            track.close();
             ((JavaSEMusic) music).setPrepared(false);
         }
         if (audioMixer.getTrackCacheCount() < 1) {
@@ -242,9 +255,11 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
     public void unloadMusic(Music music) {
         Objects.requireNonNull(music);
         musics.remove(((JavaSEMusic) music));
-        AudioCue audioCue = ((JavaSEMusic)music).audioCue;
-        if (audioCue.isPlayerRunning()) {
-            audioCue.close();
+        AudioStreamTrack track = ((JavaSEMusic)music).track;
+        if (track != null) {
+            track.dispose();
+            ((JavaSEMusic) music).setTrack(null);
+            ((JavaSEMusic) music).setPrepared(false);
         }
         if (audioMixer.getTrackCacheCount() < 1) {
             if (audioMixer.isMixerRunning()) audioMixer.stop();
@@ -383,11 +398,13 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
     @Override
     public void unloadSound(Sound sound) {
         Objects.requireNonNull(sound);
-        sounds.remove(((JavaSESound) sound));
+        boolean removed = sounds.remove(((JavaSESound) sound));
         AudioCue audioCue = ((JavaSESound)sound).audioCue;
         if (audioCue.isPlayerRunning()) {
             audioCue.close();
         }
+        float[] samples = ((JavaSESound)sound).samples;
+        if (removed && samples != null) sampleCache.release(samples);
         if (audioMixer.getTrackCacheCount() < 1) {
             if (audioMixer.isMixerRunning()) audioMixer.stop();
         }
@@ -404,16 +421,23 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
 
     @Override
     public void instanceEventOccurred(AudioCueInstanceEvent event) {
+    }
+
+    @Override
+    public void streamLooped(AudioStreamTrack source, int loops) {
         for (JavaSEMusic music : musics) {
-            if (event.source == music.audioCue && event.instanceID == music.instanceID) {
-                switch (event.type) {
-                    case LOOP:
-                        onMusicStop.emit(music, music.audioCue.getLooping(music.instanceID));
-                        break;
-                    case STOP_INSTANCE:
-                        onMusicStop.emit(music, 0);
-                        break;
-                }
+            if (source == music.track) {
+                onMusicStop.emit(music, loops);
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void streamEnded(AudioStreamTrack source) {
+        for (JavaSEMusic music : musics) {
+            if (source == music.track) {
+                onMusicStop.emit(music, 0);
                 break;
             }
         }
@@ -431,17 +455,16 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
 
     public static class JavaSEMusic implements Music {
 
-        private volatile float volume;
+        private volatile float leftVolume;
+        private volatile float rightVolume;
         private volatile int loops;
         private volatile int pos;
 
         protected final File file;
         protected final String assetName;
 
-        protected volatile AudioCue audioCue = null;
+        protected volatile AudioStreamTrack track = null;
         protected volatile boolean prepared = false;
-        protected volatile int instanceID = -1;
-        private volatile int length = -1;
 
         public JavaSEMusic(File file) {
             Objects.requireNonNull(file);
@@ -465,24 +488,12 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
             return file;
         }
 
-        public void setAudioCue(AudioCue audioCue) {
-            this.audioCue = audioCue;
-        }
-
-        public AudioCue getAudioCue() {
-            return audioCue;
+        public void setTrack(AudioStreamTrack track) {
+            this.track = track;
         }
 
-        public int getInstanceID() {
-            return instanceID;
-        }
-
-        public void setInstanceID(int instanceID) {
-            this.instanceID = instanceID;
-        }
-
-        public void setLength(int length) {
-            this.length = length;
+        public AudioStreamTrack getTrack() {
+            return track;
         }
 
         public boolean isPrepared() {
@@ -494,23 +505,47 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
         }
 
         @Override
-        public void setVolume(float volume) {
-            this.volume = volume;
+        public void setLeftVolume(float leftVol) {
+            this.leftVolume = leftVol;
+            AudioStreamTrack track = this.track;
+            if (track != null) track.setVolume(leftVolume, rightVolume);
+        }
+
+        @Override
+        public void setRightVolume(float rightVol) {
+            this.rightVolume = rightVol;
+            AudioStreamTrack track = this.track;
+            if (track != null) track.setVolume(leftVolume, rightVolume);
         }
 
         @Override
         public void setLooping(int loops) {
             this.loops = Math.max(-1, loops);
+            AudioStreamTrack track = this.track;
+            if (track != null) track.setLooping(this.loops);
         }
 
+        /**
+         * Sets the position of the music. If the music is prepared, it seeks immediately;
+         * frames decoded ahead are discarded and the stream is reopened if the position is behind.
+         *
+         * @param pos the position in milliseconds
+         */
         @Override
         public void setMillisecondPos(int pos) {
             this.pos = pos;
+            AudioStreamTrack track = this.track;
+            if (track != null && !track.isDisposed()) track.setFramePosition(toFrames(pos));
+        }
+
+        @Override
+        public float getLeftVolume() {
+            return leftVolume;
         }
 
         @Override
-        public float getVolume() {
-            return volume;
+        public float getRightVolume() {
+            return rightVolume;
         }
 
         @Override
@@ -520,38 +555,75 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
 
         @Override
         public int getMillisecondPos() {
-            return pos;
+            AudioStreamTrack track = this.track;
+            return track == null ? pos : toMilliseconds(track.getFramePosition());
         }
 
         public void apply() {
-            audioCue.setVolume(instanceID, volume);
-            audioCue.setLooping(instanceID, loops);
-            double frames = (AudioCue.audioFormat.getFrameRate() * MathUtils.clamp(pos, 0, getMillisecondLength())) / 1000.0;
-            audioCue.setFramePosition(instanceID, frames);
+            track.setVolume(leftVolume, rightVolume);
+            track.setLooping(loops);
         }
 
+        /**
+         * Returns the length of the music. Some formats only report the length once the music
+         * has been played to its end.
+         *
+         * @return the length in milliseconds, -1 if unknown
+         */
         @Override
         public int getMillisecondLength() {
-            return length;
+            AudioStreamTrack track = this.track;
+            long frames = track == null ? -1 : track.getFrameLength();
+            return frames < 0 ? -1 : toMilliseconds(frames);
+        }
+
+        private static long toFrames(int milliseconds) {
+            return (long) (AudioCue.audioFormat.getFrameRate() * Math.max(0, milliseconds) / 1000.0);
+        }
+
+        private static int toMilliseconds(long frames) {
+            return (int) (frames * 1000.0 / AudioCue.audioFormat.getFrameRate());
         }
 
     }
 
     public static class JavaSESound implements Sound {
 
-        private volatile float volume;
+        private volatile float leftVolume;
+        private volatile float rightVolume;
         private volatile float speed;
         private volatile int loops;
 
         protected final AudioCue audioCue;
+        protected final float[] samples;
         protected volatile int instanceID;
 
         public JavaSESound(AudioCue audioCue) {
+            this(audioCue, null);
+        }
+
+        /**
+         * Creates a new sound playing the given shared samples, which are not modified.
+         *
+         * @param samples the stereo samples, as obtained from a {@link JavaSESampleCache}
+         * @param name the name of the sound
+         */
+        public JavaSESound(float[] samples, String name) {
+            this(AudioCue.makeStereoCue(samples, name, 1), samples);
+        }
+
+        private JavaSESound(AudioCue audioCue, float[] samples) {
             this.audioCue = audioCue;
+            this.samples = samples;
+            audioCue.setPanType(AudioCue.PanType.CENTER_LINEAR);
             this.instanceID = audioCue.obtainInstance();
             reset();
         }
 
+        public float[] getSamples() {
+            return samples;
+        }
+
         public int getInstanceID() {
             return instanceID;
         }
@@ -561,8 +633,13 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
         }
 
         @Override
-        public void setVolume(float volume) {
-            this.volume = volume;
+        public void setLeftVolume(float leftVol) {
+            this.leftVolume = leftVol;
+        }
+
+        @Override
+        public void setRightVolume(float rightVol) {
+            this.rightVolume = rightVol;
         }
 
         @Override
@@ -576,8 +653,13 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
         }
 
         @Override
-        public float getVolume() {
-            return volume;
+        public float getLeftVolume() {
+            return leftVolume;
+        }
+
+        @Override
+        public float getRightVolume() {
+            return rightVolume;
         }
 
         @Override
@@ -591,7 +673,15 @@ public class JavaSEAudioPlayer implements AudioPlayer, AudioCueListener {
         }
 
         public void apply() {
+            // With CENTER_LINEAR panning, the louder side keeps the volume and the pan tapers the other
+            float leftVolume = this.leftVolume, rightVolume = this.rightVolume;
+            float volume = Math.max(leftVolume, rightVolume);
+            float pan;
+            if (volume <= 0) pan = 0;
+            else if (rightVolume < leftVolume) pan = rightVolume / leftVolume - 1;
+            else pan = 1 - leftVolume / rightVolume;
             audioCue.setVolume(instanceID, volume);
+            audioCue.setPan(instanceID, pan);
             audioCue.setLooping(instanceID, loops);
             audioCue.setSpeed(instanceID, speed);
         }
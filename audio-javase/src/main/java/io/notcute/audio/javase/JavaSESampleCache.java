@@ -0,0 +1,363 @@
+package io.notcute.audio.javase;
+
+import io.notcute.util.FileUtils;
+import io.notcute.util.IOUtils;
+
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A cache of decoded sound samples, keyed by the content of the encoded data, so
+ * the same sound loaded from several files, assets or containers is decoded once
+ * and shares one {@code float[]} of 44.1 kHz stereo PCM.
+ * <p>
+ * Samples are reference counted; each {@code obtain} must be paired with a
+ * {@link #release(float[])}. Released samples are kept for later loads within
+ * the memory budget, and evicted least recently released first. If a cache
+ * directory is given, decoded samples are also stored there, and read back
+ * instead of decoding on later runs.
+ * <p>
+ * The returned samples must not be modified. The cache is thread-safe.
+ */
+public class JavaSESampleCache {
+
+    public static final long DEFAULT_MEMORY_BUDGET = 16L << 20;
+
+    private static final int MAGIC = 0x4E435350; // "NCSP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final String SUFFIX = ".pcm";
+    private static final int READ_BUFFER_SIZE = 64 << 10;
+
+    private static final class Entry {
+        private final String key;
+        private final float[] samples;
+        private int references = 0;
+        private Entry(String key, float[] samples) {
+            this.key = key;
+            this.samples = samples;
+        }
+        private long getBytes() {
+            return (long) samples.length << 2;
+        }
+    }
+
+    private static final class Stamp {
+        private final long length;
+        private final long lastModified;
+        private final String key;
+        private Stamp(long length, long lastModified, String key) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.key = key;
+        }
+    }
+
+    private final File cacheDir;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<float[], Entry> entriesBySamples = new IdentityHashMap<>();
+    private final LinkedHashMap<String, Entry> released = new LinkedHashMap<>();
+    private final Map<File, Stamp> stamps = new HashMap<>();
+    private long memoryBudget;
+    private long memoryUsage = 0;
+
+    private long memoryHits = 0;
+    private long diskHits = 0;
+    private long decodes = 0;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param cacheDir the directory to store decoded samples in, null to only cache in memory
+     * @param memoryBudget the number of bytes released samples are kept within, negative for no limit
+     */
+    public JavaSESampleCache(File cacheDir, long memoryBudget) {
+        this.cacheDir = cacheDir;
+        this.memoryBudget = memoryBudget;
+    }
+
+    public JavaSESampleCache(File cacheDir) {
+        this(cacheDir, DEFAULT_MEMORY_BUDGET);
+    }
+
+    public JavaSESampleCache() {
+        this(null);
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * Sets the memory budget. Released samples are evicted until the samples in memory
+     * fit the budget; samples in use are never evicted, and count towards the budget.
+     *
+     * @param memoryBudget the budget in bytes, 0 to keep no released samples, negative for no limit
+     */
+    public synchronized void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        evict();
+    }
+
+    public synchronized long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Returns the number of bytes of all samples in memory, in use or released.
+     *
+     * @return the memory usage in bytes
+     */
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public synchronized long getMemoryHits() {
+        return memoryHits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getDecodes() {
+        return decodes;
+    }
+
+    /**
+     * Returns the decoded samples of the given file. If the file has not changed since it
+     * was last obtained, the samples in memory are returned without reading it.
+     *
+     * @param input the encoded sound file
+     * @return the samples, must be released with {@link #release(float[])}
+     * @throws IOException if an I/O error occurs
+     * @throws UnsupportedAudioFileException if the file is not a supported sound
+     */
+    public float[] obtain(File input) throws IOException, UnsupportedAudioFileException {
+        File file = input.getAbsoluteFile();
+        long length = file.length();
+        long lastModified = file.lastModified();
+        synchronized (this) {
+            Stamp stamp = stamps.get(file);
+            if (stamp != null && stamp.length == length && stamp.lastModified == lastModified) {
+                float[] samples = acquire(stamp.key);
+                if (samples != null) return samples;
+            }
+        }
+        byte[] data;
+        try (InputStream in = new FileInputStream(file)) {
+            data = IOUtils.readAllBytes(in);
+        }
+        String key = getKey(data);
+        float[] samples = obtain(key, data);
+        synchronized (this) {
+            // The samples are in use, so the stamp is pruned only once they are evicted
+            stamps.put(file, new Stamp(length, lastModified, key));
+        }
+        return samples;
+    }
+
+    /**
+     * Returns the decoded samples of the given stream, which is read to its end but not closed.
+     *
+     * @param input the encoded sound
+     * @return the samples, must be released with {@link #release(float[])}
+     * @throws IOException if an I/O error occurs
+     * @throws UnsupportedAudioFileException if the stream is not a supported sound
+     */
+    public float[] obtain(InputStream input) throws IOException, UnsupportedAudioFileException {
+        Objects.requireNonNull(input);
+        byte[] data = IOUtils.readAllBytes(input);
+        return obtain(getKey(data), data);
+    }
+
+    private float[] obtain(String key, byte[] data) throws IOException, UnsupportedAudioFileException {
+        synchronized (this) {
+            float[] samples = acquire(key);
+            if (samples != null) return samples;
+        }
+        // Decoding is done unlocked; if another thread decodes the same data meanwhile, its samples are kept
+        float[] samples = readCacheFile(key);
+        boolean decoded = samples == null;
+        if (decoded) {
+            samples = JavaSEAudioPlayer.loadAudioInputStream(JavaSEAudioPlayer.getSupportedAudioInputStream(
+                    AudioSystem.getAudioInputStream(new ByteArrayInputStream(data))));
+            writeCacheFile(key, samples);
+        }
+        synchronized (this) {
+            float[] existing = acquire(key);
+            if (existing != null) return existing;
+            if (decoded) decodes ++;
+            else diskHits ++;
+            Entry entry = new Entry(key, samples);
+            entry.references = 1;
+            entries.put(key, entry);
+            entriesBySamples.put(samples, entry);
+            memoryUsage += entry.getBytes();
+            evict();
+            return samples;
+        }
+    }
+
+    /**
+     * Releases samples obtained from this cache. When they are no longer in use, they are
+     * kept within the memory budget for later loads.
+     *
+     * @param samples the samples to release
+     * @return true if the samples were obtained from this cache and in use, false otherwise
+     */
+    public synchronized boolean release(float[] samples) {
+        Entry entry = entriesBySamples.get(samples);
+        if (entry == null || entry.references < 1) return false;
+        entry.references --;
+        if (entry.references == 0) {
+            released.put(entry.key, entry);
+            evict();
+        }
+        return true;
+    }
+
+    /**
+     * Removes all released samples from memory. The cache directory is kept.
+     */
+    public synchronized void clear() {
+        for (Entry entry : released.values()) {
+            remove(entry);
+        }
+        released.clear();
+    }
+
+    private float[] acquire(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.references ++ == 0) released.remove(key);
+        memoryHits ++;
+        return entry.samples;
+    }
+
+    private void evict() {
+        if (memoryBudget < 0) return;
+        for (Iterator<Entry> iterator = released.values().iterator(); iterator.hasNext() && memoryUsage > memoryBudget; ) {
+            remove(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.key);
+        entriesBySamples.remove(entry.samples);
+        memoryUsage -= entry.getBytes();
+        stamps.values().removeIf(stamp -> stamp.key.equals(entry.key));
+    }
+
+    synchronized int getStampCount() {
+        return stamps.size();
+    }
+
+    private File getCacheFile(String key) {
+        return cacheDir == null ? null : new File(cacheDir, key + SUFFIX);
+    }
+
+    private float[] readCacheFile(String key) {
+        File file = getCacheFile(key);
+        if (file == null || !file.isFile()) return null;
+        // Read rather than mapped: the samples are copied anyway, and a mapping would keep
+        // the file open until collected, so a corrupted file could not be deleted on Windows
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            long size = channel.size();
+            if (size >= HEADER_SIZE) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, READ_BUFFER_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+                if (readFully(channel, buffer, HEADER_SIZE)) {
+                    buffer.flip();
+                    long frames = buffer.getInt() == MAGIC && buffer.getInt() == VERSION ? buffer.getLong() : -1;
+                    if (frames >= 0 && frames <= Integer.MAX_VALUE >> 1 && size == HEADER_SIZE + (frames << 3)) {
+                        float[] samples = new float[(int) frames << 1];
+                        int offset = 0;
+                        while (offset < samples.length) {
+                            int count = Math.min(samples.length - offset, buffer.capacity() >> 2);
+                            buffer.clear();
+                            if (!readFully(channel, buffer, count << 2)) break;
+                            buffer.flip();
+                            buffer.asFloatBuffer().get(samples, offset, count);
+                            offset += count;
+                        }
+                        if (offset == samples.length) return samples;
+                    }
+                }
+            }
+        }
+        catch (IOException ignored) {
+        }
+        // Corrupted or from another version
+        file.delete();
+        return null;
+    }
+
+    /**
+     * Reads the given number of bytes into the buffer, from its position.
+     *
+     * @return false if the end of the channel is reached before
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, int count) throws IOException {
+        buffer.limit(buffer.position() + count);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) return false;
+        }
+        return true;
+    }
+
+    private void writeCacheFile(String key, float[] samples) {
+        File file = getCacheFile(key);
+        if (file == null || !FileUtils.createDirIfNotExist(cacheDir)) return;
+        File tmp = new File(cacheDir, key + SUFFIX + ".tmp" + Thread.currentThread().getId());
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw"); FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (samples.length << 2)).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(samples.length >> 1);
+            buffer.asFloatBuffer().put(samples);
+            buffer.rewind();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        // The cache file only appears complete; a concurrent writer stores the same samples
+        if (!tmp.renameTo(file)) tmp.delete();
+    }
+
+    private static String getKey(byte[] data) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest(data);
+        StringBuilder builder = new StringBuilder(hash.length << 1);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+}
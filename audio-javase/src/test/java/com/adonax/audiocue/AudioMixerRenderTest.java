@@ -0,0 +1,209 @@
+package com.adonax.audiocue;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.DataInputStream;
+import java.io.File;
+import java.util.function.IntToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioMixerRenderTest
+{
+	private static final int BUFFER_FRAMES = 512;
+	private static final int CUE_FRAMES = 3000;
+	private static final int RENDER_FRAMES = 4000;
+	private static final float VOLUME = 0.5f;
+
+	/*
+	 * A stereo cue with different, deterministic values per channel.
+	 */
+	private static float[] makeCuePcm()
+	{
+		float[] pcm = new float[CUE_FRAMES * 2];
+		for (int i = 0; i < CUE_FRAMES; i++)
+		{
+			pcm[i * 2] = (float) Math.sin(i * 0.03) * 0.8f;
+			pcm[i * 2 + 1] = (float) Math.cos(i * 0.05) * 0.6f;
+		}
+		return pcm;
+	}
+
+	/*
+	 * A mixer with the cue playing once, at the center, at unit speed,
+	 * so no panning or interpolation is applied.
+	 */
+	private static AudioMixer makeCueMixer(float[] pcm)
+	{
+		AudioCue cue = AudioCue.makeStereoCue(pcm, "render", 1);
+		AudioMixer mixer = new AudioMixer(null, BUFFER_FRAMES, Thread.NORM_PRIORITY);
+		cue.open(mixer);
+		assertTrue(cue.play(VOLUME, 0, 1, 0) >= 0);
+		return mixer;
+	}
+
+	/*
+	 * A track with the given value per interleaved sample index.
+	 */
+	private static class FunctionTrack implements AudioMixerTrack
+	{
+		private final IntToDoubleFunction function;
+		private final float[] buffer = new float[BUFFER_FRAMES * 2];
+		private volatile boolean running = true;
+		private int sample;
+
+		FunctionTrack(IntToDoubleFunction function)
+		{
+			this.function = function;
+		}
+
+		@Override
+		public boolean isTrackRunning()
+		{
+			return running;
+		}
+
+		@Override
+		public void setTrackRunning(boolean bool)
+		{
+			running = bool;
+		}
+
+		@Override
+		public float[] readTrack()
+		{
+			for (int i = 0; i < buffer.length; i++)
+			{
+				buffer[i] = (float) function.applyAsDouble(sample++);
+			}
+			return buffer;
+		}
+	}
+
+	private static float[] render(AudioMixer.Limiter limiter, IntToDoubleFunction function)
+	{
+		AudioMixer mixer = new AudioMixer(null, BUFFER_FRAMES, Thread.NORM_PRIORITY);
+		mixer.setLimiter(limiter);
+		mixer.addTrack(new FunctionTrack(function));
+		float[] out = new float[RENDER_FRAMES * 2];
+		mixer.render(out, 0, RENDER_FRAMES);
+		return out;
+	}
+
+	@Test
+	public void rendersCueSamples()
+	{
+		float[] pcm = makeCuePcm();
+		AudioMixer mixer = makeCueMixer(pcm);
+		float[] out = new float[RENDER_FRAMES * 2];
+		// chunks not aligned to the mixer buffer
+		mixer.render(out, 0, 777);
+		mixer.render(out, 777 * 2, RENDER_FRAMES - 777);
+
+		for (int i = 0; i < pcm.length; i++)
+		{
+			assertEquals(pcm[i] * VOLUME, out[i], 0, "sample " + i);
+		}
+		for (int i = pcm.length; i < out.length; i++)
+		{
+			assertEquals(0, out[i], 0, "sample " + i);
+		}
+	}
+
+	@Test
+	public void renderedFileRoundTrips() throws Exception
+	{
+		float[] pcm = makeCuePcm();
+		float[] expected = new float[RENDER_FRAMES * 2];
+		makeCueMixer(pcm).render(expected, 0, RENDER_FRAMES);
+
+		File file = File.createTempFile("render", ".wav");
+		try
+		{
+			makeCueMixer(pcm).render(file, RENDER_FRAMES);
+			try (AudioInputStream in = AudioSystem.getAudioInputStream(file))
+			{
+				assertTrue(in.getFormat().matches(AudioCue.audioFormat));
+				assertEquals(RENDER_FRAMES, in.getFrameLength());
+				byte[] bytes = new byte[RENDER_FRAMES * 4];
+				new DataInputStream(in).readFully(bytes);
+				assertEquals(-1, in.read(new byte[4]));
+				for (int i = 0; i < expected.length; i++)
+				{
+					int value = (short) ((bytes[i * 2] & 0xff) | (bytes[i * 2 + 1] << 8));
+					assertEquals((int) (expected[i] * 32767), value, "sample " + i);
+				}
+			}
+		}
+		finally
+		{
+			file.delete();
+		}
+	}
+
+	@Test
+	public void hardClipClampsOnlyValuesOutOfRange()
+	{
+		float[] out = render(AudioMixer.Limiter.HARD_CLIP,
+				i -> (i & 3) == 0 ? 1.5 : (i & 3) == 1 ? -3 : 0.25);
+		for (int i = 0; i < out.length; i++)
+		{
+			float expected = (i & 3) == 0 ? 1 : (i & 3) == 1 ? -1 : 0.25f;
+			assertEquals(expected, out[i], 0, "sample " + i);
+		}
+	}
+
+	@Test
+	public void tanhFollowsCurve()
+	{
+		IntToDoubleFunction function = i -> Math.sin(i * 0.01) * 3;
+		float[] out = render(AudioMixer.Limiter.TANH, function);
+		for (int i = 0; i < out.length; i++)
+		{
+			double expected = Math.tanh((float) function.applyAsDouble(i));
+			assertEquals(expected, out[i], 1e-6, "sample " + i);
+		}
+	}
+
+	@Test
+	public void lookAheadDelaysQuietSignalUnchanged()
+	{
+		IntToDoubleFunction function = i -> Math.sin(i * 0.02) * 0.5;
+		float[] out = render(AudioMixer.Limiter.LOOK_AHEAD, function);
+		int latency = AudioMixer.LOOK_AHEAD_FRAMES * 2;
+		for (int i = 0; i < latency; i++)
+		{
+			assertEquals(0, out[i], 0, "sample " + i);
+		}
+		for (int i = latency; i < out.length; i++)
+		{
+			assertEquals((float) function.applyAsDouble(i - latency), out[i], 0, "sample " + i);
+		}
+	}
+
+	@Test
+	public void lookAheadLimitsPeaksBelowThreshold()
+	{
+		// silence, then a burst well above full scale
+		int onset = 1000 * 2;
+		IntToDoubleFunction function = i -> i < onset ? 0 : Math.sin(i * 0.05) * 4;
+		float[] out = render(AudioMixer.Limiter.LOOK_AHEAD, function);
+		float peak = 0;
+		for (int i = 0; i < out.length; i++)
+		{
+			peak = Math.max(peak, Math.abs(out[i]));
+		}
+		// limited to the threshold, not far below it
+		assertTrue(peak <= 0.98f + 1e-4f, "peak " + peak);
+		assertTrue(peak > 0.9f, "peak " + peak);
+		// the burst reaches the output after the look-ahead
+		int latency = AudioMixer.LOOK_AHEAD_FRAMES * 2;
+		for (int i = 0; i < onset + latency; i++)
+		{
+			assertEquals(0, out[i], 0, "sample " + i);
+		}
+		assertNotEquals(0, out[onset + latency + 2]);
+	}
+}
@@ -0,0 +1,151 @@
+package io.notcute.audio.javase;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JavaSESampleCacheTest {
+
+    // More than one read buffer of samples
+    private static final int FRAMES = 10000;
+    private static final long SAMPLES_BYTES = FRAMES * 2 * 4;
+
+    /**
+     * Returns a 44.1 kHz stereo WAV file, different for each seed.
+     */
+    private static byte[] makeWav(int seed) throws IOException {
+        byte[] pcm = new byte[FRAMES * 4];
+        for (int i = 0; i < FRAMES * 2; i ++) {
+            short value = (short) (Math.sin(i * 0.01 * (seed + 1)) * 16000);
+            pcm[i * 2] = (byte) value;
+            pcm[i * 2 + 1] = (byte) (value >> 8);
+        }
+        AudioFormat format = new AudioFormat(44100, 16, 2, true, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), format, FRAMES),
+                AudioFileFormat.Type.WAVE, out);
+        return out.toByteArray();
+    }
+
+    private static float[] obtain(JavaSESampleCache cache, byte[] wav) throws Exception {
+        return cache.obtain(new ByteArrayInputStream(wav));
+    }
+
+    private static void delete(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void sameDataIsDecodedOnceAndReferenceCounted() throws Exception {
+        JavaSESampleCache cache = new JavaSESampleCache();
+        byte[] wav = makeWav(0);
+        float[] samples = obtain(cache, wav);
+        assertEquals(FRAMES * 2, samples.length);
+        assertSame(samples, obtain(cache, wav));
+        assertEquals(1, cache.getDecodes());
+        assertEquals(1, cache.getMemoryHits());
+
+        assertTrue(cache.release(samples));
+        assertTrue(cache.release(samples));
+        assertFalse(cache.release(samples));
+        assertFalse(cache.release(new float[2]));
+        // Released, but kept within the budget
+        assertSame(samples, obtain(cache, wav));
+        assertEquals(1, cache.getDecodes());
+    }
+
+    @Test
+    public void releasedSamplesAreEvictedOverBudget() throws Exception {
+        JavaSESampleCache cache = new JavaSESampleCache(null, SAMPLES_BYTES);
+        byte[] first = makeWav(1), second = makeWav(2);
+        float[] firstSamples = obtain(cache, first);
+        float[] secondSamples = obtain(cache, second);
+        // Samples in use are never evicted
+        assertEquals(SAMPLES_BYTES * 2, cache.getMemoryUsage());
+
+        cache.release(firstSamples);
+        cache.release(secondSamples);
+        // The least recently released samples are evicted first
+        assertEquals(SAMPLES_BYTES, cache.getMemoryUsage());
+        assertSame(secondSamples, obtain(cache, second));
+        assertNotSame(firstSamples, obtain(cache, first));
+        assertEquals(3, cache.getDecodes());
+
+        cache.setMemoryBudget(0);
+        assertEquals(SAMPLES_BYTES * 2, cache.getMemoryUsage());
+        cache.release(secondSamples);
+        assertEquals(SAMPLES_BYTES, cache.getMemoryUsage());
+    }
+
+    @Test
+    public void stampsOfEvictedSamplesArePruned() throws Exception {
+        File dir = Files.createTempDirectory("samples").toFile();
+        try {
+            File file = new File(dir, "sound.wav");
+            Files.write(file.toPath(), makeWav(3));
+            JavaSESampleCache cache = new JavaSESampleCache(null, 0);
+            float[] samples = cache.obtain(file);
+            assertSame(samples, cache.obtain(file));
+            assertEquals(1, cache.getStampCount());
+            cache.release(samples);
+            assertEquals(1, cache.getStampCount());
+            cache.release(samples);
+            assertEquals(0, cache.getStampCount());
+            assertEquals(0, cache.getMemoryUsage());
+        }
+        finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void corruptedCacheFileIsDecodedAgain() throws Exception {
+        File dir = Files.createTempDirectory("samples").toFile();
+        try {
+            byte[] wav = makeWav(4);
+            float[] decoded = obtain(new JavaSESampleCache(dir), wav);
+            File[] files = dir.listFiles();
+            assertNotNull(files);
+            assertEquals(1, files.length);
+            File cacheFile = files[0];
+            long length = cacheFile.length();
+
+            JavaSESampleCache cache = new JavaSESampleCache(dir);
+            assertArrayEquals(decoded, obtain(cache, wav));
+            assertEquals(1, cache.getDiskHits());
+            assertEquals(0, cache.getDecodes());
+
+            // Truncated, as if the disk ran full
+            try (FileOutputStream out = new FileOutputStream(cacheFile, true)) {
+                out.getChannel().truncate(length - 4);
+            }
+            cache = new JavaSESampleCache(dir);
+            assertArrayEquals(decoded, obtain(cache, wav));
+            assertEquals(0, cache.getDiskHits());
+            assertEquals(1, cache.getDecodes());
+            // Deleted and written again
+            assertEquals(length, cacheFile.length());
+        }
+        finally {
+            delete(dir);
+        }
+    }
+
+}
@@ -19,7 +19,7 @@ public class AndroidGraphics implements Graphics {
     private final int width, height;
 
     private final Info info;
-    private final Info cacheInfo;
+    private final InfoStack infoStack;
 
     private volatile boolean disposed = false;
 
@@ -34,7 +34,7 @@ public class AndroidGraphics implements Graphics {
         this.width = width;
         this.height = height;
         info = new Info();
-        cacheInfo = new Info();
+        infoStack = new InfoStack();
         paint = new Paint();
         apply();
     }
@@ -175,26 +175,26 @@ public class AndroidGraphics implements Graphics {
         return info;
     }
 
-    Info getCacheInfo() {
+    InfoStack getInfoStack() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        return cacheInfo;
+        return infoStack;
     }
 
-    void setCacheInfo(Info info) {
+    void setInfoStack(InfoStack infoStack) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        info.to(cacheInfo);
+        this.infoStack.setInfoStack(infoStack);
     }
 
     @Override
     public void save() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        info.to(cacheInfo);
+        infoStack.push(info);
     }
 
     @Override
     public void restore() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        info.from(cacheInfo);
+        infoStack.pop(info);
     }
 
 }
@@ -25,7 +25,7 @@ public class AndroidImage implements Image {
         if (src.graphics != null) {
             dst.graphics = new AndroidGraphics(dst.bitmap);
             dst.graphics.setInfo(src.graphics.getInfo());
-            dst.graphics.setCacheInfo(src.graphics.getCacheInfo());
+            dst.graphics.setInfoStack(src.graphics.getInfoStack());
         }
     }
 
@@ -0,0 +1,84 @@
+package io.notcute.g2d.awt;
+
+import io.notcute.g2d.AffineTransform;
+import io.notcute.g2d.Color;
+import io.notcute.g2d.Graphics;
+import io.notcute.g2d.geom.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of {@link AWTGraphics#apply()}. {@code applyAll} marks every field dirty,
+ * which is what each call cost before dirty-field tracking; the others push only
+ * what changed, as in a widget's paint.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AWTGraphicsApplyBenchmark {
+
+    private AWTGraphics graphics;
+    private Graphics.Info info;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        graphics = new AWTGraphics(new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+        info = graphics.getInfo();
+        info.setClip(new Rectangle(4, 4, 56, 56));
+        info.setTransform(AffineTransform.getTranslateInstance(2, 2));
+        info.setColor(Color.BLUE);
+        info.setStrokeWidth(2);
+        info.setAntiAlias(true);
+        graphics.apply();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public void applyAll() {
+        info.markDirty(Graphics.Info.Field.ALL);
+        graphics.apply();
+    }
+
+    @Benchmark
+    public void applyUnchanged() {
+        graphics.apply();
+    }
+
+    @Benchmark
+    public void applyColor() {
+        toggle = !toggle;
+        info.setColor(toggle ? Color.RED : Color.BLUE);
+        graphics.apply();
+    }
+
+    @Benchmark
+    public void saveApplyRestore() {
+        graphics.save();
+        info.setColor(Color.RED);
+        info.setStrokeWidth(4);
+        graphics.apply();
+        graphics.restore();
+        graphics.apply();
+    }
+
+}
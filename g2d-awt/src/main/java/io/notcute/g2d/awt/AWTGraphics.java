@@ -4,18 +4,25 @@ import io.notcute.g2d.AffineTransform;
 import io.notcute.g2d.Font;
 import io.notcute.g2d.Graphics;
 import io.notcute.g2d.Image;
+import io.notcute.g2d.TextLayoutCache;
 import io.notcute.g2d.geom.PathIterator;
 import io.notcute.g2d.geom.Rectangle;
 import io.notcute.g2d.geom.Shape;
+import io.notcute.internal.awt.AWTG2DCache;
 import io.notcute.internal.awt.AWTG2DUtils;
+import io.notcute.internal.awt.AWTShapeCache;
+import io.notcute.internal.awt.AWTTextLayout;
 import io.notcute.util.AlreadyDisposedException;
 
 import java.awt.*;
+import java.awt.font.FontRenderContext;
 import java.awt.font.LineMetrics;
+import java.awt.font.TextLayout;
 import java.awt.font.TextAttribute;
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.nio.CharBuffer;
 import java.text.AttributedCharacterIterator;
 import java.text.AttributedString;
 import java.util.HashMap;
@@ -30,17 +37,14 @@ public class AWTGraphics implements Graphics {
     private final int width, height;
 
     private final Info info;
-    private final Info cacheInfo;
+    private final InfoStack infoStack;
 
-    private volatile boolean disposed = false;
+    private final java.awt.geom.AffineTransform baseTransform;
+    private final java.awt.Shape baseClip;
 
-    private static final RenderingHints DEFAULT_HINTS = new RenderingHints(null);
-    static {
-        DEFAULT_HINTS.put(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
-        DEFAULT_HINTS.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        DEFAULT_HINTS.put(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
-        DEFAULT_HINTS.put(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
-    }
+    private static final TextLayoutCache<AWTTextLayout> TEXT_LAYOUT_CACHE = new TextLayoutCache<>();
+
+    private volatile boolean disposed = false;
 
     public AWTGraphics(BufferedImage bufferedImage) {
         this(bufferedImage.createGraphics(), bufferedImage.getWidth(), bufferedImage.getHeight());
@@ -50,8 +54,10 @@ public class AWTGraphics implements Graphics {
         this.graphics2D = Objects.requireNonNull(graphics2D);
         this.width = width;
         this.height = height;
+        baseTransform = graphics2D.getTransform();
+        baseClip = graphics2D.getClip();
         info = new Info();
-        cacheInfo = new Info();
+        infoStack = new InfoStack();
         apply();
     }
 
@@ -63,36 +69,45 @@ public class AWTGraphics implements Graphics {
     @Override
     public void apply() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        AffineTransform transform = info.getTransform();
-        if (transform == null) graphics2D.getTransform().setToIdentity();
-        else graphics2D.setTransform(AWTG2DUtils.toAWTTransform(transform));
-        Shape clip = info.getClip();
-        graphics2D.setClip(clip == null ? null : AWTG2DUtils.toAWTPath2D(clip.getPathIterator()));
-        graphics2D.setColor(new Color(info.getColor(), true));
-        graphics2D.setStroke(
-                new BasicStroke(
-                        info.getStrokeWidth(),
-                        AWTG2DUtils.toAWTStrokeCap(info.getStrokeCap()),
-                        AWTG2DUtils.toAWTStrokeJoin(info.getStrokeJoin()),
-                        info.getStrokeMiter()));
-        java.awt.Font font = info.getFont() == null ? (graphics2D.getFont() == null ? null : graphics2D.getFont()) : ((AWTFont)info.getFont()).getFont();
-        if (font != null) {
-            graphics2D.setFont(font.deriveFont(info.getTextSize()));
-            info.setFont(new AWTFont(graphics2D.getFont()));
+        int dirty = info.getDirtyFields();
+        if (dirty == 0) return;
+        if ((dirty & Info.Field.TRANSFORM) != 0) {
+            AffineTransform transform = info.getTransform();
+            graphics2D.setTransform(transform == null ? baseTransform : AWTG2DUtils.toAWTTransform(transform));
+        }
+        // Graphics2D converts the clip with the current transform, so it is set again after the transform changes
+        if ((dirty & (Info.Field.CLIP | Info.Field.TRANSFORM)) != 0) {
+            Shape clip = info.getClip();
+            if (baseClip == null) graphics2D.setClip(clip == null ? null : AWTShapeCache.toAWTShape(clip));
+            else {
+                // The clip of the Graphics2D, e.g. a damage region, bounds the clip of the info
+                java.awt.geom.AffineTransform transform = graphics2D.getTransform();
+                graphics2D.setTransform(baseTransform);
+                graphics2D.setClip(baseClip);
+                graphics2D.setTransform(transform);
+                if (clip != null) graphics2D.clip(AWTShapeCache.toAWTShape(clip));
+            }
+        }
+        if ((dirty & Info.Field.COLOR) != 0) graphics2D.setColor(AWTG2DCache.getColor(info.getColor()));
+        if ((dirty & Info.Field.STROKE) != 0) graphics2D.setStroke(AWTG2DCache.getStroke(info.getStrokeWidth(),
+                info.getStrokeCap(), info.getStrokeJoin(), info.getStrokeMiter()));
+        if ((dirty & (Info.Field.FONT | Info.Field.TEXT_SIZE)) != 0) {
+            java.awt.Font font = info.getFont() == null ? graphics2D.getFont() : ((AWTFont)info.getFont()).getFont();
+            if (font != null) {
+                AWTFont derived = AWTG2DCache.deriveFont(font, info.getTextSize());
+                graphics2D.setFont(derived.getFont());
+                info.setFont(derived);
+            }
         }
-        RenderingHints hints = new RenderingHints(null);
-        hints.putAll(DEFAULT_HINTS);
-        hints.put(RenderingHints.KEY_ANTIALIASING,
-                info.isAntiAlias() ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
-        hints.put(RenderingHints.KEY_TEXT_ANTIALIASING,
-                info.isAntiAlias() ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
-        hints.put(RenderingHints.KEY_INTERPOLATION,
-                info.isFilterImage() ? RenderingHints.VALUE_INTERPOLATION_BILINEAR : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-        hints.put(RenderingHints.KEY_FRACTIONALMETRICS,
-                info.isSubpixelText() ? RenderingHints.VALUE_FRACTIONALMETRICS_ON : RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
-        hints.put(RenderingHints.KEY_DITHERING,
-                info.isDither() ? RenderingHints.VALUE_DITHER_ENABLE : RenderingHints.VALUE_DITHER_DISABLE);
-        graphics2D.setRenderingHints(hints);
+        if ((dirty & Info.Field.HINTS) != 0) {
+            int hints = 0;
+            if (info.isAntiAlias()) hints |= AWTG2DCache.HINT_ANTI_ALIAS;
+            if (info.isFilterImage()) hints |= AWTG2DCache.HINT_FILTER_IMAGE;
+            if (info.isSubpixelText()) hints |= AWTG2DCache.HINT_SUBPIXEL_TEXT;
+            if (info.isDither()) hints |= AWTG2DCache.HINT_DITHER;
+            graphics2D.setRenderingHints(AWTG2DCache.getHints(hints));
+        }
+        info.clearDirty();
     }
 
     @Override
@@ -142,40 +157,96 @@ public class AWTGraphics implements Graphics {
         draw(AWTG2DUtils.toAWTPath2D(iterator));
     }
 
-    private AttributedCharacterIterator getAttributedCharacterIterator(String text, int start, int end, AffineTransform transform) {
-        java.awt.Font font = info.getFont() == null ? null : ((AWTFont)info.getFont()).getFont().deriveFont(AWTG2DUtils.toAWTTransform(transform));
-        HashMap<AttributedCharacterIterator.Attribute, Object> attributes = new HashMap<>();
-        if (font != null) attributes.put(TextAttribute.FONT, font);
-        attributes.put(TextAttribute.SIZE, info.getTextSize());
-        if (info.isUnderlineText()) attributes.put(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON);
-        if (info.isStrikeThroughText()) attributes.put(TextAttribute.STRIKETHROUGH, TextAttribute.STRIKETHROUGH_ON);
-        AttributedString attributedString = new AttributedString(text);
-        attributedString.addAttributes(attributes, start, end);
-        return attributedString.getIterator();
+    @Override
+    public void drawShape(Shape shape) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        draw(AWTShapeCache.toAWTShape(shape));
+    }
+
+    @Override
+    public void drawShape(Shape shape, AffineTransform transform) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        draw(AWTG2DUtils.toAWTTransform(transform).createTransformedShape(AWTShapeCache.toAWTShape(shape)));
+    }
+
+    /**
+     * Returns the shared text layout cache of all {@link AWTGraphics}, e.g. to query its hit rate.
+     *
+     * @return the text layout cache
+     */
+    public static TextLayoutCache<AWTTextLayout> getTextLayoutCache() {
+        return TEXT_LAYOUT_CACHE;
+    }
+
+    private AWTTextLayout getTextLayout(CharSequence text, int start, int end, AffineTransform transform) {
+        java.awt.Font font = info.getFont() == null ? null : ((AWTFont)info.getFont()).getFont();
+        int decoration = 0;
+        if (info.isUnderlineText()) decoration |= TextLayoutCache.Decoration.UNDERLINE;
+        if (info.isStrikeThroughText()) decoration |= TextLayoutCache.Decoration.STRIKE_THROUGH;
+        FontRenderContext context = graphics2D.getFontRenderContext();
+        AWTTextLayout textLayout = TEXT_LAYOUT_CACHE.get(text, start, end, font, info.getTextSize(), decoration, transform, context);
+        if (textLayout == null) {
+            textLayout = new AWTTextLayout();
+            TEXT_LAYOUT_CACHE.put(text, start, end, font, info.getTextSize(), decoration, transform, context, textLayout);
+        }
+        if (textLayout.getLayout() == null) {
+            java.awt.geom.AffineTransform linear = null;
+            if (transform != null) {
+                linear = AWTG2DUtils.toAWTTransform(transform);
+                linear.setTransform(linear.getScaleX(), linear.getShearY(), linear.getShearX(), linear.getScaleY(), 0, 0);
+            }
+            HashMap<AttributedCharacterIterator.Attribute, Object> attributes = new HashMap<>();
+            if (font != null) attributes.put(TextAttribute.FONT, linear == null ? font : font.deriveFont(linear));
+            else if (linear != null) attributes.put(TextAttribute.TRANSFORM, linear);
+            attributes.put(TextAttribute.SIZE, info.getTextSize());
+            if (info.isUnderlineText()) attributes.put(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON);
+            if (info.isStrikeThroughText()) attributes.put(TextAttribute.STRIKETHROUGH, TextAttribute.STRIKETHROUGH_ON);
+            AttributedString attributedString = new AttributedString(text.subSequence(start, end).toString(), attributes);
+            textLayout.setLayout(new TextLayout(attributedString.getIterator(), context));
+        }
+        return textLayout;
+    }
+
+    private Rectangle2D.Float getStringBounds(CharSequence text, int start, int end) {
+        java.awt.Font font = graphics2D.getFont();
+        FontRenderContext context = graphics2D.getFontRenderContext();
+        AWTTextLayout textLayout = TEXT_LAYOUT_CACHE.get(text, start, end, font, font.getSize2D(), 0, null, context);
+        if (textLayout == null) {
+            textLayout = new AWTTextLayout();
+            TEXT_LAYOUT_CACHE.put(text, start, end, font, font.getSize2D(), 0, null, context, textLayout);
+        }
+        Rectangle2D.Float bounds = textLayout.getBounds();
+        if (bounds == null) {
+            bounds = AWTG2DUtils.floatRectangle2D(font.getStringBounds(text.subSequence(start, end).toString(), context));
+            textLayout.setBounds(bounds);
+        }
+        return bounds;
     }
 
     @Override
     public void drawText(CharSequence text, int start, int end, AffineTransform transform) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        graphics2D.drawString(getAttributedCharacterIterator(text.toString(), start, end, transform), 0, 0);
+        if (start == end) return;
+        getTextLayout(text, start, end, transform).getLayout().draw(graphics2D,
+                transform == null ? 0 : transform.getTranslateX(), transform == null ? 0 : transform.getTranslateY());
     }
 
     @Override
     public void drawText(char[] text, int offset, int length, AffineTransform transform) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        graphics2D.drawString(getAttributedCharacterIterator(new String(text, offset, length), 0, length, transform), 0, 0);
+        drawText(CharBuffer.wrap(text, offset, length), 0, length, transform);
     }
 
     @Override
     public float measureText(CharSequence text, int start, int end) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        return (float) graphics2D.getFont().getStringBounds(text.toString(), start, end, graphics2D.getFontRenderContext()).getWidth();
+        return getStringBounds(text, start, end).width;
     }
 
     @Override
     public float measureText(char[] text, int offset, int length) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        return (float) graphics2D.getFont().getStringBounds(text, offset, offset + length, graphics2D.getFontRenderContext()).getWidth();
+        return getStringBounds(CharBuffer.wrap(text, offset, length), 0, length).width;
     }
 
     @Override
@@ -192,8 +263,7 @@ public class AWTGraphics implements Graphics {
     public void getTextBounds(CharSequence text, int start, int end, Rectangle bounds) {
         Objects.requireNonNull(bounds);
         if (isDisposed()) throw new AlreadyDisposedException();
-        Rectangle2D.Float stringBounds = AWTG2DUtils.floatRectangle2D(graphics2D.getFont().getStringBounds(text.toString(), start, end,
-                    graphics2D.getFontRenderContext()));
+        Rectangle2D.Float stringBounds = getStringBounds(text, start, end);
         bounds.setRect(stringBounds.x, stringBounds.y, stringBounds.width, stringBounds.height);
     }
 
@@ -201,8 +271,7 @@ public class AWTGraphics implements Graphics {
     public void getTextBounds(char[] text, int offset, int length, Rectangle bounds) {
         Objects.requireNonNull(bounds);
         if (isDisposed()) throw new AlreadyDisposedException();
-        Rectangle2D.Float stringBounds = AWTG2DUtils.floatRectangle2D(graphics2D.getFont().getStringBounds(text, offset, offset + length,
-                graphics2D.getFontRenderContext()));
+        Rectangle2D.Float stringBounds = getStringBounds(CharBuffer.wrap(text, offset, length), 0, length);
         bounds.setRect(stringBounds.x, stringBounds.y, stringBounds.width, stringBounds.height);
     }
 
@@ -212,26 +281,26 @@ public class AWTGraphics implements Graphics {
         return info;
     }
 
-    Info getCacheInfo() {
+    InfoStack getInfoStack() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        return cacheInfo;
+        return infoStack;
     }
 
-    void setCacheInfo(Info info) {
+    void setInfoStack(InfoStack infoStack) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        info.to(cacheInfo);
+        this.infoStack.setInfoStack(infoStack);
     }
 
     @Override
     public void save() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        info.to(cacheInfo);
+        infoStack.push(info);
     }
 
     @Override
     public void restore() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        info.from(cacheInfo);
+        infoStack.pop(info);
     }
 
     @Override
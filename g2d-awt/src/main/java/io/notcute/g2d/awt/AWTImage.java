@@ -6,6 +6,11 @@ import io.notcute.internal.awt.AWTG2DUtils;
 import io.notcute.util.AlreadyDisposedException;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.util.Objects;
 
 public class AWTImage implements Image {
@@ -13,6 +18,7 @@ public class AWTImage implements Image {
     private volatile BufferedImage bufferedImage;
     private volatile AWTGraphics graphics = null;
     private volatile boolean disposed = false;
+    private volatile PixelBuffer lockedPixels = null;
 
     public AWTImage(BufferedImage bufferedImage) {
         this.bufferedImage = Objects.requireNonNull(bufferedImage);
@@ -23,11 +29,12 @@ public class AWTImage implements Image {
     }
 
     private static void copy(AWTImage src, AWTImage dst) {
+        dst.lockedPixels = null;
         dst.bufferedImage = AWTG2DUtils.copyBufferedImage(src.bufferedImage);
         if (src.graphics != null) {
             dst.graphics = new AWTGraphics(dst.bufferedImage);
             dst.graphics.setInfo(src.graphics.getInfo());
-            dst.graphics.setCacheInfo(src.graphics.getCacheInfo());
+            dst.graphics.setInfoStack(src.graphics.getInfoStack());
         }
     }
 
@@ -77,14 +84,75 @@ public class AWTImage implements Image {
     public void getPixels(int[] pixels, int offset, int stride, int x, int y, int width, int height) {
         Objects.requireNonNull(pixels);
         if (isDisposed()) throw new AlreadyDisposedException();
-        bufferedImage.getRGB(x, y, width, height, pixels, offset, stride);
+        if (bufferedImage.getType() == BufferedImage.TYPE_INT_ARGB) {
+            // Copy the packed pixels as they are, without a color model conversion per pixel
+            WritableRaster raster = bufferedImage.getRaster();
+            if (offset == 0 && stride == width) raster.getDataElements(x, y, width, height, pixels);
+            else {
+                int[] row = new int[width];
+                for (int i = 0; i < height; i ++) {
+                    raster.getDataElements(x, y + i, width, 1, row);
+                    System.arraycopy(row, 0, pixels, offset + i * stride, width);
+                }
+            }
+        }
+        else bufferedImage.getRGB(x, y, width, height, pixels, offset, stride);
     }
 
     @Override
     public void setPixels(int[] pixels, int offset, int stride, int x, int y, int width, int height) {
         Objects.requireNonNull(pixels);
         if (isDisposed()) throw new AlreadyDisposedException();
-        bufferedImage.setRGB(x, y, width, height, pixels, offset, stride);
+        if (bufferedImage.getType() == BufferedImage.TYPE_INT_ARGB) {
+            WritableRaster raster = bufferedImage.getRaster();
+            if (offset == 0 && stride == width) raster.setDataElements(x, y, width, height, pixels);
+            else {
+                int[] row = new int[width];
+                for (int i = 0; i < height; i ++) {
+                    System.arraycopy(pixels, offset + i * stride, row, 0, width);
+                    raster.setDataElements(x, y + i, width, 1, row);
+                }
+            }
+        }
+        else bufferedImage.setRGB(x, y, width, height, pixels, offset, stride);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned pixels are the backing array of the {@link BufferedImage}. Accessing it
+     * directly keeps Java2D from caching the image in video memory from then on; images which
+     * are drawn often and rarely modified should use {@link #setPixels} instead.
+     */
+    @Override
+    public synchronized PixelBuffer lockPixels() {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        if (lockedPixels != null) throw new IllegalStateException("Pixels already locked");
+        WritableRaster raster = bufferedImage.getRaster();
+        SinglePixelPackedSampleModel sampleModel = (SinglePixelPackedSampleModel) raster.getSampleModel();
+        DataBuffer dataBuffer = raster.getDataBuffer();
+        int offset = dataBuffer.getOffset()
+                + sampleModel.getOffset(-raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+        int stride = sampleModel.getScanlineStride();
+        int width = raster.getWidth(), height = raster.getHeight();
+        if (dataBuffer instanceof DataBufferInt)
+            lockedPixels = new PixelBuffer(((DataBufferInt) dataBuffer).getData(), offset, stride, width, height);
+        else lockedPixels = new PixelBuffer(((DataBufferUShort) dataBuffer).getData(), offset, stride, width, height);
+        return lockedPixels;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The changes have already been written to the image; Java2D reads the backing array directly.
+     *
+     * @throws IllegalArgumentException if the given pixels are not the locked pixels of this image
+     */
+    @Override
+    public synchronized void unlockPixels(PixelBuffer pixels) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        if (pixels == null || pixels != lockedPixels) throw new IllegalArgumentException("Pixels not locked from this image");
+        lockedPixels = null;
     }
 
     @Override
@@ -96,6 +164,7 @@ public class AWTImage implements Image {
     public void dispose() {
         if (isDisposed()) return;
         disposed = true;
+        lockedPixels = null;
         if (graphics != null) {
             graphics.dispose();
             graphics = null;
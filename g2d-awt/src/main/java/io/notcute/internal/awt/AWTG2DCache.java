@@ -0,0 +1,189 @@
+package io.notcute.internal.awt;
+
+import io.notcute.g2d.awt.AWTFont;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.RenderingHints;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Value-keyed caches of immutable AWT state objects, shared by all
+ * {@link io.notcute.g2d.awt.AWTGraphics} instances. Each cache is bounded
+ * and simply cleared once full.
+ */
+public final class AWTG2DCache {
+
+    private AWTG2DCache() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final int MAX_COLORS = 256;
+    private static final int MAX_STROKES = 64;
+    private static final int MAX_FONTS = 64;
+
+    private static final ConcurrentHashMap<Integer, Color> COLORS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<StrokeKey, BasicStroke> STROKES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<FontKey, AWTFont> FONTS = new ConcurrentHashMap<>();
+
+    public static final int HINT_ANTI_ALIAS = 1;
+    public static final int HINT_FILTER_IMAGE = 1 << 1;
+    public static final int HINT_SUBPIXEL_TEXT = 1 << 2;
+    public static final int HINT_DITHER = 1 << 3;
+    private static final RenderingHints[] HINTS = new RenderingHints[1 << 4];
+    static {
+        for (int i = 0; i < HINTS.length; i ++) {
+            RenderingHints hints = new RenderingHints(null);
+            hints.put(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            hints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            hints.put(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+            hints.put(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+            hints.put(RenderingHints.KEY_ANTIALIASING,
+                    (i & HINT_ANTI_ALIAS) != 0 ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+            hints.put(RenderingHints.KEY_TEXT_ANTIALIASING,
+                    (i & HINT_ANTI_ALIAS) != 0 ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+            hints.put(RenderingHints.KEY_INTERPOLATION,
+                    (i & HINT_FILTER_IMAGE) != 0 ? RenderingHints.VALUE_INTERPOLATION_BILINEAR : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            hints.put(RenderingHints.KEY_FRACTIONALMETRICS,
+                    (i & HINT_SUBPIXEL_TEXT) != 0 ? RenderingHints.VALUE_FRACTIONALMETRICS_ON : RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+            hints.put(RenderingHints.KEY_DITHERING,
+                    (i & HINT_DITHER) != 0 ? RenderingHints.VALUE_DITHER_ENABLE : RenderingHints.VALUE_DITHER_DISABLE);
+            HINTS[i] = hints;
+        }
+    }
+
+    private static final class StrokeKey {
+
+        private final float width;
+        private final int cap;
+        private final int join;
+        private final float miter;
+
+        private StrokeKey(float width, int cap, int join, float miter) {
+            this.width = width;
+            this.cap = cap;
+            this.join = join;
+            this.miter = miter;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            StrokeKey that = (StrokeKey) o;
+
+            if (Float.compare(that.width, width) != 0) return false;
+            if (cap != that.cap) return false;
+            if (join != that.join) return false;
+            return Float.compare(that.miter, miter) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(width);
+            result = 31 * result + cap;
+            result = 31 * result + join;
+            result = 31 * result + Float.floatToIntBits(miter);
+            return result;
+        }
+
+    }
+
+    private static final class FontKey {
+
+        private final Font font;
+        private final float size;
+
+        private FontKey(Font font, float size) {
+            this.font = font;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            FontKey that = (FontKey) o;
+
+            if (Float.compare(that.size, size) != 0) return false;
+            return font.equals(that.font);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * font.hashCode() + Float.floatToIntBits(size);
+        }
+
+    }
+
+    /**
+     * Returns the color with the given ARGB value.
+     *
+     * @param argb the ARGB value
+     * @return the cached color
+     */
+    public static Color getColor(int argb) {
+        Integer key = argb;
+        Color color = COLORS.get(key);
+        if (color == null) {
+            if (COLORS.size() >= MAX_COLORS) COLORS.clear();
+            color = new Color(argb, true);
+            COLORS.put(key, color);
+        }
+        return color;
+    }
+
+    /**
+     * Returns the stroke with the given attributes.
+     *
+     * @param width the stroke width
+     * @param cap the stroke cap, see {@link io.notcute.g2d.Graphics.Cap}
+     * @param join the stroke join, see {@link io.notcute.g2d.Graphics.Join}
+     * @param miter the miter limit
+     * @return the cached stroke
+     */
+    public static BasicStroke getStroke(float width, int cap, int join, float miter) {
+        StrokeKey key = new StrokeKey(width, cap, join, miter);
+        BasicStroke stroke = STROKES.get(key);
+        if (stroke == null) {
+            if (STROKES.size() >= MAX_STROKES) STROKES.clear();
+            stroke = new BasicStroke(width, AWTG2DUtils.toAWTStrokeCap(cap), AWTG2DUtils.toAWTStrokeJoin(join), miter);
+            STROKES.put(key, stroke);
+        }
+        return stroke;
+    }
+
+    /**
+     * Returns the given font derived to the given size.
+     *
+     * @param font the font to derive
+     * @param size the font size
+     * @return the cached derived font
+     */
+    public static AWTFont deriveFont(Font font, float size) {
+        FontKey key = new FontKey(font, size);
+        AWTFont derived = FONTS.get(key);
+        if (derived == null) {
+            if (FONTS.size() >= MAX_FONTS) FONTS.clear();
+            derived = new AWTFont(font.getSize2D() == size ? font : font.deriveFont(size));
+            FONTS.put(key, derived);
+        }
+        return derived;
+    }
+
+    /**
+     * Returns the rendering hints for the given flags, on top of the default quality hints.
+     * The returned hints are shared and must not be modified.
+     *
+     * @param flags the combination of {@link #HINT_ANTI_ALIAS}, {@link #HINT_FILTER_IMAGE},
+     *              {@link #HINT_SUBPIXEL_TEXT} and {@link #HINT_DITHER}
+     * @return the cached rendering hints
+     */
+    public static RenderingHints getHints(int flags) {
+        return HINTS[flags & (HINTS.length - 1)];
+    }
+
+}
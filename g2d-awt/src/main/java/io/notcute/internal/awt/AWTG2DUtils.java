@@ -3,13 +3,21 @@ package io.notcute.internal.awt;
 import io.notcute.app.javase.JavaSEPlatform;
 import io.notcute.g2d.AffineTransform;
 import io.notcute.g2d.Graphics;
+import io.notcute.g2d.geom.Arc;
+import io.notcute.g2d.geom.Ellipse;
+import io.notcute.g2d.geom.Line;
 import io.notcute.g2d.geom.Rectangle;
+import io.notcute.g2d.geom.RoundRectangle;
 import io.notcute.util.ArrayUtils;
 
 import java.awt.*;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
 import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.WritableRaster;
@@ -206,6 +214,42 @@ public final class AWTG2DUtils {
         return font;
     }
     
+    /**
+     * Converts the given shape. Rectangles, ellipses, round rectangles, lines and arcs
+     * are mapped to their {@code java.awt.geom} equivalents directly; other shapes
+     * are converted through their path iterators.
+     *
+     * @param shape the shape to convert
+     * @return the AWT shape
+     */
+    public static Shape toAWTShape(io.notcute.g2d.geom.Shape shape) {
+        if (shape instanceof Rectangle) {
+            Rectangle rectangle = (Rectangle) shape;
+            return new Rectangle2D.Float(rectangle.getX(), rectangle.getY(), rectangle.getWidth(), rectangle.getHeight());
+        }
+        else if (shape instanceof Ellipse) {
+            Ellipse ellipse = (Ellipse) shape;
+            return new Ellipse2D.Float(ellipse.getX(), ellipse.getY(), ellipse.getWidth(), ellipse.getHeight());
+        }
+        else if (shape instanceof RoundRectangle) {
+            RoundRectangle roundRectangle = (RoundRectangle) shape;
+            return new RoundRectangle2D.Float(roundRectangle.getX(), roundRectangle.getY(),
+                    roundRectangle.getWidth(), roundRectangle.getHeight(),
+                    roundRectangle.getArcWidth(), roundRectangle.getArcHeight());
+        }
+        else if (shape instanceof Line) {
+            Line line = (Line) shape;
+            return new Line2D.Float(line.getX1(), line.getY1(), line.getX2(), line.getY2());
+        }
+        else if (shape instanceof Arc) {
+            // Same angle convention and arc type constants as Arc2D
+            Arc arc = (Arc) shape;
+            return new Arc2D.Float(arc.getX(), arc.getY(), arc.getWidth(), arc.getHeight(),
+                    arc.getAngleStart(), arc.getAngleExtent(), arc.getArcType());
+        }
+        else return toAWTPath2D(shape.getPathIterator());
+    }
+
     public static Path2D toAWTPath2D(io.notcute.g2d.geom.PathIterator iterator) {
         Path2D.Float path = new Path2D.Float();
         path.setWindingRule(toAWTWindingRule(iterator.getWindingRule()));
@@ -0,0 +1,163 @@
+package io.notcute.internal.awt;
+
+import io.notcute.g2d.geom.Arc;
+import io.notcute.g2d.geom.Ellipse;
+import io.notcute.g2d.geom.Line;
+import io.notcute.g2d.geom.MutableShape;
+import io.notcute.g2d.geom.Rectangle;
+import io.notcute.g2d.geom.RoundRectangle;
+import io.notcute.g2d.geom.Shape;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An identity-keyed LRU cache of AWT shapes converted from {@link MutableShape}s,
+ * shared by all {@link io.notcute.g2d.awt.AWTGraphics} instances. An entry is
+ * valid as long as the modification count of its shape does not change; shapes
+ * are weakly referenced, so caching does not keep them alive.
+ * <p>
+ * Shapes with a direct AWT equivalent, and shapes which are not mutable, are
+ * converted on each call. The cached AWT shapes must not be modified.
+ * The cache is thread-safe.
+ */
+public final class AWTShapeCache {
+
+    private AWTShapeCache() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static final int CAPACITY = 256;
+
+    private static final class Key extends WeakReference<MutableShape> {
+        private final int hash;
+        private Key(MutableShape shape, ReferenceQueue<MutableShape> queue) {
+            super(shape, queue);
+            hash = System.identityHashCode(shape);
+        }
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MutableShape shape = get();
+            return shape != null && shape == ((Key) o).get();
+        }
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Probe {
+        private MutableShape shape;
+        private Probe set(MutableShape shape) {
+            this.shape = shape;
+            return this;
+        }
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).get() == shape;
+        }
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(shape);
+        }
+    }
+
+    private static final class CachedShape {
+        private java.awt.Shape shape;
+        private int modCount;
+        private CachedShape(java.awt.Shape shape, int modCount) {
+            this.shape = shape;
+            this.modCount = modCount;
+        }
+    }
+
+    private static final ReferenceQueue<MutableShape> QUEUE = new ReferenceQueue<>();
+    private static final Probe PROBE = new Probe();
+    private static final LinkedHashMap<Object, CachedShape> ENTRIES = new LinkedHashMap<Object, CachedShape>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, CachedShape> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    private static long hits = 0;
+    private static long misses = 0;
+
+    /**
+     * Returns the AWT shape of the given shape, from the cache if the shape is
+     * mutable and has not been modified since it was cached.
+     *
+     * @param shape the shape to convert
+     * @return the AWT shape, must not be modified
+     */
+    public static java.awt.Shape toAWTShape(Shape shape) {
+        if (!(shape instanceof MutableShape) || hasDirectEquivalent(shape)) return AWTG2DUtils.toAWTShape(shape);
+        MutableShape mutableShape = (MutableShape) shape;
+        int modCount = mutableShape.getModCount();
+        synchronized (ENTRIES) {
+            expunge();
+            CachedShape cached = ENTRIES.get(PROBE.set(mutableShape));
+            PROBE.shape = null;
+            if (cached != null && cached.modCount == modCount) {
+                hits ++;
+                return cached.shape;
+            }
+            misses ++;
+            java.awt.Shape awtShape = AWTG2DUtils.toAWTPath2D(shape.getPathIterator());
+            if (cached == null) ENTRIES.put(new Key(mutableShape, QUEUE), new CachedShape(awtShape, modCount));
+            else {
+                cached.shape = awtShape;
+                cached.modCount = modCount;
+            }
+            return awtShape;
+        }
+    }
+
+    private static boolean hasDirectEquivalent(Shape shape) {
+        return shape instanceof Rectangle || shape instanceof Ellipse || shape instanceof RoundRectangle
+                || shape instanceof Line || shape instanceof Arc;
+    }
+
+    private static void expunge() {
+        for (Reference<? extends MutableShape> key; (key = QUEUE.poll()) != null; ) {
+            ENTRIES.remove(key);
+        }
+    }
+
+    public static int size() {
+        synchronized (ENTRIES) {
+            expunge();
+            return ENTRIES.size();
+        }
+    }
+
+    public static long getHits() {
+        synchronized (ENTRIES) {
+            return hits;
+        }
+    }
+
+    public static long getMisses() {
+        synchronized (ENTRIES) {
+            return misses;
+        }
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public static void clear() {
+        synchronized (ENTRIES) {
+            ENTRIES.clear();
+            while (QUEUE.poll() != null) ;
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+}
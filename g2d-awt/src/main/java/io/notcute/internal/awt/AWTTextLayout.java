@@ -0,0 +1,31 @@
+package io.notcute.internal.awt;
+
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A cached text entry of {@link io.notcute.g2d.awt.AWTGraphics}. The laid out
+ * glyphs and the string bounds are computed on demand.
+ */
+public final class AWTTextLayout {
+
+    private volatile TextLayout layout;
+    private volatile Rectangle2D.Float bounds;
+
+    public TextLayout getLayout() {
+        return layout;
+    }
+
+    public void setLayout(TextLayout layout) {
+        this.layout = layout;
+    }
+
+    public Rectangle2D.Float getBounds() {
+        return bounds;
+    }
+
+    public void setBounds(Rectangle2D.Float bounds) {
+        this.bounds = bounds;
+    }
+
+}
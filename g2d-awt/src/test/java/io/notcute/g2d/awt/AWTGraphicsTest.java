@@ -0,0 +1,58 @@
+package io.notcute.g2d.awt;
+
+import io.notcute.g2d.AffineTransform;
+import io.notcute.g2d.Color;
+import io.notcute.g2d.Graphics;
+import io.notcute.g2d.geom.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AWTGraphicsTest {
+
+    private static boolean isPainted(BufferedImage image, int x, int y) {
+        return (image.getRGB(x, y) >>> 24) != 0;
+    }
+
+    @Test
+    public void clipFollowsTransformChange() {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        AWTGraphics graphics = new AWTGraphics(image);
+        Graphics.Info info = graphics.getInfo();
+        info.setClip(new Rectangle(50, 50, 20, 20));
+        graphics.apply();
+
+        // Only the transform is dirty here; the clip is in user space and must move with it
+        info.setTransform(AffineTransform.getTranslateInstance(5, 5));
+        graphics.apply();
+        info.setColor(Color.RED);
+        graphics.apply();
+        graphics.drawColor();
+        graphics.dispose();
+
+        assertTrue(isPainted(image, 55, 55));
+        assertTrue(isPainted(image, 74, 74));
+        assertFalse(isPainted(image, 52, 52));
+        assertFalse(isPainted(image, 76, 76));
+    }
+
+    @Test
+    public void unchangedApplyKeepsState() {
+        BufferedImage image = new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB);
+        AWTGraphics graphics = new AWTGraphics(image);
+        Graphics.Info info = graphics.getInfo();
+        info.setColor(Color.BLUE);
+        info.setClip(new Rectangle(0, 0, 10, 20));
+        graphics.apply();
+        assertEquals(0, info.getDirtyFields());
+        graphics.apply();
+        graphics.drawColor();
+        graphics.dispose();
+
+        assertEquals(Color.BLUE, image.getRGB(5, 5));
+        assertFalse(isPainted(image, 15, 5));
+    }
+
+}
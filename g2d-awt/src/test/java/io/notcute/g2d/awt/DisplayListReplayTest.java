@@ -0,0 +1,71 @@
+package io.notcute.g2d.awt;
+
+import io.notcute.g2d.AffineTransform;
+import io.notcute.g2d.Color;
+import io.notcute.g2d.DisplayList;
+import io.notcute.g2d.Graphics;
+import io.notcute.g2d.RecordingGraphics;
+import io.notcute.g2d.geom.Ellipse;
+import io.notcute.g2d.geom.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisplayListReplayTest {
+
+    private static final int WIDTH = 64, HEIGHT = 48;
+
+    private static void paint(Graphics graphics) {
+        Graphics.Info info = graphics.getInfo();
+        info.setColor(Color.WHITE);
+        graphics.apply();
+        graphics.drawColor();
+
+        info.setColor(Color.RED);
+        info.setStyle(Graphics.Style.FILL);
+        info.setTransform(AffineTransform.getTranslateInstance(5, 7));
+        graphics.apply();
+        graphics.drawShape(new Rectangle(0, 0, 20, 10));
+
+        info.setColor(Color.BLUE);
+        info.setStyle(Graphics.Style.STROKE);
+        info.setStrokeWidth(3);
+        info.setTransform(null);
+        info.setClip(new Rectangle(20, 10, 30, 30));
+        graphics.apply();
+        graphics.drawShape(new Ellipse(15, 5, 40, 30));
+
+        info.setClip(null);
+        info.setColor(Color.GREEN);
+        graphics.apply();
+        graphics.drawPoint(60, 40);
+    }
+
+    @Test
+    public void replayEqualsPaintingDirectly() {
+        BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        AWTGraphics direct = new AWTGraphics(expected);
+        paint(direct);
+        direct.dispose();
+
+        RecordingGraphics recorder = new RecordingGraphics(WIDTH, HEIGHT, null);
+        paint(recorder);
+        DisplayList displayList = recorder.finish();
+        recorder.dispose();
+        BufferedImage actual = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        AWTGraphics replayed = new AWTGraphics(actual);
+        displayList.replay(replayed);
+        replayed.dispose();
+
+        for (int y = 0; y < HEIGHT; y ++) {
+            for (int x = 0; x < WIDTH; x ++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel " + x + ", " + y);
+            }
+        }
+        // The scene is actually drawn
+        assertEquals(Color.RED, actual.getRGB(10, 10));
+    }
+
+}
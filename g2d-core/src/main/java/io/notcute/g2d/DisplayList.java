@@ -0,0 +1,347 @@
+package io.notcute.g2d;
+
+import io.notcute.g2d.geom.PathIterator;
+import io.notcute.g2d.geom.Rectangle;
+
+import java.util.Arrays;
+
+/**
+ * A compact, retained list of draw calls, recorded by {@link RecordingGraphics}.
+ * The operations, their coordinates and their device-space bounds are stored
+ * in primitive arrays; only images, texts and {@link Graphics.Info} states
+ * are kept as objects.
+ * <p>
+ * A display list can be replayed onto any {@link Graphics}, e.g. to reuse the
+ * output of a paint pass whose inputs did not change, and two display lists can
+ * be compared with {@link #diff(DisplayList, Rectangle)} to find the region
+ * which needs to be repainted.
+ * <p>
+ * Images are retained and compared by identity; modifying the pixels of a
+ * recorded image is not detected. A display list is not thread-safe.
+ *
+ * @see RecordingGraphics
+ */
+public final class DisplayList {
+
+    static final int OP_COLOR = 0;
+    static final int OP_IMAGE = 1;
+    static final int OP_POINT = 2;
+    static final int OP_PATH = 3;
+    static final int OP_TEXT = 4;
+
+    // code, float start, float count, argument, state
+    private static final int STRIDE = 5;
+
+    private final int width;
+    private final int height;
+
+    private int[] ops = new int[16 * STRIDE];
+    private int opCount = 0;
+    private float[] floats = new float[64];
+    private int floatCount = 0;
+    private Object[] objects = new Object[16];
+    private int objectCount = 0;
+    private float[] bounds = new float[16 * 4];
+
+    private final AffineTransform scratchTransform = new AffineTransform();
+    private final RecordedPathIterator scratchIterator = new RecordedPathIterator();
+
+    public DisplayList(int width, int height) {
+        if (width < 0 || height < 0) throw new IllegalArgumentException("Invalid size: " + width + "x" + height);
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of recorded draw calls.
+     *
+     * @return the number of draw calls
+     */
+    public int size() {
+        return opCount;
+    }
+
+    public boolean isEmpty() {
+        return opCount == 0;
+    }
+
+    /**
+     * Removes all draw calls. The arrays are kept for reuse.
+     */
+    public void clear() {
+        opCount = 0;
+        floatCount = 0;
+        Arrays.fill(objects, 0, objectCount, null);
+        objectCount = 0;
+    }
+
+    /**
+     * Returns the union of the device-space bounds of all draw calls. Draw calls with
+     * empty bounds, e.g. entirely clipped or off the surface, are not included.
+     *
+     * @param bounds the rectangle to store the bounds, empty if nothing is drawn
+     */
+    public void getBounds(Rectangle bounds) {
+        float left = Float.POSITIVE_INFINITY, top = Float.POSITIVE_INFINITY;
+        float right = Float.NEGATIVE_INFINITY, bottom = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < opCount; i ++) {
+            int b = i * 4;
+            if (isEmpty(this.bounds, b)) continue;
+            left = Math.min(left, this.bounds[b]);
+            top = Math.min(top, this.bounds[b + 1]);
+            right = Math.max(right, this.bounds[b + 2]);
+            bottom = Math.max(bottom, this.bounds[b + 3]);
+        }
+        if (left > right) bounds.setRect(0, 0, 0, 0);
+        else bounds.setRect(left, top, right - left, bottom - top);
+    }
+
+    /**
+     * Replays all draw calls onto the given graphics. The {@link Graphics.Info} of the
+     * graphics is saved before and restored, and applied, after replaying.
+     *
+     * @param graphics the graphics to draw on
+     */
+    public void replay(Graphics graphics) {
+        graphics.save();
+        Object state = null;
+        for (int i = 0; i < opCount; i ++) {
+            int op = i * STRIDE;
+            Graphics.Info info = (Graphics.Info) objects[ops[op + 4]];
+            if (info != state) {
+                graphics.setInfo(info);
+                graphics.apply();
+                state = info;
+            }
+            int start = ops[op + 1];
+            switch (ops[op]) {
+                case OP_COLOR:
+                    graphics.drawColor();
+                    break;
+                case OP_IMAGE:
+                    scratchTransform.setTransform(floats[start], floats[start + 1], floats[start + 2],
+                            floats[start + 3], floats[start + 4], floats[start + 5]);
+                    graphics.drawImage((Image) objects[ops[op + 3]], scratchTransform);
+                    break;
+                case OP_POINT:
+                    graphics.drawPoint(floats[start], floats[start + 1]);
+                    break;
+                case OP_PATH:
+                    graphics.drawPathIterator(scratchIterator.set(floats, start, start + ops[op + 2], ops[op + 3]));
+                    break;
+                case OP_TEXT:
+                    scratchTransform.setTransform(floats[start], floats[start + 1], floats[start + 2],
+                            floats[start + 3], floats[start + 4], floats[start + 5]);
+                    graphics.drawText((String) objects[ops[op + 3]], scratchTransform);
+                    break;
+            }
+        }
+        graphics.restore();
+        graphics.apply();
+    }
+
+    /**
+     * Compares this display list with the previous one of the same surface and computes
+     * the device-space region in which they differ. Draw calls are compared pairwise by
+     * their position in the lists, including the {@link Graphics.Info} they are drawn with;
+     * the damage is the union of the bounds of all pairs which differ. Empty bounds, e.g.
+     * of draw calls entirely clipped or off the surface, do not add to the damage.
+     *
+     * @param previous the previous display list
+     * @param damage the rectangle to store the damaged region, empty if nothing changed or
+     *               the differing draw calls draw nothing; may be {@code null}
+     * @return true if the lists differ, false otherwise
+     */
+    public boolean diff(DisplayList previous, Rectangle damage) {
+        if (previous.width != width || previous.height != height) {
+            if (damage != null) damage.setRect(0, 0, width, height);
+            return true;
+        }
+        float left = Float.POSITIVE_INFINITY, top = Float.POSITIVE_INFINITY;
+        float right = Float.NEGATIVE_INFINITY, bottom = Float.NEGATIVE_INFINITY;
+        boolean changed = false;
+        int common = Math.min(opCount, previous.opCount);
+        int lastState = -1, lastPreviousState = -1;
+        for (int i = 0; i < Math.max(opCount, previous.opCount); i ++) {
+            if (i < common) {
+                int op = i * STRIDE;
+                int state = ops[op + 4], previousState = previous.ops[op + 4];
+                boolean equal = opEquals(op, previous);
+                if (equal && (state != lastState || previousState != lastPreviousState)) {
+                    // Consecutive draw calls usually share their state, so compare each pair once
+                    if (!objects[state].equals(previous.objects[previousState])) equal = false;
+                    else {
+                        lastState = state;
+                        lastPreviousState = previousState;
+                    }
+                }
+                if (equal) continue;
+            }
+            changed = true;
+            if (damage == null) return true;
+            int b = i * 4;
+            if (i < opCount && !isEmpty(bounds, b)) {
+                left = Math.min(left, bounds[b]);
+                top = Math.min(top, bounds[b + 1]);
+                right = Math.max(right, bounds[b + 2]);
+                bottom = Math.max(bottom, bounds[b + 3]);
+            }
+            if (i < previous.opCount && !isEmpty(previous.bounds, b)) {
+                left = Math.min(left, previous.bounds[b]);
+                top = Math.min(top, previous.bounds[b + 1]);
+                right = Math.max(right, previous.bounds[b + 2]);
+                bottom = Math.max(bottom, previous.bounds[b + 3]);
+            }
+        }
+        if (damage != null) {
+            if (left > right) damage.setRect(0, 0, 0, 0);
+            else damage.setRect(left, top, right - left, bottom - top);
+        }
+        return changed;
+    }
+
+    /**
+     * Returns whether this display list draws the same as the given one.
+     *
+     * @param other the display list to compare
+     * @return true if the lists are equal, false otherwise
+     */
+    public boolean contentEquals(DisplayList other) {
+        return this == other || !diff(other, null);
+    }
+
+    private static boolean isEmpty(float[] bounds, int b) {
+        return bounds[b + 2] <= bounds[b] || bounds[b + 3] <= bounds[b + 1];
+    }
+
+    private boolean opEquals(int op, DisplayList previous) {
+        int code = ops[op];
+        if (code != previous.ops[op]) return false;
+        int count = ops[op + 2];
+        if (count != previous.ops[op + 2]) return false;
+        for (int i = ops[op + 1], j = previous.ops[op + 1], end = i + count; i < end; i ++, j ++) {
+            if (Float.floatToIntBits(floats[i]) != Float.floatToIntBits(previous.floats[j])) return false;
+        }
+        switch (code) {
+            case OP_IMAGE:
+                return objects[ops[op + 3]] == previous.objects[previous.ops[op + 3]];
+            case OP_PATH:
+                return ops[op + 3] == previous.ops[op + 3];
+            case OP_TEXT:
+                return objects[ops[op + 3]].equals(previous.objects[previous.ops[op + 3]]);
+            default:
+                return true;
+        }
+    }
+
+    int addObject(Object object) {
+        if (objectCount == objects.length) objects = Arrays.copyOf(objects, objectCount << 1);
+        objects[objectCount] = object;
+        return objectCount ++;
+    }
+
+    Object getObject(int index) {
+        return objects[index];
+    }
+
+    void addFloat(float value) {
+        if (floatCount == floats.length) floats = Arrays.copyOf(floats, floatCount << 1);
+        floats[floatCount ++] = value;
+    }
+
+    int getFloatCount() {
+        return floatCount;
+    }
+
+    /**
+     * Appends a draw call whose floats have been added since {@code floatStart}.
+     */
+    void addOp(int code, int floatStart, int argument, int state, float left, float top, float right, float bottom) {
+        if (opCount * STRIDE == ops.length) {
+            ops = Arrays.copyOf(ops, ops.length << 1);
+            bounds = Arrays.copyOf(bounds, bounds.length << 1);
+        }
+        int op = opCount * STRIDE;
+        ops[op] = code;
+        ops[op + 1] = floatStart;
+        ops[op + 2] = floatCount - floatStart;
+        ops[op + 3] = argument;
+        ops[op + 4] = state;
+        int b = opCount * 4;
+        // Off the surface, the bounds become empty at its edge
+        left = Math.min(Math.max(left, 0), width);
+        top = Math.min(Math.max(top, 0), height);
+        right = Math.min(right, width);
+        bottom = Math.min(bottom, height);
+        bounds[b] = left;
+        bounds[b + 1] = top;
+        bounds[b + 2] = Math.max(left, right);
+        bounds[b + 3] = Math.max(top, bottom);
+        opCount ++;
+    }
+
+    /**
+     * A path iterator over recorded segments, each stored as its type followed by its coordinates.
+     */
+    private static final class RecordedPathIterator implements PathIterator {
+
+        private float[] floats;
+        private int index;
+        private int end;
+        private int windingRule;
+
+        private RecordedPathIterator set(float[] floats, int start, int end, int windingRule) {
+            this.floats = floats;
+            this.index = start;
+            this.end = end;
+            this.windingRule = windingRule;
+            return this;
+        }
+
+        @Override
+        public int getWindingRule() {
+            return windingRule;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < end;
+        }
+
+        @Override
+        public void next() {
+            index += 1 + coordinates((int) floats[index]);
+        }
+
+        @Override
+        public int currentSegment(float[] coords) {
+            int type = (int) floats[index];
+            System.arraycopy(floats, index + 1, coords, 0, coordinates(type));
+            return type;
+        }
+
+    }
+
+    static int coordinates(int type) {
+        switch (type) {
+            case PathIterator.SegmentType.MOVE_TO:
+            case PathIterator.SegmentType.LINE_TO:
+                return 2;
+            case PathIterator.SegmentType.QUAD_TO:
+                return 4;
+            case PathIterator.SegmentType.CUBIC_TO:
+                return 6;
+            default:
+                return 0;
+        }
+    }
+
+}
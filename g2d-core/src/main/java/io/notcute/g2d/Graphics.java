@@ -7,10 +7,48 @@ import io.notcute.util.Disposable;
 import io.notcute.util.Resetable;
 import io.notcute.util.SwapCloneable;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 public interface Graphics extends Disposable {
 
     class Info implements Resetable, SwapCloneable {
 
+        /**
+         * The constants of the fields of {@link Info}, used as bit flags to track
+         * which fields have changed since the last {@link Graphics#apply()}.
+         * <p>
+         * Note: Modifying the objects returned by {@link Info#getClip()} and
+         * {@link Info#getTransform()} in place is not tracked; pass the same
+         * object to the setter again, or call {@link Info#markDirty(int)}.
+         */
+        public static final class Field {
+            private Field() {
+                throw new UnsupportedOperationException();
+            }
+            public static final int CLIP = 1;
+            public static final int TRANSFORM = 1 << 1;
+            public static final int COLOR = 1 << 2;
+            public static final int STYLE = 1 << 3;
+            public static final int STROKE_WIDTH = 1 << 4;
+            public static final int STROKE_JOIN = 1 << 5;
+            public static final int STROKE_CAP = 1 << 6;
+            public static final int STROKE_MITER = 1 << 7;
+            public static final int FONT = 1 << 8;
+            public static final int TEXT_SIZE = 1 << 9;
+            public static final int ANTI_ALIAS = 1 << 10;
+            public static final int FILTER_IMAGE = 1 << 11;
+            public static final int SUBPIXEL_TEXT = 1 << 12;
+            public static final int UNDERLINE_TEXT = 1 << 13;
+            public static final int STRIKE_THROUGH_TEXT = 1 << 14;
+            public static final int DITHER = 1 << 15;
+            public static final int STROKE = STROKE_WIDTH | STROKE_JOIN | STROKE_CAP | STROKE_MITER;
+            public static final int HINTS = ANTI_ALIAS | FILTER_IMAGE | SUBPIXEL_TEXT | DITHER;
+            public static final int ALL = (1 << 16) - 1;
+        }
+
+        private int dirty;
+
         private Shape clip;
         private AffineTransform transform;
         private int color;
@@ -30,6 +68,7 @@ public interface Graphics extends Disposable {
 
         public Info() {
             reset();
+            dirty = Field.ALL;
         }
 
         public Info(Info info) {
@@ -39,6 +78,45 @@ public interface Graphics extends Disposable {
                     info.isUnderlineText(), info.isStrikeThroughText(), info.isDither());
         }
 
+        /**
+         * Returns the fields which have changed since the last call of {@link #clearDirty()}.
+         *
+         * @see Field
+         * @return the bit flags of the changed fields
+         */
+        public int getDirtyFields() {
+            return dirty;
+        }
+
+        /**
+         * Returns whether any of the given fields has changed since the last call of {@link #clearDirty()}.
+         *
+         * @see Field
+         * @param fields the bit flags of the fields to check
+         * @return true if any of the fields has changed, false opposite
+         */
+        public boolean isDirty(int fields) {
+            return (dirty & fields) != 0;
+        }
+
+        /**
+         * Marks the given fields as changed, e.g. after modifying the clip or transform in place.
+         *
+         * @see Field
+         * @param fields the bit flags of the changed fields
+         */
+        public void markDirty(int fields) {
+            dirty |= fields & Field.ALL;
+        }
+
+        /**
+         * Marks all fields as unchanged. Called by {@link Graphics#apply()} implementations
+         * once the changed fields have been pushed to the native graphics.
+         */
+        public void clearDirty() {
+            dirty = 0;
+        }
+
         public void setStroke(float width, int join, int cap, int miter) {
             setStrokeWidth(width);
             setStrokeJoin(join);
@@ -66,6 +144,7 @@ public interface Graphics extends Disposable {
             setInfo(clip, transform, color, style, strokeWidth, strokeJoin, strokeCap, strokeMiter,
                     font, textSize, antiAlias, filterImage, subpixelText, underlineText, strikeThroughText,
                     dither);
+            dirty = Field.ALL;
         }
 
         public void setInfo(Info info) {
@@ -111,7 +190,14 @@ public interface Graphics extends Disposable {
         }
 
         public void setClip(Shape clip) {
+            if (clip != null && clip == this.clip) {
+                // The own clip may have been modified in place
+                dirty |= Field.CLIP;
+                return;
+            }
+            if (Objects.equals(this.clip, clip)) return;
             this.clip = clip == null ? null : (Shape) clip.clone();
+            dirty |= Field.CLIP;
         }
 
         public AffineTransform getTransform() {
@@ -123,7 +209,14 @@ public interface Graphics extends Disposable {
         }
 
         public void setTransform(AffineTransform transform) {
+            if (transform != null && transform == this.transform) {
+                // The own transform may have been modified in place
+                dirty |= Field.TRANSFORM;
+                return;
+            }
+            if (Objects.equals(this.transform, transform)) return;
             this.transform = transform == null ? null : transform.clone();
+            dirty |= Field.TRANSFORM;
         }
 
         public int getColor() {
@@ -131,7 +224,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setColor(int color) {
+            if (this.color == color) return;
             this.color = color;
+            dirty |= Field.COLOR;
         }
 
         public int getStyle() {
@@ -139,7 +234,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setStyle(int style) {
+            if (this.style == style) return;
             this.style = style;
+            dirty |= Field.STYLE;
         }
         
         public float getStrokeWidth() {
@@ -147,7 +244,9 @@ public interface Graphics extends Disposable {
         }
         
         public void setStrokeWidth(float width) {
+            if (Float.compare(this.strokeWidth, width) == 0) return;
             this.strokeWidth = width;
+            dirty |= Field.STROKE_WIDTH;
         }
 
         public int getStrokeJoin() {
@@ -155,7 +254,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setStrokeJoin(final int join) {
+            if (this.strokeJoin == join) return;
             this.strokeJoin = join;
+            dirty |= Field.STROKE_JOIN;
         }
 
         public int getStrokeCap() {
@@ -163,7 +264,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setStrokeCap(final int cap) {
+            if (this.strokeCap == cap) return;
             this.strokeCap = cap;
+            dirty |= Field.STROKE_CAP;
         }
 
         public float getStrokeMiter() {
@@ -171,7 +274,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setStrokeMiter(final float miter) {
+            if (Float.compare(this.strokeMiter, miter) == 0) return;
             this.strokeMiter = miter;
+            dirty |= Field.STROKE_MITER;
         }
 
         public Font getFont() {
@@ -179,7 +284,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setFont(Font font) {
+            if (this.font == font) return;
             this.font = font;
+            dirty |= Field.FONT;
         }
 
         public float getTextSize() {
@@ -187,7 +294,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setTextSize(final float size) {
+            if (Float.compare(this.textSize, size) == 0) return;
             this.textSize = size;
+            dirty |= Field.TEXT_SIZE;
         }
 
         public boolean isAntiAlias() {
@@ -195,7 +304,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setAntiAlias(final boolean antiAlias) {
+            if (this.antiAlias == antiAlias) return;
             this.antiAlias = antiAlias;
+            dirty |= Field.ANTI_ALIAS;
         }
 
         public boolean isFilterImage() {
@@ -203,7 +314,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setFilterImage(final boolean filterImage) {
+            if (this.filterImage == filterImage) return;
             this.filterImage = filterImage;
+            dirty |= Field.FILTER_IMAGE;
         }
 
         public boolean isSubpixelText() {
@@ -211,7 +324,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setSubpixelText(final boolean subpixelText) {
+            if (this.subpixelText == subpixelText) return;
             this.subpixelText = subpixelText;
+            dirty |= Field.SUBPIXEL_TEXT;
         }
 
         public boolean isUnderlineText() {
@@ -219,7 +334,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setUnderlineText(final boolean underlineText) {
+            if (this.underlineText == underlineText) return;
             this.underlineText = underlineText;
+            dirty |= Field.UNDERLINE_TEXT;
         }
 
         public boolean isStrikeThroughText() {
@@ -227,7 +344,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setStrikeThroughText(final boolean strikeThroughText) {
+            if (this.strikeThroughText == strikeThroughText) return;
             this.strikeThroughText = strikeThroughText;
+            dirty |= Field.STRIKE_THROUGH_TEXT;
         }
 
         public boolean isDither() {
@@ -235,7 +354,9 @@ public interface Graphics extends Disposable {
         }
 
         public void setDither(final boolean dither) {
+            if (this.dither == dither) return;
             this.dither = dither;
+            dirty |= Field.DITHER;
         }
 
         @Override
@@ -262,8 +383,8 @@ public interface Graphics extends Disposable {
         public Info clone() {
             try {
                 Info info = (Info) super.clone();
-                info.setClip(clip == null ? null : (Shape) clip.clone());
-                info.setTransform(transform == null ? null : transform.clone());
+                info.clip = clip == null ? null : (Shape) clip.clone();
+                info.transform = transform == null ? null : transform.clone();
                 return info;
             }
             catch (CloneNotSupportedException e) {
@@ -296,22 +417,22 @@ public interface Graphics extends Disposable {
             if (isUnderlineText() != info.isUnderlineText()) return false;
             if (isStrikeThroughText() != info.isStrikeThroughText()) return false;
             if (isDither() != info.isDither()) return false;
-            if (!getClip().equals(info.getClip())) return false;
-            if (!getTransform().equals(info.getTransform())) return false;
-            return getFont().equals(info.getFont());
+            if (!Objects.equals(getClip(), info.getClip())) return false;
+            if (!Objects.equals(getTransform(), info.getTransform())) return false;
+            return Objects.equals(getFont(), info.getFont());
         }
 
         @Override
         public int hashCode() {
-            int result = getClip().hashCode();
-            result = 31 * result + getTransform().hashCode();
+            int result = Objects.hashCode(getClip());
+            result = 31 * result + Objects.hashCode(getTransform());
             result = 31 * result + getColor();
             result = 31 * result + getStyle();
             result = 31 * result + (getStrokeWidth() != +0.0f ? Float.floatToIntBits(getStrokeWidth()) : 0);
             result = 31 * result + getStrokeJoin();
             result = 31 * result + getStrokeCap();
             result = 31 * result + (getStrokeMiter() != +0.0f ? Float.floatToIntBits(getStrokeMiter()) : 0);
-            result = 31 * result + getFont().hashCode();
+            result = 31 * result + Objects.hashCode(getFont());
             result = 31 * result + (getTextSize() != +0.0f ? Float.floatToIntBits(getTextSize()) : 0);
             result = 31 * result + (isAntiAlias() ? 1 : 0);
             result = 31 * result + (isFilterImage() ? 1 : 0);
@@ -324,6 +445,86 @@ public interface Graphics extends Disposable {
 
     }
 
+    /**
+     * A depth-indexed stack of {@link Info} states, used to implement
+     * {@link Graphics#save()} and {@link Graphics#restore()}. The frames
+     * are pooled and reused, so saving at a depth which has been reached
+     * before does not allocate, and restoring only sets, and marks dirty,
+     * the fields which differ from the saved state.
+     */
+    final class InfoStack {
+
+        private Info[] frames;
+        private int depth;
+
+        public InfoStack() {
+            this(8);
+        }
+
+        public InfoStack(int initialCapacity) {
+            if (initialCapacity < 1) throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity);
+            frames = new Info[initialCapacity];
+            depth = 0;
+        }
+
+        /**
+         * Pushes a copy of the given state.
+         *
+         * @param info the state to save
+         */
+        public void push(Info info) {
+            if (depth == frames.length) frames = Arrays.copyOf(frames, depth << 1);
+            Info frame = frames[depth];
+            if (frame == null) {
+                frame = new Info(info);
+                frames[depth] = frame;
+            }
+            else frame.setInfo(info);
+            depth ++;
+        }
+
+        /**
+         * Pops the last pushed state into the given state. Does nothing if the stack is empty.
+         *
+         * @param info the state to restore
+         * @return true if a state has been restored, false if the stack is empty
+         */
+        public boolean pop(Info info) {
+            if (depth == 0) return false;
+            info.setInfo(frames[-- depth]);
+            return true;
+        }
+
+        /**
+         * Returns the number of saved states.
+         *
+         * @return the depth of the stack
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Discards all saved states. The pooled frames are kept.
+         */
+        public void clear() {
+            depth = 0;
+        }
+
+        /**
+         * Replaces the saved states with copies of the states of the given stack.
+         *
+         * @param stack the stack to copy
+         */
+        public void setInfoStack(InfoStack stack) {
+            clear();
+            for (int i = 0; i < stack.depth; i ++) {
+                push(stack.frames[i]);
+            }
+        }
+
+    }
+
     class Style {
         private Style() {
             throw new UnsupportedOperationException();
@@ -439,7 +640,17 @@ public interface Graphics extends Disposable {
     }
 
     void apply();
+
+    /**
+     * Saves the current {@link Info} onto the state stack. Saves may be nested.
+     */
     void save();
+
+    /**
+     * Restores the {@link Info} saved by the matching {@link #save()}. Does nothing
+     * if there is no saved state. Like other changes of the {@link Info}, the
+     * restored state takes effect with the next {@link #apply()}.
+     */
     void restore();
 
 }
@@ -5,6 +5,10 @@ import io.notcute.util.Cloneable;
 import io.notcute.util.Disposable;
 import io.notcute.util.SwapCloneable;
 
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Objects;
+
 public interface Image extends Disposable, Cloneable {
 
     class DisposalMode {
@@ -161,6 +165,104 @@ public interface Image extends Disposable, Cloneable {
         public static final int RGB_565 = 1;
     }
 
+    /**
+     * The pixels of an image locked with {@link Image#lockPixels()}. The pixel {@code (x, y)}
+     * is stored at the index {@code getOffset() + y * getStride() + x} of the array, which is
+     * an {@code int[]} of ARGB_8888 pixels or a {@code short[]} of RGB_565 pixels, as given
+     * by {@link #getType()}.
+     */
+    final class PixelBuffer {
+
+        private final int type;
+        private final Object array;
+        private final int offset;
+        private final int stride;
+        private final int width;
+        private final int height;
+
+        public PixelBuffer(int[] pixels, int offset, int stride, int width, int height) {
+            this(Type.ARGB_8888, pixels, offset, stride, width, height);
+        }
+
+        public PixelBuffer(short[] pixels, int offset, int stride, int width, int height) {
+            this(Type.RGB_565, pixels, offset, stride, width, height);
+        }
+
+        private PixelBuffer(int type, Object array, int offset, int stride, int width, int height) {
+            this.type = type;
+            this.array = Objects.requireNonNull(array);
+            this.offset = offset;
+            this.stride = stride;
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getStride() {
+            return stride;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Returns the array of ARGB_8888 pixels.
+         *
+         * @return the pixels
+         * @throws IllegalStateException if the type is not {@link Type#ARGB_8888}
+         */
+        public int[] getIntArray() {
+            if (type != Type.ARGB_8888) throw new IllegalStateException("Not an ARGB_8888 pixel buffer");
+            return (int[]) array;
+        }
+
+        /**
+         * Returns the array of RGB_565 pixels.
+         *
+         * @return the pixels
+         * @throws IllegalStateException if the type is not {@link Type#RGB_565}
+         */
+        public short[] getShortArray() {
+            if (type != Type.RGB_565) throw new IllegalStateException("Not an RGB_565 pixel buffer");
+            return (short[]) array;
+        }
+
+        /**
+         * Returns a buffer backed by the array of ARGB_8888 pixels, whose index 0 is at {@link #getOffset()}.
+         *
+         * @return the pixels
+         * @throws IllegalStateException if the type is not {@link Type#ARGB_8888}
+         */
+        public IntBuffer asIntBuffer() {
+            int[] pixels = getIntArray();
+            return IntBuffer.wrap(pixels, offset, pixels.length - offset).slice();
+        }
+
+        /**
+         * Returns a buffer backed by the array of RGB_565 pixels, whose index 0 is at {@link #getOffset()}.
+         *
+         * @return the pixels
+         * @throws IllegalStateException if the type is not {@link Type#RGB_565}
+         */
+        public ShortBuffer asShortBuffer() {
+            short[] pixels = getShortArray();
+            return ShortBuffer.wrap(pixels, offset, pixels.length - offset).slice();
+        }
+
+    }
+
     default boolean hasAlpha() {
         return getType() == Type.ARGB_8888;
     }
@@ -176,4 +278,29 @@ public interface Image extends Disposable, Cloneable {
 
     int getType();
 
+    /**
+     * Locks the pixels of this image for bulk access, until {@link #unlockPixels(PixelBuffer)}.
+     * Backends which support it return the backing pixels of the image in its own format, so
+     * changes are visible immediately; by default, the pixels are copied as ARGB_8888 and
+     * written back on unlock. The image must not be drawn or drawn on while it is locked.
+     *
+     * @return the locked pixels
+     * @throws IllegalStateException if the pixels are already locked, for backends which track locks
+     */
+    default PixelBuffer lockPixels() {
+        int width = getWidth(), height = getHeight();
+        int[] pixels = new int[width * height];
+        getPixels(pixels, 0, width, 0, 0, width, height);
+        return new PixelBuffer(pixels, 0, width, width, height);
+    }
+
+    /**
+     * Unlocks the pixels locked with {@link #lockPixels()}, committing the changes.
+     *
+     * @param pixels the locked pixels
+     */
+    default void unlockPixels(PixelBuffer pixels) {
+        setPixels(pixels.getIntArray(), pixels.getOffset(), pixels.getStride(), 0, 0, pixels.getWidth(), pixels.getHeight());
+    }
+
 }
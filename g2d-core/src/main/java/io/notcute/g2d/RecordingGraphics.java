@@ -0,0 +1,396 @@
+package io.notcute.g2d;
+
+import io.notcute.g2d.geom.PathIterator;
+import io.notcute.g2d.geom.Rectangle;
+import io.notcute.g2d.geom.Shape;
+import io.notcute.util.AlreadyDisposedException;
+
+import java.util.Objects;
+
+/**
+ * A {@link Graphics} implementation which records draw calls into a {@link DisplayList}
+ * instead of rasterizing them.
+ * <pre>{@code
+ * RecordingGraphics recorder = new RecordingGraphics(width, height, measurer);
+ * paintable.paint(context, recorder, false);
+ * DisplayList current = recorder.finish(previous);
+ * ...
+ * if (current.diff(previous, damage)) current.replay(graphics);
+ * }</pre>
+ * Text measuring is delegated to a backend graphics, the measurer, whose
+ * {@link Graphics.Info} is overwritten with the applied state of the recorder on
+ * each measurement. Without a measurer, measuring returns zeros and recorded texts
+ * have the bounds of the whole surface.
+ * <p>
+ * Like other {@link Graphics} implementations, changes of the {@link Graphics.Info}
+ * take effect with the next {@link #apply()}.
+ *
+ * @see DisplayList
+ */
+public class RecordingGraphics implements Graphics {
+
+    private final Graphics measurer;
+    private DisplayList displayList;
+
+    private final Info info = new Info();
+    private final Info applied = new Info();
+    private final InfoStack infoStack = new InfoStack();
+
+    /**
+     * The index of the last recorded state in the display list, -1 if none.
+     */
+    private int state = -1;
+    private boolean pending = false;
+
+    private final float[] coords = new float[6];
+    private final float[] corners = new float[8];
+    private final Rectangle rectangle = new Rectangle();
+
+    private volatile boolean disposed = false;
+
+    /**
+     * Creates a new recorder.
+     *
+     * @param width the width of the surface
+     * @param height the height of the surface
+     * @param measurer the graphics to measure text with, may be {@code null}
+     */
+    public RecordingGraphics(int width, int height, Graphics measurer) {
+        this(new DisplayList(width, height), measurer);
+    }
+
+    /**
+     * Creates a new recorder which records into the given display list, after clearing it.
+     *
+     * @param displayList the display list to record into
+     * @param measurer the graphics to measure text with, may be {@code null}
+     */
+    public RecordingGraphics(DisplayList displayList, Graphics measurer) {
+        this.displayList = Objects.requireNonNull(displayList);
+        this.measurer = measurer;
+        displayList.clear();
+    }
+
+    /**
+     * Returns the display list being recorded.
+     *
+     * @return the display list
+     */
+    public DisplayList getDisplayList() {
+        return displayList;
+    }
+
+    /**
+     * Finishes the current display list and starts a new one of the same size.
+     *
+     * @return the finished display list
+     */
+    public DisplayList finish() {
+        return finish(new DisplayList(displayList.getWidth(), displayList.getHeight()));
+    }
+
+    /**
+     * Finishes the current display list and continues recording into the given one,
+     * after clearing it. Passing the list finished before the current one lets two
+     * lists be reused alternately without allocation.
+     *
+     * @param next the display list to record into
+     * @return the finished display list
+     */
+    public DisplayList finish(DisplayList next) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        DisplayList finished = displayList;
+        if (next == finished) throw new IllegalArgumentException("next is the current display list");
+        next.clear();
+        displayList = next;
+        state = -1;
+        return finished;
+    }
+
+    public Graphics getMeasurer() {
+        return measurer;
+    }
+
+    @Override
+    public int getWidth() {
+        return displayList.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return displayList.getHeight();
+    }
+
+    @Override
+    public void drawColor() {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        int state = recordState();
+        int start = displayList.getFloatCount();
+        rectangle.setRect(0, 0, getWidth(), getHeight());
+        if (!clip(rectangle)) addEmptyOp(DisplayList.OP_COLOR, start, 0, state);
+        else displayList.addOp(DisplayList.OP_COLOR, start, 0, state,
+                rectangle.getLeft(), rectangle.getTop(), rectangle.getRight(), rectangle.getBottom());
+    }
+
+    @Override
+    public void drawImage(Image image, AffineTransform transform) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        int state = recordState();
+        int start = displayList.getFloatCount();
+        displayList.addFloat(transform.getScaleX());
+        displayList.addFloat(transform.getShearY());
+        displayList.addFloat(transform.getShearX());
+        displayList.addFloat(transform.getScaleY());
+        displayList.addFloat(transform.getTranslateX());
+        displayList.addFloat(transform.getTranslateY());
+        transformBounds(transform, 0, 0, image.getWidth(), image.getHeight());
+        addOp(DisplayList.OP_IMAGE, start, displayList.addObject(image), state, 0);
+    }
+
+    @Override
+    public void drawPoint(float x, float y) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        int state = recordState();
+        int start = displayList.getFloatCount();
+        displayList.addFloat(x);
+        displayList.addFloat(y);
+        rectangle.setRect(x, y, 0, 0);
+        addOp(DisplayList.OP_POINT, start, 0, state, getStrokePadding());
+    }
+
+    @Override
+    public void drawPathIterator(PathIterator iterator) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        int state = recordState();
+        int start = displayList.getFloatCount();
+        int windingRule = iterator.getWindingRule();
+        float left = Float.POSITIVE_INFINITY, top = Float.POSITIVE_INFINITY;
+        float right = Float.NEGATIVE_INFINITY, bottom = Float.NEGATIVE_INFINITY;
+        while (iterator.hasNext()) {
+            int type = iterator.currentSegment(coords);
+            displayList.addFloat(type);
+            for (int i = 0, count = DisplayList.coordinates(type); i < count; i += 2) {
+                displayList.addFloat(coords[i]);
+                displayList.addFloat(coords[i + 1]);
+                left = Math.min(left, coords[i]);
+                top = Math.min(top, coords[i + 1]);
+                right = Math.max(right, coords[i]);
+                bottom = Math.max(bottom, coords[i + 1]);
+            }
+            iterator.next();
+        }
+        if (left > right) {
+            // No segments with coordinates, nothing is drawn
+            addEmptyOp(DisplayList.OP_PATH, start, windingRule, state);
+            return;
+        }
+        rectangle.setRect(left, top, right - left, bottom - top);
+        addOp(DisplayList.OP_PATH, start, windingRule, state,
+                applied.getStyle() == Style.FILL ? 0 : getStrokePadding());
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, AffineTransform transform) {
+        recordText(text.subSequence(start, end).toString(), transform);
+    }
+
+    @Override
+    public void drawText(char[] text, int offset, int length, AffineTransform transform) {
+        recordText(String.valueOf(text, offset, length), transform);
+    }
+
+    private void recordText(String text, AffineTransform transform) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        if (text.isEmpty()) return;
+        int state = recordState();
+        int start = displayList.getFloatCount();
+        displayList.addFloat(transform.getScaleX());
+        displayList.addFloat(transform.getShearY());
+        displayList.addFloat(transform.getShearX());
+        displayList.addFloat(transform.getScaleY());
+        displayList.addFloat(transform.getTranslateX());
+        displayList.addFloat(transform.getTranslateY());
+        int argument = displayList.addObject(text);
+        if (measurer == null) {
+            rectangle.setRect(0, 0, getWidth(), getHeight());
+            if (!clip(rectangle)) addEmptyOp(DisplayList.OP_TEXT, start, argument, state);
+            else displayList.addOp(DisplayList.OP_TEXT, start, argument, state,
+                    rectangle.getLeft(), rectangle.getTop(), rectangle.getRight(), rectangle.getBottom());
+        }
+        else {
+            measurer().getTextBounds(text, 0, text.length(), rectangle);
+            transformBounds(transform, rectangle.getLeft(), rectangle.getTop(), rectangle.getRight(), rectangle.getBottom());
+            addOp(DisplayList.OP_TEXT, start, argument, state, 0);
+        }
+    }
+
+    @Override
+    public float measureText(CharSequence text, int start, int end) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        return measurer == null ? 0 : measurer().measureText(text, start, end);
+    }
+
+    @Override
+    public float measureText(char[] text, int offset, int length) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        return measurer == null ? 0 : measurer().measureText(text, offset, length);
+    }
+
+    @Override
+    public void getFontMetrics(Font.Metrics metrics) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        if (measurer == null) metrics.reset();
+        else measurer().getFontMetrics(metrics);
+    }
+
+    @Override
+    public void getTextBounds(CharSequence text, int start, int end, Rectangle bounds) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        if (measurer == null) bounds.setRect(0, 0, 0, 0);
+        else measurer().getTextBounds(text, start, end, bounds);
+    }
+
+    @Override
+    public void getTextBounds(char[] text, int offset, int length, Rectangle bounds) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        if (measurer == null) bounds.setRect(0, 0, 0, 0);
+        else measurer().getTextBounds(text, offset, length, bounds);
+    }
+
+    @Override
+    public Info getInfo() {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        return info;
+    }
+
+    @Override
+    public void apply() {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        if (info.getDirtyFields() == 0) return;
+        applied.setInfo(info);
+        info.clearDirty();
+        pending = true;
+    }
+
+    @Override
+    public void save() {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        infoStack.push(info);
+    }
+
+    @Override
+    public void restore() {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        infoStack.pop(info);
+    }
+
+    @Override
+    public void dispose() {
+        if (isDisposed()) return;
+        disposed = true;
+        displayList = null;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private Graphics measurer() {
+        measurer.setInfo(applied);
+        measurer.apply();
+        return measurer;
+    }
+
+    /**
+     * Returns the index of the applied state in the display list, recording it if it
+     * differs from the last recorded one.
+     */
+    private int recordState() {
+        if (state < 0 || (pending && !applied.equals(displayList.getObject(state)))) {
+            state = displayList.addObject(new Info(applied));
+        }
+        pending = false;
+        return state;
+    }
+
+    /**
+     * Returns how far the stroke may extend beyond the outline, in user space.
+     */
+    private float getStrokePadding() {
+        float padding = applied.getStrokeWidth() * 0.5f;
+        float scale = 1;
+        if (applied.getStrokeJoin() == Join.MITER) scale = Math.max(scale, applied.getStrokeMiter());
+        if (applied.getStrokeCap() == Cap.SQUARE) scale = Math.max(scale, 1.4142137f);
+        return padding * scale;
+    }
+
+    /**
+     * Pads {@link #rectangle} in user space, transforms it to device space and appends the draw call.
+     */
+    private void addOp(int code, int start, int argument, int state, float padding) {
+        AffineTransform transform = applied.getTransform();
+        if (transform == null) {
+            rectangle.setRect(rectangle.getX() - padding, rectangle.getY() - padding,
+                    rectangle.getWidth() + padding * 2, rectangle.getHeight() + padding * 2);
+        }
+        else transformBounds(transform, rectangle.getLeft() - padding, rectangle.getTop() - padding,
+                rectangle.getRight() + padding, rectangle.getBottom() + padding);
+        if (!clip(rectangle)) {
+            addEmptyOp(code, start, argument, state);
+            return;
+        }
+        // One more pixel for anti-aliasing and rounding
+        displayList.addOp(code, start, argument, state,
+                rectangle.getLeft() - 1, rectangle.getTop() - 1, rectangle.getRight() + 1, rectangle.getBottom() + 1);
+    }
+
+    /**
+     * Appends a draw call which draws nothing, with empty bounds, so it does not add to the damage.
+     */
+    private void addEmptyOp(int code, int start, int argument, int state) {
+        displayList.addOp(code, start, argument, state, 0, 0, 0, 0);
+    }
+
+    /**
+     * Stores the bounds of the given rectangle transformed by the given transform into {@link #rectangle}.
+     */
+    private void transformBounds(AffineTransform transform, float left, float top, float right, float bottom) {
+        corners[0] = left;
+        corners[1] = top;
+        corners[2] = right;
+        corners[3] = top;
+        corners[4] = right;
+        corners[5] = bottom;
+        corners[6] = left;
+        corners[7] = bottom;
+        transform.transform(corners, 0, corners, 0, 4);
+        float minX = Math.min(Math.min(corners[0], corners[2]), Math.min(corners[4], corners[6]));
+        float minY = Math.min(Math.min(corners[1], corners[3]), Math.min(corners[5], corners[7]));
+        float maxX = Math.max(Math.max(corners[0], corners[2]), Math.max(corners[4], corners[6]));
+        float maxY = Math.max(Math.max(corners[1], corners[3]), Math.max(corners[5], corners[7]));
+        rectangle.setRect(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Intersects {@link #rectangle}, in device space, with the bounds of the applied clip.
+     *
+     * @return false if the rectangle lies entirely outside the clip bounds, true otherwise
+     */
+    private boolean clip(Rectangle bounds) {
+        Shape clip = applied.getClip();
+        if (clip == null) return true;
+        float left = bounds.getLeft(), top = bounds.getTop(), right = bounds.getRight(), bottom = bounds.getBottom();
+        applied.getClipBounds(rectangle);
+        AffineTransform transform = applied.getTransform();
+        if (transform != null) transformBounds(transform, rectangle.getLeft(), rectangle.getTop(), rectangle.getRight(), rectangle.getBottom());
+        float x1 = Math.max(left, rectangle.getLeft());
+        float y1 = Math.max(top, rectangle.getTop());
+        float x2 = Math.min(right, rectangle.getRight());
+        float y2 = Math.min(bottom, rectangle.getBottom());
+        if (x2 < x1 || y2 < y1) return false;
+        bounds.setRect(x1, y1, x2 - x1, y2 - y1);
+        return true;
+    }
+
+}
@@ -0,0 +1,264 @@
+package io.notcute.g2d;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A bounded LRU cache of shaped text, shared by the {@link Graphics}
+ * implementations of a backend. Entries are keyed by the text, the native
+ * font, the text size, the decoration flags, the linear part of the text
+ * transform (translation does not affect shaping) and an optional native
+ * context, e.g. the font render context or device. The values are
+ * backend-specific, e.g. laid out glyphs and their metrics.
+ * <p>
+ * Looking up an entry does not allocate; only a miss copies the text into
+ * a new key. The cache is thread-safe.
+ *
+ * @param <V> the type of cached values
+ */
+public class TextLayoutCache<V> {
+
+    /**
+     * The constants of decoration flags, combined using a bitwise OR.
+     */
+    public static final class Decoration {
+        private Decoration() {
+            throw new UnsupportedOperationException();
+        }
+        public static final int UNDERLINE = 1;
+        public static final int STRIKE_THROUGH = 1 << 1;
+        public static final int ANTI_ALIAS = 1 << 2;
+        public static final int SUBPIXEL = 1 << 3;
+    }
+
+    private static final class Key {
+
+        private CharSequence text;
+        private int start;
+        private int end;
+        private Object font;
+        private float size;
+        private int decoration;
+        private float m00, m10, m01, m11;
+        private Object context;
+        private int hash;
+
+        private Key set(CharSequence text, int start, int end, Object font, float size, int decoration,
+                        AffineTransform transform, Object context) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.font = font;
+            this.size = size;
+            this.decoration = decoration;
+            if (transform == null) {
+                m00 = m11 = 1;
+                m10 = m01 = 0;
+            }
+            else {
+                m00 = transform.getScaleX();
+                m10 = transform.getShearY();
+                m01 = transform.getShearX();
+                m11 = transform.getScaleY();
+            }
+            this.context = context;
+            int result = 1;
+            for (int i = start; i < end; i ++) {
+                result = 31 * result + text.charAt(i);
+            }
+            result = 31 * result + Objects.hashCode(font);
+            result = 31 * result + Float.floatToIntBits(size);
+            result = 31 * result + decoration;
+            result = 31 * result + Float.floatToIntBits(m00);
+            result = 31 * result + Float.floatToIntBits(m10);
+            result = 31 * result + Float.floatToIntBits(m01);
+            result = 31 * result + Float.floatToIntBits(m11);
+            result = 31 * result + Objects.hashCode(context);
+            hash = result;
+            return this;
+        }
+
+        private Key copy() {
+            Key key = new Key();
+            key.text = text.subSequence(start, end).toString();
+            key.start = 0;
+            key.end = end - start;
+            key.font = font;
+            key.size = size;
+            key.decoration = decoration;
+            key.m00 = m00;
+            key.m10 = m10;
+            key.m01 = m01;
+            key.m11 = m11;
+            key.context = context;
+            key.hash = hash;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (hash != key.hash) return false;
+            if (end - start != key.end - key.start) return false;
+            if (Float.compare(key.size, size) != 0) return false;
+            if (decoration != key.decoration) return false;
+            if (Float.compare(key.m00, m00) != 0) return false;
+            if (Float.compare(key.m10, m10) != 0) return false;
+            if (Float.compare(key.m01, m01) != 0) return false;
+            if (Float.compare(key.m11, m11) != 0) return false;
+            if (!Objects.equals(font, key.font)) return false;
+            if (!Objects.equals(context, key.context)) return false;
+            for (int i = start, j = key.start; i < end; i ++, j ++) {
+                if (text.charAt(i) != key.text.charAt(j)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final int capacity;
+    private final Consumer<? super V> disposer;
+    private final Key probe = new Key();
+    private final LinkedHashMap<Key, V> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public TextLayoutCache() {
+        this(DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param capacity the maximum number of entries
+     * @param disposer called with evicted and cleared values, e.g. to release native resources; may be {@code null}
+     * @throws IllegalArgumentException if {@code capacity} is less than 1
+     */
+    public TextLayoutCache(int capacity, Consumer<? super V> disposer) {
+        if (capacity < 1) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        this.capacity = capacity;
+        this.disposer = disposer;
+        entries = new LinkedHashMap<Key, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                if (size() <= TextLayoutCache.this.capacity) return false;
+                evictions ++;
+                if (TextLayoutCache.this.disposer != null) TextLayoutCache.this.disposer.accept(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value of the given text and attributes.
+     *
+     * @param text the text
+     * @param start the start index of the text
+     * @param end the end index of the text, exclusive
+     * @param font the native font
+     * @param size the text size
+     * @param decoration the combination of {@link Decoration} flags
+     * @param transform the text transform, only its linear part is used; {@code null} for identity
+     * @param context an optional native context which affects shaping, may be {@code null}
+     * @return the cached value, {@code null} on a miss
+     */
+    public synchronized V get(CharSequence text, int start, int end, Object font, float size, int decoration,
+                              AffineTransform transform, Object context) {
+        V value = entries.get(probe.set(text, start, end, font, size, decoration, transform, context));
+        clearProbe();
+        if (value == null) misses ++;
+        else hits ++;
+        return value;
+    }
+
+    /**
+     * Caches the given value of the given text and attributes, usually after a miss of
+     * {@link #get(CharSequence, int, int, Object, float, int, AffineTransform, Object)}.
+     * The least recently used entry is evicted if the cache is full.
+     *
+     * @param text the text, copied
+     * @param start the start index of the text
+     * @param end the end index of the text, exclusive
+     * @param font the native font
+     * @param size the text size
+     * @param decoration the combination of {@link Decoration} flags
+     * @param transform the text transform, only its linear part is used; {@code null} for identity
+     * @param context an optional native context which affects shaping, may be {@code null}
+     * @param value the value to cache
+     */
+    public synchronized void put(CharSequence text, int start, int end, Object font, float size, int decoration,
+                                 AffineTransform transform, Object context, V value) {
+        Objects.requireNonNull(value);
+        V previous = entries.put(probe.set(text, start, end, font, size, decoration, transform, context).copy(), value);
+        clearProbe();
+        if (previous != null && previous != value && disposer != null) disposer.accept(previous);
+    }
+
+    private void clearProbe() {
+        probe.text = null;
+        probe.font = null;
+        probe.context = null;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the ratio of hits to lookups.
+     *
+     * @return the hit rate between 0 and 1, 0 if nothing has been looked up
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public synchronized void clear() {
+        if (disposer != null) {
+            for (Iterator<V> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+                disposer.accept(iterator.next());
+            }
+        }
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+}
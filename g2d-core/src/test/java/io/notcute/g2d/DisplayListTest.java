@@ -0,0 +1,92 @@
+package io.notcute.g2d;
+
+import io.notcute.g2d.geom.PathIterator;
+import io.notcute.g2d.geom.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisplayListTest {
+
+    private static final int WIDTH = 100, HEIGHT = 100;
+
+    /**
+     * A path without segments.
+     */
+    private static final PathIterator EMPTY_PATH = new PathIterator() {
+        @Override
+        public int getWindingRule() {
+            return WindingRule.NON_ZERO;
+        }
+        @Override
+        public boolean hasNext() {
+            return false;
+        }
+        @Override
+        public void next() {
+        }
+        @Override
+        public int currentSegment(float[] coords) {
+            throw new IllegalStateException();
+        }
+    };
+
+    private static void fill(RecordingGraphics graphics, int color, float x, float y) {
+        graphics.getInfo().setColor(color);
+        graphics.getInfo().setStyle(Graphics.Style.FILL);
+        graphics.apply();
+        graphics.drawShape(new Rectangle(x, y, 10, 10));
+    }
+
+    /**
+     * Records three filled rectangles, the second with the given color.
+     */
+    private static DisplayList record(int color) {
+        RecordingGraphics graphics = new RecordingGraphics(WIDTH, HEIGHT, null);
+        fill(graphics, Color.RED, 10, 10);
+        fill(graphics, color, 50, 50);
+        fill(graphics, Color.RED, 80, 10);
+        return graphics.finish();
+    }
+
+    @Test
+    public void changedDrawCallDamagesItsBounds() {
+        DisplayList previous = record(Color.RED);
+        DisplayList current = record(Color.BLUE);
+        assertTrue(record(Color.RED).contentEquals(previous));
+
+        Rectangle damage = new Rectangle();
+        assertTrue(current.diff(previous, damage));
+        // The rectangle, one more pixel for anti-aliasing on each side
+        assertEquals(new Rectangle(49, 49, 12, 12), damage);
+
+        assertFalse(record(Color.BLUE).diff(current, damage));
+        assertTrue(damage.isEmpty());
+    }
+
+    @Test
+    public void drawCallsWhichDrawNothingDoNotDamage() {
+        DisplayList[] lists = new DisplayList[2];
+        for (int i = 0; i < lists.length; i ++) {
+            RecordingGraphics graphics = new RecordingGraphics(WIDTH, HEIGHT, null);
+            int color = i == 0 ? Color.RED : Color.BLUE;
+            fill(graphics, color, -50, -50);
+            fill(graphics, color, WIDTH + 20, 20);
+            graphics.drawPathIterator(EMPTY_PATH);
+            graphics.getInfo().setClip(new Rectangle(0, 0, 20, 20));
+            fill(graphics, color, 50, 50);
+            graphics.getInfo().setClip(null);
+            fill(graphics, i == 0 ? Color.RED : Color.GREEN, 30, 30);
+            lists[i] = graphics.finish();
+        }
+        Rectangle bounds = new Rectangle();
+        lists[0].getBounds(bounds);
+        assertEquals(new Rectangle(29, 29, 12, 12), bounds);
+
+        Rectangle damage = new Rectangle();
+        assertTrue(lists[1].diff(lists[0], damage));
+        // No point at the surface edge or the clip is added
+        assertEquals(new Rectangle(29, 29, 12, 12), damage);
+    }
+
+}
@@ -0,0 +1,54 @@
+package io.notcute.g2d;
+
+import io.notcute.g2d.geom.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphicsInfoTest {
+
+    @Test
+    public void cloneDoesNotShareClipAndTransform() {
+        Graphics.Info info = new Graphics.Info();
+        info.setClip(new Rectangle(0, 0, 10, 10));
+        info.setTransform(AffineTransform.getTranslateInstance(1, 2));
+        Graphics.Info clone = info.clone();
+        assertNotSame(info.getClip(), clone.getClip());
+        assertNotSame(info.getTransform(), clone.getTransform());
+
+        ((Rectangle) info.getClip()).setRect(5, 5, 20, 20);
+        info.getTransform().setToTranslation(7, 8);
+        assertEquals(new Rectangle(0, 0, 10, 10), clone.getClip());
+        assertEquals(AffineTransform.getTranslateInstance(1, 2), clone.getTransform());
+    }
+
+    @Test
+    public void settingEqualValuesDoesNotMarkDirty() {
+        Graphics.Info info = new Graphics.Info();
+        info.setClip(new Rectangle(0, 0, 10, 10));
+        info.setTransform(AffineTransform.getTranslateInstance(1, 2));
+        info.clearDirty();
+        info.setClip(new Rectangle(0, 0, 10, 10));
+        info.setTransform(AffineTransform.getTranslateInstance(1, 2));
+        info.setColor(info.getColor());
+        assertEquals(0, info.getDirtyFields());
+    }
+
+    @Test
+    public void settingOwnObjectAgainMarksDirty() {
+        Graphics.Info info = new Graphics.Info();
+        info.setClip(new Rectangle(0, 0, 10, 10));
+        info.setTransform(AffineTransform.getTranslateInstance(1, 2));
+        info.clearDirty();
+
+        info.getTransform().setToTranslation(3, 4);
+        info.setTransform(info.getTransform());
+        assertEquals(Graphics.Info.Field.TRANSFORM, info.getDirtyFields());
+
+        info.clearDirty();
+        ((Rectangle) info.getClip()).setRect(1, 1, 5, 5);
+        info.setClip(info.getClip());
+        assertEquals(Graphics.Info.Field.CLIP, info.getDirtyFields());
+    }
+
+}
@@ -4,10 +4,14 @@ import io.notcute.g2d.AffineTransform;
 import io.notcute.g2d.Font;
 import io.notcute.g2d.Graphics;
 import io.notcute.g2d.Image;
+import io.notcute.g2d.TextLayoutCache;
 import io.notcute.g2d.geom.Line;
 import io.notcute.g2d.geom.PathIterator;
 import io.notcute.g2d.geom.Rectangle;
+import io.notcute.g2d.geom.Shape;
 import io.notcute.internal.swt.SWTG2DUtils;
+import io.notcute.internal.swt.SWTPathCache;
+import io.notcute.internal.swt.SWTTextLayout;
 import io.notcute.util.AlreadyDisposedException;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.*;
@@ -17,12 +21,18 @@ import static io.notcute.g2d.Color.intGreen;
 import static io.notcute.g2d.Color.intBlue;
 import static io.notcute.g2d.Color.intAlpha;
 
+import java.nio.CharBuffer;
 import java.util.Objects;
 
 public class SWTGraphics implements Graphics {
 
+    private static final SWTPathCache PATH_CACHE = new SWTPathCache();
+
+    private static final TextLayoutCache<SWTTextLayout> TEXT_LAYOUT_CACHE =
+            new TextLayoutCache<>(TextLayoutCache.DEFAULT_CAPACITY, SWTTextLayout::dispose);
+
     private final Info info;
-    private final Info cacheInfo;
+    private final InfoStack infoStack;
 
     private final GC gc;
     private final int width, height;
@@ -32,7 +42,7 @@ public class SWTGraphics implements Graphics {
         this.width = width;
         this.height = height;
         info = new Info();
-        cacheInfo = new Info();
+        infoStack = new InfoStack();
         apply();
     }
 
@@ -85,10 +95,8 @@ public class SWTGraphics implements Graphics {
         at.concatenate(transform);
         Transform tmpTransform = SWTG2DUtils.toSWTTransform(device, at);
         gc.setTransform(tmpTransform);
-        org.eclipse.swt.graphics.Image tmpImage = new org.eclipse.swt.graphics.Image(device, ((SWTImage) image).getImageData());
-        gc.drawImage(tmpImage, 0, 0);
+        gc.drawImage(((SWTImage) image).getNativeImage(device), 0, 0);
         gc.setTransform(originalTransform);
-        tmpImage.dispose();
         if (tmpTransform != null) tmpTransform.dispose();
         originalTransform.dispose();
     }
@@ -99,6 +107,16 @@ public class SWTGraphics implements Graphics {
         drawPathIterator(new Line(x, y, x, y).getPathIterator());
     }
 
+    @Override
+    public void drawShape(Shape shape) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        SWTPathCache.Entry entry = PATH_CACHE.get(gc.getDevice(), shape);
+        int original = gc.getFillRule();
+        gc.setFillRule(SWTG2DUtils.toSWTGCFillRule(entry.getWindingRule()));
+        gc.drawPath(entry.getPath());
+        gc.setFillRule(original);
+    }
+
     @Override
     public void drawPathIterator(PathIterator iterator) {
         if (isDisposed()) throw new AlreadyDisposedException();
@@ -122,11 +140,8 @@ public class SWTGraphics implements Graphics {
         at.concatenate(transform);
         Transform tmpTransform = SWTG2DUtils.toSWTTransform(device, at);
         gc.setTransform(tmpTransform);
-        Path path = new Path(device);
-        path.addString(text.subSequence(start, end).toString(), 0, 0, gc.getFont());
-        gc.drawPath(path);
+        gc.drawPath(getTextLayout(text, start, end).getPath(device, gc.getFont()));
         gc.setTransform(originalTransform);
-        path.dispose();
         if (tmpTransform != null) tmpTransform.dispose();
         originalTransform.dispose();
     }
@@ -134,19 +149,41 @@ public class SWTGraphics implements Graphics {
     @Override
     public void drawText(char[] text, int offset, int length, AffineTransform transform) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        drawText(new String(text, offset, length), 0, length - offset, transform);
+        drawText(CharBuffer.wrap(text, offset, length), 0, length, transform);
+    }
+
+    /**
+     * Returns the shared text layout cache of all {@link SWTGraphics}, e.g. to query its hit rate.
+     *
+     * @return the text layout cache
+     */
+    public static TextLayoutCache<SWTTextLayout> getTextLayoutCache() {
+        return TEXT_LAYOUT_CACHE;
+    }
+
+    private SWTTextLayout getTextLayout(CharSequence text, int start, int end) {
+        // The native font is recreated by every apply(), so key on its font data instead
+        SWTFont swtFont = (SWTFont) info.getFont();
+        FontData font = swtFont == null ? null : swtFont.getFontData();
+        Device device = gc.getDevice();
+        SWTTextLayout textLayout = TEXT_LAYOUT_CACHE.get(text, start, end, font, info.getTextSize(), 0, null, device);
+        if (textLayout == null) {
+            textLayout = new SWTTextLayout(text.subSequence(start, end).toString());
+            TEXT_LAYOUT_CACHE.put(text, start, end, font, info.getTextSize(), 0, null, device, textLayout);
+        }
+        return textLayout;
     }
 
     @Override
     public float measureText(CharSequence text, int start, int end) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        return gc.stringExtent(text.subSequence(start, end).toString()).x;
+        return getTextLayout(text, start, end).getExtent(gc).x;
     }
 
     @Override
     public float measureText(char[] text, int offset, int length) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        return measureText(new String(text, offset, length));
+        return measureText(CharBuffer.wrap(text, offset, length), 0, length);
     }
 
     @Override
@@ -160,14 +197,14 @@ public class SWTGraphics implements Graphics {
     @Override
     public void getTextBounds(CharSequence text, int start, int end, Rectangle bounds) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        Point point = gc.stringExtent(text.subSequence(start, end).toString());
+        Point point = getTextLayout(text, start, end).getExtent(gc);
         bounds.setRect(0, 0, point.x, point.y);
     }
 
     @Override
     public void getTextBounds(char[] text, int offset, int length, Rectangle bounds) {
         if (isDisposed()) throw new AlreadyDisposedException();
-        getTextBounds(new String(text, offset, length), bounds);
+        getTextBounds(CharBuffer.wrap(text, offset, length), 0, length, bounds);
     }
 
     @Override
@@ -214,13 +251,13 @@ public class SWTGraphics implements Graphics {
     @Override
     public void save() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        info.to(cacheInfo);
+        infoStack.push(info);
     }
 
     @Override
     public void restore() {
         if (isDisposed()) throw new AlreadyDisposedException();
-        info.from(cacheInfo);
+        infoStack.pop(info);
     }
 
 }
@@ -3,6 +3,7 @@ package io.notcute.g2d.swt;
 import io.notcute.g2d.Graphics;
 import io.notcute.internal.swt.SWTG2DUtils;
 import io.notcute.util.AlreadyDisposedException;
+import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.ImageData;
 
 import java.util.Objects;
@@ -11,6 +12,14 @@ public class SWTImage implements io.notcute.g2d.Image {
 
     private volatile ImageData imageData;
     private volatile boolean disposed = false;
+
+    /**
+     * The native image created from {@link #imageData}, {@code null} until needed.
+     * It is invalidated only by {@link #setPixel(int, int, int)} and
+     * {@link #setPixels(int[], int, int, int, int, int, int)}.
+     */
+    private org.eclipse.swt.graphics.Image nativeImage = null;
+
     public SWTImage(ImageData imageData) {
         this.imageData = Objects.requireNonNull(imageData);
         if (imageData.depth < 24) throw new IllegalArgumentException("imageData's depth should >= 24");
@@ -21,11 +30,34 @@ public class SWTImage implements io.notcute.g2d.Image {
         return imageData;
     }
 
+    /**
+     * Returns the native image of this image on the given device, creating it if
+     * it does not exist yet or the pixels have been modified since.
+     * The returned image is owned by this image and must not be disposed.
+     *
+     * @param device the device to draw on
+     * @return the native image
+     */
+    public synchronized org.eclipse.swt.graphics.Image getNativeImage(Device device) {
+        if (isDisposed()) throw new AlreadyDisposedException();
+        if (nativeImage != null && (nativeImage.isDisposed() || nativeImage.getDevice() != device)) invalidate();
+        if (nativeImage == null) nativeImage = new org.eclipse.swt.graphics.Image(device, imageData);
+        return nativeImage;
+    }
+
+    private synchronized void invalidate() {
+        if (nativeImage != null) {
+            if (!nativeImage.isDisposed()) nativeImage.dispose();
+            nativeImage = null;
+        }
+    }
+
     @Override
     public Object clone() {
         try {
             SWTImage clone = (SWTImage) super.clone();
             clone.imageData = (ImageData) imageData.clone();
+            clone.nativeImage = null;
             return clone;
         }
         catch (CloneNotSupportedException e) {
@@ -42,6 +74,7 @@ public class SWTImage implements io.notcute.g2d.Image {
     public void dispose() {
         if (isDisposed()) return;
         disposed = true;
+        invalidate();
         imageData = null;
     }
 
@@ -73,6 +106,7 @@ public class SWTImage implements io.notcute.g2d.Image {
     public void setPixel(int x, int y, int color) {
         if (isDisposed()) throw new AlreadyDisposedException();
         imageData.setPixel(x, y, color);
+        invalidate();
     }
 
     @Override
@@ -85,6 +119,7 @@ public class SWTImage implements io.notcute.g2d.Image {
     public void setPixels(int[] pixels, int offset, int stride, int x, int y, int width, int height) {
         if (isDisposed()) throw new AlreadyDisposedException();
         SWTG2DUtils.setPixels(imageData, x, y, width * height, pixels, offset, stride);
+        invalidate();
     }
 
     @Override
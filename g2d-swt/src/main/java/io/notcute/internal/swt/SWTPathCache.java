@@ -0,0 +1,101 @@
+package io.notcute.internal.swt;
+
+import io.notcute.g2d.geom.PathIterator;
+import io.notcute.g2d.geom.Shape;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Path;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of native {@link Path}s, keyed by the value of the
+ * shapes they were converted from. Evicted paths are disposed. The cache
+ * is thread-safe, but the returned paths must only be used until the next
+ * call of {@link #get(Device, Shape)}.
+ */
+public final class SWTPathCache {
+
+    /**
+     * A native path and the winding rule of its shape.
+     */
+    public static final class Entry {
+
+        private final Path path;
+        private final int windingRule;
+
+        private Entry(Path path, int windingRule) {
+            this.path = path;
+            this.windingRule = windingRule;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public int getWindingRule() {
+            return windingRule;
+        }
+
+    }
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final LinkedHashMap<Shape, Entry> entries;
+
+    public SWTPathCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SWTPathCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        this.capacity = capacity;
+        entries = new LinkedHashMap<Shape, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Shape, Entry> eldest) {
+                if (size() <= SWTPathCache.this.capacity) return false;
+                eldest.getValue().path.dispose();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the native path of the given shape, converting and caching it on a miss.
+     *
+     * @param device the device of the path
+     * @param shape the shape, copied on a miss
+     * @return the cached native path
+     */
+    public synchronized Entry get(Device device, Shape shape) {
+        Entry entry = entries.get(shape);
+        if (entry != null && (entry.path.isDisposed() || entry.path.getDevice() != device)) {
+            entries.remove(shape);
+            if (!entry.path.isDisposed()) entry.path.dispose();
+            entry = null;
+        }
+        if (entry == null) {
+            PathIterator iterator = shape.getPathIterator();
+            int windingRule = iterator.getWindingRule();
+            entry = new Entry(SWTG2DUtils.toSWTPath(device, iterator), windingRule);
+            entries.put((Shape) shape.clone(), entry);
+        }
+        return entry;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Disposes all cached paths.
+     */
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            if (!entry.path.isDisposed()) entry.path.dispose();
+        }
+        entries.clear();
+    }
+
+}
@@ -0,0 +1,42 @@
+package io.notcute.internal.swt;
+
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Path;
+import org.eclipse.swt.graphics.Point;
+
+/**
+ * A cached text entry of {@link io.notcute.g2d.swt.SWTGraphics}. The native
+ * glyph path and the extent are created on demand; the path is disposed
+ * when the entry is evicted.
+ */
+public final class SWTTextLayout {
+
+    private final String text;
+    private Path path;
+    private Point extent;
+
+    public SWTTextLayout(String text) {
+        this.text = text;
+    }
+
+    public synchronized Path getPath(Device device, Font font) {
+        if (path == null || path.isDisposed()) {
+            path = new Path(device);
+            path.addString(text, 0, 0, font);
+        }
+        return path;
+    }
+
+    public synchronized Point getExtent(GC gc) {
+        if (extent == null) extent = gc.stringExtent(text);
+        return extent;
+    }
+
+    public synchronized void dispose() {
+        if (path != null && !path.isDisposed()) path.dispose();
+        path = null;
+    }
+
+}
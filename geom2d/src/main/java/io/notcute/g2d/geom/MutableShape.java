@@ -0,0 +1,17 @@
+package io.notcute.g2d.geom;
+
+/**
+ * A {@link Shape} which can be modified in place. Every modification increments
+ * its modification count, so data derived from an instance, e.g. a converted
+ * native path, can be cached and invalidated once the count changes.
+ */
+public interface MutableShape extends Shape {
+
+    /**
+     * Returns the number of modifications of this shape.
+     *
+     * @return the modification count
+     */
+    int getModCount();
+
+}
@@ -28,7 +28,7 @@ import java.util.Objects;
 import static io.notcute.g2d.geom.PathIterator.SegmentType.*;
 import static io.notcute.g2d.geom.PathIterator.WindingRule.EVEN_ODD;
 
-public class Polygon implements Shape, Resetable, SwapCloneable {
+public class Polygon implements MutableShape, Resetable, SwapCloneable {
 
 	/**
      * the coordinates array of the shape vertices
@@ -65,6 +65,8 @@ public class Polygon implements Shape, Resetable, SwapCloneable {
 	 */
 	private boolean isPolygonal = true;
 
+	private int modCount = 0;
+
 	public Polygon() {
 	}
 
@@ -219,6 +221,11 @@ public class Polygon implements Shape, Resetable, SwapCloneable {
                (coords[0] == coords[6]) && (coords[2] == coords[4]);
     }
 
+	@Override
+	public int getModCount() {
+		return modCount;
+	}
+
 	public boolean isSingular() {
 		return (moveToCount <= 1);
 	}
@@ -227,6 +234,7 @@ public class Polygon implements Shape, Resetable, SwapCloneable {
 	public void reset() {
 		coordsSize = 0;
 		rulesSize = 0;
+		modCount ++;
 	}
 
 	public void transform(AffineTransform t) {
@@ -255,6 +263,7 @@ public class Polygon implements Shape, Resetable, SwapCloneable {
 	}
 
 	public void add(Polygon polygon) {
+		modCount ++;
     	if (polygon == null || polygon.isEmpty()) {
     	    return;
     	} else if (isEmpty()) {
@@ -274,6 +283,7 @@ public class Polygon implements Shape, Resetable, SwapCloneable {
 	}
 	   
 	public void intersect(Polygon polygon) {
+		modCount ++;
 		if (polygon == null) {
 		    return;
 		} else if (isEmpty() || polygon.isEmpty()) {
@@ -293,6 +303,7 @@ public class Polygon implements Shape, Resetable, SwapCloneable {
 	}
 	
 	public void subtract(Polygon polygon) {
+		modCount ++;
 		if (polygon == null || isEmpty() || polygon.isEmpty()) {
 		    return;
 		}
@@ -1207,6 +1218,7 @@ public class Polygon implements Shape, Resetable, SwapCloneable {
 	}
 
 	private static void copy(Polygon src, Polygon dst) {
+		dst.modCount ++;
 		dst.coordsSize = src.coordsSize;
 		dst.coords = src.coords.clone();
 		dst.rulesSize = src.rulesSize;
@@ -33,7 +33,7 @@ import static io.notcute.g2d.geom.PathIterator.SegmentType.*;
 import static io.notcute.g2d.geom.PathIterator.WindingRule.EVEN_ODD;
 import static io.notcute.g2d.geom.PathIterator.WindingRule.NON_ZERO;
 
-public class Polyline implements Shape, Resetable, SwapCloneable {
+public class Polyline implements MutableShape, Resetable, SwapCloneable {
 
     /**
      * The buffers size
@@ -70,6 +70,8 @@ public class Polyline implements Shape, Resetable, SwapCloneable {
      */
     private int rule;
 
+    private int modCount = 0;
+
     /**
      * The space amount in points buffer for different segmenet's types
      */
@@ -202,12 +204,18 @@ public class Polyline implements Shape, Resetable, SwapCloneable {
             throw new IllegalArgumentException("Invalid winding rule value");
         }
         this.rule = rule;
+        modCount ++;
     }
 
     public int getWindingRule() {
         return rule;
     }
 
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
     /**
      * Checks points and types buffer size to add pointCount points. If necessary realloc buffers to enlarge size.   
      * @param pointCount - the point count to be added in buffer
@@ -216,6 +224,7 @@ public class Polyline implements Shape, Resetable, SwapCloneable {
         if (checkMove && typeSize == 0) {
             throw new IllegalPathStateException("First segment should be MOVE_TO type");
         }
+        modCount ++;
         if (typeSize == types.length) {
             byte[] tmp = new byte[typeSize + BUFFER_CAPACITY];
             System.arraycopy(types, 0, tmp, 0, typeSize);
@@ -232,6 +241,7 @@ public class Polyline implements Shape, Resetable, SwapCloneable {
         if (typeSize > 0 && types[typeSize - 1] == MOVE_TO) {
             points[pointSize - 2] = x;
             points[pointSize - 1] = y;
+            modCount ++;
         } else {
             checkBuf(2, false);
             types[typeSize++] = MOVE_TO;
@@ -335,10 +345,12 @@ public class Polyline implements Shape, Resetable, SwapCloneable {
     public void reset() {
         typeSize = 0;
         pointSize = 0;
+        modCount ++;
     }
 
     public void transform(AffineTransform t) {
         t.transform(points, 0, points, 0, pointSize / 2);
+        modCount ++;
     }
 
     public Shape createTransformedShape(AffineTransform t) {
@@ -30,7 +30,7 @@ import static io.notcute.g2d.geom.PathIterator.SegmentType.*;
 import static io.notcute.g2d.geom.PathIterator.WindingRule.NON_ZERO;
 import static io.notcute.g2d.geom.Rectangle.OutCode.*;
 
-public class Rectangle implements RectangularShape, Resetable, SwapCloneable {
+public class Rectangle implements RectangularShape, MutableShape, Resetable, SwapCloneable {
 
     public static final class OutCode {
         private OutCode() {
@@ -47,9 +47,12 @@ public class Rectangle implements RectangularShape, Resetable, SwapCloneable {
     private float width;
     private float height;
 
+    private int modCount = 0;
+
     @Override
     public void reset() {
         x = y = width = height = 0;
+        modCount ++;
     }
 
     public Rectangle() {
@@ -81,6 +84,7 @@ public class Rectangle implements RectangularShape, Resetable, SwapCloneable {
     @Override
     public void setX(float x) {
         this.x = x;
+        modCount ++;
     }
 
     @Override
@@ -91,6 +95,7 @@ public class Rectangle implements RectangularShape, Resetable, SwapCloneable {
     @Override
     public void setY(float y) {
         this.y = y;
+        modCount ++;
     }
 
     @Override
@@ -101,6 +106,7 @@ public class Rectangle implements RectangularShape, Resetable, SwapCloneable {
     @Override
     public void setWidth(float width) {
         this.width = width;
+        modCount ++;
     }
 
     @Override
@@ -111,6 +117,12 @@ public class Rectangle implements RectangularShape, Resetable, SwapCloneable {
     @Override
     public void setHeight(float height) {
         this.height = height;
+        modCount ++;
+    }
+
+    @Override
+    public int getModCount() {
+        return modCount;
     }
 
     @Override
@@ -273,6 +285,7 @@ public class Rectangle implements RectangularShape, Resetable, SwapCloneable {
         this.y = y;
         this.width = width;
         this.height = height;
+        modCount ++;
     }
 
     public boolean intersectsLine(float x1, float y1, float x2, float y2) {
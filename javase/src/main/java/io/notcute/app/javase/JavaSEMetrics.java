@@ -0,0 +1,89 @@
+package io.notcute.app.javase;
+
+import io.notcute.util.signalslot.MetricsRecorder;
+import io.notcute.util.signalslot.Signal;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+
+/**
+ * Exposes the signal/slot {@link MetricsRecorder} through JMX as
+ * {@code io.notcute:type=SignalMetrics}. Recording is disabled until
+ * {@link #setEnabled(boolean)} is called, locally or from a JMX console.
+ */
+public final class JavaSEMetrics implements JavaSEMetricsMBean {
+
+    public static final String OBJECT_NAME = "io.notcute:type=SignalMetrics";
+
+    private static volatile JavaSEMetrics instance = null;
+
+    /**
+     * Returns the shared instance, registering it to the platform MBean server on first use.
+     *
+     * @return the shared instance
+     */
+    public static synchronized JavaSEMetrics getInstance() {
+        if (instance == null) {
+            instance = new JavaSEMetrics();
+            try {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                server.registerMBean(instance, new ObjectName(OBJECT_NAME));
+            }
+            catch (InstanceAlreadyExistsException ignored) {
+            }
+            catch (JMException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return instance;
+    }
+
+    private final MetricsRecorder recorder = new MetricsRecorder();
+
+    private JavaSEMetrics() {
+    }
+
+    public MetricsRecorder getRecorder() {
+        return recorder;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return Signal.getMetrics() == recorder;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (enabled) Signal.setMetrics(recorder);
+        else if (isEnabled()) Signal.setMetrics(null);
+    }
+
+    @Override
+    public String[] getSignals() {
+        return toStrings(recorder.getSignalStatistics());
+    }
+
+    @Override
+    public String[] getDispatchers() {
+        return toStrings(recorder.getDispatcherStatistics());
+    }
+
+    @Override
+    public void reset() {
+        recorder.reset();
+    }
+
+    private static String[] toStrings(Collection<?> statistics) {
+        final String[] strings = new String[statistics.size()];
+        int i = 0;
+        for (Object statistic : statistics) {
+            strings[i ++] = statistic.toString();
+        }
+        return strings;
+    }
+
+}
@@ -0,0 +1,18 @@
+package io.notcute.app.javase;
+
+/**
+ * The JMX management interface of {@link JavaSEMetrics}.
+ */
+public interface JavaSEMetricsMBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    String[] getSignals();
+
+    String[] getDispatchers();
+
+    void reset();
+
+}
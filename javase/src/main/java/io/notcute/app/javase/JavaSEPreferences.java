@@ -1,7 +1,7 @@
 package io.notcute.app.javase;
 
 import io.notcute.app.Preferences;
-import io.notcute.util.signalslot.SimpleDispatcher;
+import io.notcute.util.signalslot.VirtualThreadDispatcher;
 import io.notcute.util.signalslot.VoidSignal0;
 
 import java.io.File;
@@ -28,10 +28,7 @@ public class JavaSEPreferences implements Preferences {
     private final ReentrantLock fileLock;
     private final VoidSignal0 onApply;
 
-    private static final SimpleDispatcher DISPATCHER = new SimpleDispatcher("JavaSE-Prefs");
-    static {
-        DISPATCHER.start();
-    }
+    private static final VirtualThreadDispatcher DISPATCHER = new VirtualThreadDispatcher("JavaSE-Prefs");
 
     public JavaSEPreferences(File file) {
         Objects.requireNonNull(file);
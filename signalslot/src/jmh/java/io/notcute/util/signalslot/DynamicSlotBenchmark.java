@@ -0,0 +1,79 @@
+package io.notcute.util.signalslot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emits to a {@link DynamicVoidSlot} compared to a functional slot of the same target
+ * method, for a fixed and a varargs parameter list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicSlotBenchmark {
+
+    public static class Target {
+        private int sum;
+        public void onValue(Integer value) {
+            sum += value;
+        }
+        public void onValues(Integer... values) {
+            for (Integer value : values) {
+                sum += value;
+            }
+        }
+    }
+
+    private final Target target = new Target();
+    private final VoidSignal1<Integer> dynamicSignal = new VoidSignal1<>();
+    private final VoidSignal1<Integer> lambdaSignal = new VoidSignal1<>();
+    private final DynamicVoidSignal dynamicVarargsSignal = new DynamicVoidSignal();
+    private final VoidSignal2<Integer, Integer> lambdaVarargsSignal = new VoidSignal2<>();
+    private final Integer a = 1, b = 2;
+
+    @Setup
+    public void setup() {
+        dynamicSignal.connect(new DynamicVoidSlot(target, "onValue", Integer.class));
+        lambdaSignal.connect(target::onValue);
+        dynamicVarargsSignal.connect(new DynamicVoidSlot(target, "onValues", Integer[].class));
+        lambdaVarargsSignal.connect(target::onValues);
+    }
+
+    @Benchmark
+    public int dynamic() {
+        dynamicSignal.emit(a);
+        return target.sum;
+    }
+
+    @Benchmark
+    public int lambda() {
+        lambdaSignal.emit(a);
+        return target.sum;
+    }
+
+    @Benchmark
+    public int dynamicVarargs() {
+        dynamicVarargsSignal.emit(a, b);
+        return target.sum;
+    }
+
+    @Benchmark
+    public int lambdaVarargs() {
+        lambdaVarargsSignal.emit(a, b);
+        return target.sum;
+    }
+
+}
@@ -0,0 +1,58 @@
+package io.notcute.util.signalslot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Direct emits to 1, 8 and 64 connected slots, i.e. the iteration over the
+ * connection array. Run with {@code -prof gc} to check the emits do not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignalEmitBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int slots;
+
+    private final VoidSignal1<Integer> signal = new VoidSignal1<>();
+    private final VoidSignalObjIntInt<Object> objIntIntSignal = new VoidSignalObjIntInt<>();
+    private final Integer value = 42;
+    private final Object sender = new Object();
+    private int sum;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < slots; i ++) {
+            signal.connect(a -> sum += a);
+            objIntIntSignal.connect((object, x, y) -> sum += x + y);
+        }
+    }
+
+    @Benchmark
+    public int emit() {
+        signal.emit(value);
+        return sum;
+    }
+
+    @Benchmark
+    public int emitObjIntInt() {
+        objIntIntSignal.emit(sender, 1, 2);
+        return sum;
+    }
+
+}
@@ -12,63 +12,59 @@ public abstract class AbstractDynamicSlot {
     protected final String methodName;
     protected final Class<?>[] parameterTypes;
 
+    /**
+     * The declared varargs array type if the last parameter is an array, {@code null} otherwise.
+     */
+    private final Class<?> varargsType;
+
+    /**
+     * The resolved target method; queried once on the first invocation.
+     */
+    private volatile Method method;
+
     public AbstractDynamicSlot(final Object obj, final String methodName, final Class<?>... parameterTypes) {
         this.obj = Objects.requireNonNull(obj);
         this.methodName = Objects.requireNonNull(methodName);
         this.parameterTypes = parameterTypes;
+        if (parameterTypes.length > 0 && parameterTypes[parameterTypes.length - 1].isArray())
+            varargsType = parameterTypes[parameterTypes.length - 1];
+        else varargsType = null;
     }
 
     protected Object invoke(final Object... args) throws IllegalConnectionException {
-        final Object obj;
-        final Class<?> clazz;
-        if (this.obj instanceof Class) {
-            obj = null;
-            clazz = (Class<?>) this.obj;
+        final Method method = method();
+        final Object obj = this.obj instanceof Class ? null : this.obj;
+        final Object[] arguments;
+        if (varargsType == null || (parameterTypes.length == args.length && args[args.length - 1].getClass() == varargsType)) {
+            arguments = args;
         }
         else {
-            obj = this.obj;
-            clazz = obj.getClass();
-        }
-        final Object arg;
-        final boolean cast;
-        if (parameterTypes.length > 0 && parameterTypes[parameterTypes.length - 1].isArray()) {
-            final Class<?> argsLastArgClass = args[args.length - 1].getClass();
-            final Class<?> varargsClass = parameterTypes[parameterTypes.length - 1];
-            if (argsLastArgClass == varargsClass && parameterTypes.length == args.length) {
-                cast = true;
-                arg = args;
-            }
-            else {
-                try {
-                    final int varargsLength = args.length - parameterTypes.length + 1;
-                    final Object varargs = Array.newInstance(args[args.length - 1].getClass(), varargsLength);
-                    System.arraycopy(args, args.length - varargsLength, varargs, 0, varargsLength);
-                    final int preLength = args.length - varargsLength;
-                    if (preLength > 0) {
-                        cast = true;
-                        final Object[] objects = new Object[parameterTypes.length];
-                        System.arraycopy(args, 0, objects, 0, preLength);
-                        objects[objects.length - 1] = varargs;
-                        arg = objects;
-                    }
-                    else {
-                        cast = false;
-                        arg = varargs;
+            try {
+                final int varargsLength = args.length - parameterTypes.length + 1;
+                final Object varargs;
+                if (varargsLength == 0) {
+                    varargs = Array.newInstance(varargsType.getComponentType(), 0);
+                }
+                else if (varargsType.getComponentType().isPrimitive()) {
+                    varargs = Array.newInstance(varargsType.getComponentType(), varargsLength);
+                    for (int i = 0; i < varargsLength; i ++) {
+                        Array.set(varargs, i, args[args.length - varargsLength + i]);
                     }
                 }
-                catch (final Exception e) {
-                    throw new IllegalConnectionException(e);
+                else {
+                    varargs = Array.newInstance(args[args.length - 1].getClass(), varargsLength);
+                    System.arraycopy(args, args.length - varargsLength, varargs, 0, varargsLength);
                 }
+                arguments = new Object[parameterTypes.length];
+                System.arraycopy(args, 0, arguments, 0, arguments.length - 1);
+                arguments[arguments.length - 1] = varargs;
+            }
+            catch (final Exception e) {
+                throw new IllegalConnectionException(e);
             }
         }
-        else {
-            cast = true;
-            arg = args;
-        }
-        final Method method = queryMethod(clazz, methodName, parameterTypes);
         try {
-            if (cast) return method.invoke(obj, (Object[]) arg);
-            else return method.invoke(obj, arg);
+            return method.invoke(obj, arguments);
         } catch (final IllegalAccessException e) {
             throw new IllegalConnectionException(e);
         } catch (final InvocationTargetException e) {
@@ -76,6 +72,21 @@ public abstract class AbstractDynamicSlot {
         }
     }
 
+    /**
+     * Returns the target method, querying it on the first call.
+     *
+     * @return the target method
+     * @throws IllegalConnectionException if there is no such method
+     */
+    private Method method() throws IllegalConnectionException {
+        Method method = this.method;
+        if (method == null) {
+            method = queryMethod(obj instanceof Class ? (Class<?>) obj : obj.getClass(), methodName, parameterTypes);
+            this.method = method;
+        }
+        return method;
+    }
+
     private static Method queryMethod(final Class<?> clazz, final String methodName, final Class<?>[] parameterTypes) {
         try {
             return clazz.getMethod(methodName, parameterTypes);
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A boolean signal with no argument.
  */
@@ -12,6 +14,13 @@ public class BooleanSignal0 extends FunctionalBooleanSignal<BooleanSlot0> {
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Boolean> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	protected boolean actuateBoolean(Slot<?> slot, Object... args) {
 		if (slot instanceof DynamicBooleanSlot) return ((DynamicBooleanSlot) slot).accept(args);
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A boolean signal with 1 generic argument.
  *
@@ -14,6 +16,13 @@ public class BooleanSignal1<A> extends FunctionalBooleanSignal<BooleanSlot1<A>>
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Boolean> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected boolean actuateBoolean(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A boolean signal with 2 generic arguments.
  *
@@ -15,6 +17,13 @@ public class BooleanSignal2<A, B> extends FunctionalBooleanSignal<BooleanSlot2<A
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Boolean> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected boolean actuateBoolean(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A boolean signal with 3 generic arguments.
  *
@@ -16,6 +18,13 @@ public class BooleanSignal3<A, B, C> extends FunctionalBooleanSignal<BooleanSlot
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Boolean> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected boolean actuateBoolean(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A boolean signal with 4 generic arguments.
  *
@@ -17,6 +19,13 @@ public class BooleanSignal4<A, B, C, D> extends FunctionalBooleanSignal<BooleanS
 		return super.emit(a, b, c, d);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Boolean> emitAsync(A a, B b, C c, D d) {
+		return super.emitAsync(a, b, c, d);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected boolean actuateBoolean(Slot<?> slot, Object... args) {
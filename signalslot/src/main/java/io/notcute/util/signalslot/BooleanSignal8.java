@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A boolean signal with 8 generic arguments.
  *
@@ -21,6 +23,13 @@ public class BooleanSignal8<A, B, C, D, E, F, G, H> extends FunctionalBooleanSig
 		return super.emit(a, b, c, d, e, f, g, h);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Boolean> emitAsync(A a, B b, C c, D d, E e, F f, G g, H h) {
+		return super.emitAsync(a, b, c, d, e, f, g, h);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected boolean actuateBoolean(Slot<?> slot, Object... args) {
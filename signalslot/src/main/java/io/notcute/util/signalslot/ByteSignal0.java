@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A byte signal with no argument.
  */
@@ -12,6 +14,13 @@ public class ByteSignal0 extends FunctionalByteSignal<ByteSlot0> {
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Byte> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	protected byte actuateByte(Slot<?> slot, Object... args) {
 		if (slot instanceof DynamicByteSlot) return ((DynamicByteSlot) slot).accept(args);
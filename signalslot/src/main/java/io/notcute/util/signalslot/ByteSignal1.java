@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A byte signal with 1 generic argument.
  *
@@ -14,6 +16,13 @@ public class ByteSignal1<A> extends FunctionalByteSignal<ByteSlot1<A>> {
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Byte> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected byte actuateByte(Slot<?> slot, Object... args) {
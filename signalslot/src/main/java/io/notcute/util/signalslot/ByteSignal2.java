@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A byte signal with 2 generic arguments.
  *
@@ -15,6 +17,13 @@ public class ByteSignal2<A, B> extends FunctionalByteSignal<ByteSlot2<A, B>> {
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Byte> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected byte actuateByte(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A byte signal with 3 generic arguments.
  *
@@ -16,6 +18,13 @@ public class ByteSignal3<A, B, C> extends FunctionalByteSignal<ByteSlot3<A, B, C
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Byte> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected byte actuateByte(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A byte signal with 4 generic arguments.
  *
@@ -17,6 +19,13 @@ public class ByteSignal4<A, B, C, D> extends FunctionalByteSignal<ByteSlot4<A, B
 		return super.emit(a, b, c, d);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Byte> emitAsync(A a, B b, C c, D d) {
+		return super.emitAsync(a, b, c, d);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected byte actuateByte(Slot<?> slot, Object... args) {
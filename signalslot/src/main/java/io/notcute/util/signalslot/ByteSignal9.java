@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A byte signal with 9 generic arguments.
  *
@@ -22,6 +24,13 @@ public class ByteSignal9<A, B, C, D, E, F, G, H, I> extends FunctionalByteSignal
 		return super.emit(a, b, c, d, e, f, g, h, i);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Byte> emitAsync(A a, B b, C c, D d, E e, F f, G g, H h, I i) {
+		return super.emitAsync(a, b, c, d, e, f, g, h, i);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected byte actuateByte(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A char signal with no argument.
  */
@@ -12,6 +14,13 @@ public class CharacterSignal0 extends FunctionalCharacterSignal<CharacterSlot0>
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Character> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	protected char actuateCharacter(Slot<?> slot, Object... args) {
 		if (slot instanceof DynamicCharacterSlot) return ((DynamicCharacterSlot) slot).accept(args);
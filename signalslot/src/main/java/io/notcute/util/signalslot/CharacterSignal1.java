@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A char signal with 1 generic argument.
  *
@@ -14,6 +16,13 @@ public class CharacterSignal1<A> extends FunctionalCharacterSignal<CharacterSlot
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Character> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected char actuateCharacter(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A char signal with 2 generic arguments.
  *
@@ -15,6 +17,13 @@ public class CharacterSignal2<A, B> extends FunctionalCharacterSignal<CharacterS
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Character> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected char actuateCharacter(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A char signal with 3 generic arguments.
  *
@@ -16,6 +18,13 @@ public class CharacterSignal3<A, B, C> extends FunctionalCharacterSignal<Charact
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Character> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected char actuateCharacter(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A char signal with 4 generic arguments.
  *
@@ -17,6 +19,13 @@ public class CharacterSignal4<A, B, C, D> extends FunctionalCharacterSignal<Char
 		return super.emit(a, b, c, d);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Character> emitAsync(A a, B b, C c, D d) {
+		return super.emitAsync(a, b, c, d);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected char actuateCharacter(Slot<?> slot, Object... args) {
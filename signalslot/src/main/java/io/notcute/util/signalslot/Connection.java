@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Objects;
 
 public class Connection {
@@ -62,12 +64,75 @@ public class Connection {
          */
         public static final int SINGLE_SHOT = 0x100;
 
+        /**
+         * This is a flag that can be combined with any one of the above connection types, using a bitwise OR.
+         * When {@link Type#COALESCE} is set and the slot is actuated queued, a pending actuation of the connection
+         * which has not been dispatched yet is updated with the newest arguments instead of queueing another one.
+         * This bounds the queue growth of high-frequency signals when the receiver falls behind.
+         * <p></p>
+         * <p><b>
+         * Note: {@link Type#COALESCE} only applies to {@link VoidSlot};
+         * it has no effect on {@link Type#DIRECT} and {@link Type#BLOCKING_QUEUED} actuations.
+         * </b></p>
+         */
+        public static final int COALESCE = 0x200;
+
+        /**
+         * This is a flag that can be combined with any one of the above connection types, using a bitwise OR.
+         * When {@link Type#WEAK} is set, the signal holds the slot weakly, so the connection does not keep the slot,
+         * nor anything the slot refers to, reachable. Once the slot has been garbage collected, the connection is
+         * broken and removed automatically, either when the signal is emitted or when any signal is connected next.
+         * <p></p>
+         * <p><b>
+         * Note: The caller must keep a strong reference to the slot as long as the connection should live,
+         * typically in a field of the receiver, e.g. {@code private final VoidSlot0 onStop = this::stop;}.
+         * A lambda which is only referenced by the connection may be collected right away.
+         * {@link Type#WEAK} connections are never registered as {@link Type#UNIQUE}.
+         * </b></p>
+         */
+        public static final int WEAK = 0x400;
+
+    }
+
+    /**
+     * The queue of weak slot references whose slots have been garbage collected.
+     *
+     * @see Type#WEAK
+     */
+    private static final ReferenceQueue<Slot<?>> QUEUE = new ReferenceQueue<>();
+
+    /**
+     * A weak reference to the slot of a {@link Type#WEAK} connection, which
+     * remembers its connection and signal to remove it once enqueued.
+     */
+    private static final class SlotReference extends WeakReference<Slot<?>> {
+
+        private final Connection connection;
+        private final Signal<?> signal;
+
+        private SlotReference(final Slot<?> slot, final Connection connection, final Signal<?> signal) {
+            super(slot, QUEUE);
+            this.connection = connection;
+            this.signal = signal;
+        }
+
     }
 
     /**
-     * The slot to actuate.
+     * The slot to actuate, {@code null} if the connection is {@link Type#WEAK}.
      */
-    final Slot<?> slot;
+    private final Slot<?> slot;
+
+    /**
+     * The weak reference to the slot to actuate, {@code null} if the connection is not {@link Type#WEAK}.
+     */
+    private final SlotReference reference;
+
+    /**
+     * The hash code of the slot, kept so that it is still available once the slot of a
+     * {@link Type#WEAK} connection has been garbage collected, also in copies.
+     */
+    private final int slotHash;
 
     /**
      * The connection type.
@@ -79,11 +144,28 @@ public class Connection {
      */
     final boolean singleShot;
 
+    /**
+     * Whether the connection is {@link Type#COALESCE}.
+     */
+    final boolean coalesce;
+
+    /**
+     * The last queued actuation of a {@link Type#COALESCE} connection.
+     */
+    volatile Signal<?>.SlotActuation pending;
+
     /**
      * The dispatcher to dispatch the connection.
      */
     final Dispatcher dispatcher;
 
+    /**
+     * The serialized lane of the connection, created on demand by its dispatcher.
+     *
+     * @see VirtualThreadDispatcher
+     */
+    volatile Dispatcher lane;
+
     /**
      * Whether the connection is broken.
      *
@@ -92,27 +174,88 @@ public class Connection {
     private volatile boolean broken;
 
     public Connection(final Connection conn) {
-        this(Objects.requireNonNull(conn).slot, conn.type, conn.dispatcher, conn.singleShot, conn.broken);
+        this(Objects.requireNonNull(conn).slot(), conn.type, conn.dispatcher, conn.singleShot, conn.coalesce,
+                conn.reference == null ? null : conn.reference.signal, conn.isBroken(), conn.slotHash);
     }
 
-    Connection(final Slot<?> s, final int type, final Dispatcher dispatcher, final boolean singleShot) {
-        this(s, type, dispatcher, singleShot, false);
+    Connection(final Slot<?> s, final int type, final Dispatcher dispatcher, final boolean singleShot, final boolean coalesce) {
+        this(s, type, dispatcher, singleShot, coalesce, null, false);
     }
 
-    Connection(final Slot<?> s, final int type, final Dispatcher dispatcher, final boolean singleShot, final boolean broken) {
-        this.slot = Objects.requireNonNull(s);
+    /**
+     * @param signal The signal which holds the slot weakly, {@code null} if the connection is not {@link Type#WEAK}.
+     */
+    Connection(final Slot<?> s, final int type, final Dispatcher dispatcher, final boolean singleShot, final boolean coalesce,
+               final Signal<?> signal, final boolean broken) {
+        this(s, type, dispatcher, singleShot, coalesce, signal, broken, s == null ? 0 : s.hashCode());
+    }
+
+    private Connection(final Slot<?> s, final int type, final Dispatcher dispatcher, final boolean singleShot, final boolean coalesce,
+                       final Signal<?> signal, final boolean broken, final int slotHash) {
+        if (signal == null) {
+            this.slot = Objects.requireNonNull(s);
+            this.reference = null;
+        }
+        else {
+            this.slot = null;
+            this.reference = s == null ? null : new SlotReference(s, this, signal);
+        }
         this.dispatcher = Objects.requireNonNull(dispatcher);
         this.type = type;
         this.singleShot = singleShot;
-        this.broken = broken;
+        this.coalesce = coalesce;
+        this.slotHash = slotHash;
+        this.broken = broken || this.reference == null && s == null;
+    }
+
+    /**
+     * Returns the slot to actuate.
+     *
+     * @return the slot, {@code null} if the connection is {@link Type#WEAK} and the slot has been garbage collected
+     */
+    final Slot<?> slot() {
+        return reference == null ? slot : reference.get();
     }
 
     void setBroken(final boolean broken) {
         this.broken = broken;
     }
 
+    /**
+     * Returns whether the connection is broken, i.e. disconnected, actuated once if
+     * {@link Type#SINGLE_SHOT}, or its slot has been garbage collected if {@link Type#WEAK}.
+     *
+     * @return true if broken, false opposite
+     */
     public boolean isBroken() {
-        return broken;
+        if (broken) return true;
+        else if (reference != null && reference.get() == null) {
+            broken = true;
+            return true;
+        }
+        else return false;
+    }
+
+    /**
+     * Returns whether the connection is {@link Type#WEAK}.
+     *
+     * @return true if weak, false opposite
+     */
+    public boolean isWeak() {
+        return slot == null;
+    }
+
+    /**
+     * Breaks and removes all {@link Type#WEAK} connections whose slots have been
+     * garbage collected since the last call, including those of signals which
+     * are never emitted again.
+     */
+    static void expunge() {
+        SlotReference reference;
+        while ((reference = (SlotReference) QUEUE.poll()) != null) {
+            reference.connection.setBroken(true);
+            reference.signal.prune();
+        }
     }
 
     @Override
@@ -124,16 +267,19 @@ public class Connection {
 
         if (type != that.type) return false;
         if (singleShot != that.singleShot) return false;
+        if (coalesce != that.coalesce) return false;
         if (isBroken() != that.isBroken()) return false;
-        if (!slot.equals(that.slot)) return false;
+        if (isWeak() != that.isWeak()) return false;
+        if (!Objects.equals(slot(), that.slot())) return false;
         return dispatcher.equals(that.dispatcher);
     }
 
     @Override
     public int hashCode() {
-        int result = slot.hashCode();
+        int result = slotHash;
         result = 31 * result + type;
         result = 31 * result + (singleShot ? 1 : 0);
+        result = 31 * result + (coalesce ? 1 : 0);
         result = 31 * result + dispatcher.hashCode();
         result = 31 * result + (isBroken() ? 1 : 0);
         return result;
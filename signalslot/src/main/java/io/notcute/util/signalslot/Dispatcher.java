@@ -4,8 +4,11 @@ import io.notcute.util.signalslot.Signal.SlotActuation;
 
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.notcute.util.signalslot.Connection.Type.*;
 
@@ -37,18 +40,6 @@ public abstract class Dispatcher {
 	 */
 	private final Semaphore semaphore = new Semaphore(0);
 
-	/**
-	 * Is used to block the signalling thread
-	 * if connection type is {@link Connection.Type#BLOCKING_QUEUED}
-	 * until an associated signal has been emitted.
-	 */
-	private final Semaphore blocking = new Semaphore(0);
-
-	/**
-	 * Is used to prevent the deadlock of {@link #blocking}
-	 */
-	private volatile boolean blockingReleased;
-
 	/**
 	 * The queue of slots to actuate. Needs to be thread safe without locking.
 	 */
@@ -61,8 +52,83 @@ public abstract class Dispatcher {
 	 */
 	private final VoidSignal1<RuntimeException> onError = new VoidSignal1<>();
 
+	/**
+	 * The number of pending slots queued while {@link Metrics} were enabled,
+	 * including those of the lanes this dispatcher is the {@link #metricsOwner()} of.
+	 */
+	private final AtomicInteger depth = new AtomicInteger(0);
+
+	/**
+	 * The maximum number of slots actuated by a single call of
+	 * {@link #dispatch()}.
+	 */
+	private volatile int batchSize = 1;
+
 	protected abstract boolean isDispatchThread();
 
+	/**
+	 * Returns the maximum number of slots actuated by a single call of
+	 * {@link #dispatch()}.
+	 *
+	 * @see #setBatchSize(int)
+	 * @return the batch size
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of slots actuated by a single call of
+	 * {@link #dispatch()}. If greater than 1, {@link #dispatch()} drains up
+	 * to {@code batchSize} pending slots per wakeup and calls
+	 * {@link #beforeActuation()} and {@link #afterActuation()} once per batch
+	 * instead of once per slot. The default is 1.
+	 *
+	 * @param batchSize the batch size
+	 * @throws IllegalArgumentException if {@code batchSize} is less than 1
+	 */
+	public void setBatchSize(final int batchSize) throws IllegalArgumentException {
+		if (batchSize < 1) throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the dispatcher which actually queues and actuates the given
+	 * connection. By default, this dispatcher itself.
+	 *
+	 * @see PoolDispatcher
+	 * @param conn The connection.
+	 * @return The dispatcher of the connection.
+	 */
+	Dispatcher laneOf(final Connection conn) {
+		return this;
+	}
+
+	/**
+	 * Returns the dispatcher which the queued slots of this dispatcher are
+	 * counted for by {@link Metrics}. By default, this dispatcher itself;
+	 * lanes created on demand count for the dispatcher which created them,
+	 * so the statistics do not grow with the number of connections.
+	 *
+	 * @see VirtualThreadDispatcher
+	 * @return The dispatcher to report to {@link Metrics}.
+	 */
+	Dispatcher metricsOwner() {
+		return this;
+	}
+
+	/**
+	 * Returns whether the given connection would be actuated immediately in
+	 * the signalling thread, i.e. if it is {@link Connection.Type#DIRECT} or
+	 * {@link Connection.Type#AUTO} and emitted within the dispatch thread.
+	 *
+	 * @param conn The connection to check.
+	 * @return true if the connection is actuated directly, false opposite
+	 */
+	final boolean isDirect(final Connection conn) {
+		return conn.type == DIRECT || (conn.type == AUTO && laneOf(conn).isDispatchThread());
+	}
+
 	/**
 	 * Adds the given {@link SlotActuation} to the event queue. The slot itself
 	 * gets actuated by the next call of {@link #dispatch()}.
@@ -73,32 +139,150 @@ public abstract class Dispatcher {
 	final<R> R actuate(final Signal<R>.SlotActuation slotActuation) {
 		Objects.requireNonNull(slotActuation);
 		final Connection conn = slotActuation.getConnection();
+		final Dispatcher lane = laneOf(conn);
+		if (lane != this) return lane.actuate(slotActuation);
+		final Slot<?> slot = conn.slot();
+		if (slot == null) {
+			// The slot of a WEAK connection has been garbage collected
+			conn.setBroken(true);
+			return null;
+		}
 		int connectionType = conn.type;
 		if (connectionType == AUTO) {
 			if (isDispatchThread()) connectionType = DIRECT;
 			else connectionType = QUEUED;
 		}
-		if (connectionType == QUEUED && !(conn.slot instanceof VoidSlot)) connectionType = BLOCKING_QUEUED;
+		if (connectionType == QUEUED && !(slot instanceof VoidSlot)) connectionType = BLOCKING_QUEUED;
 		if (connectionType == DIRECT) {
 			slotActuation.actuate();
 		}
+		else if (connectionType == BLOCKING_QUEUED) {
+			final CompletableFuture<R> future = slotActuation.future();
+			queue(slotActuation);
+			try {
+				return future.get();
+			} catch (final InterruptedException e) {
+				onError.emit(new RuntimeException(e));
+			} catch (final ExecutionException e) {
+				// Already emitted by dispatch(), or rejected by the event queue
+			}
+		}
 		else {
-			slots.add(slotActuation);
-			if (connectionType == BLOCKING_QUEUED) blockingReleased = false;
-			semaphore.release();
-			if (connectionType == BLOCKING_QUEUED) {
-				if (!blockingReleased) {
-					try {
-						blocking.acquire();
-					} catch (final InterruptedException e) {
-						onError.emit(new RuntimeException(e));
-					}
-				}
+			if (conn.coalesce) {
+				final Signal<?>.SlotActuation pending = conn.pending;
+				if (pending != null && pending.coalesce(slotActuation)) return slotActuation.result();
+				conn.pending = slotActuation;
 			}
+			queue(slotActuation);
 		}
 		return slotActuation.result();
 	}
 
+	/**
+	 * Adds the given {@link SlotActuation} to the event queue without blocking the
+	 * signalling thread, regardless of the slot type. A
+	 * {@link Connection.Type#BLOCKING_QUEUED} connection is treated as
+	 * {@link Connection.Type#QUEUED}.
+	 *
+	 * @param slotActuation The {@link SlotActuation} to add.
+	 * @throws NullPointerException If {@code slotActuation} is {@code null}.
+	 * @return The future which completes with the result of the slot, or
+	 * exceptionally with the {@link RuntimeException} thrown by the slot.
+	 */
+	final<R> CompletableFuture<R> actuateAsync(final Signal<R>.SlotActuation slotActuation) {
+		Objects.requireNonNull(slotActuation);
+		final Connection conn = slotActuation.getConnection();
+		final Dispatcher lane = laneOf(conn);
+		if (lane != this) return lane.actuateAsync(slotActuation);
+		final CompletableFuture<R> future = slotActuation.future();
+		if (isDirect(conn)) {
+			try {
+				slotActuation.actuate();
+			} catch (final RuntimeException e) {
+				// Delivered through the future
+			}
+		}
+		else queue(slotActuation);
+		return future;
+	}
+
+	/**
+	 * Marks the given {@link SlotActuation} as queued, measures it if
+	 * {@link Metrics} are enabled, and adds it to the event queue.
+	 *
+	 * @param slotActuation The {@link SlotActuation} to add.
+	 */
+	private void queue(final Signal<?>.SlotActuation slotActuation) {
+		slotActuation.queued = true;
+		final Metrics metrics = Signal.getMetrics();
+		if (metrics != null) {
+			final Dispatcher owner = metricsOwner();
+			slotActuation.measured = true;
+			slotActuation.queuedAt = System.nanoTime();
+			metrics.queued(owner, slotActuation.getSignal(), owner.depth.incrementAndGet());
+		}
+		enqueue(slotActuation);
+	}
+
+	/**
+	 * Is called when the given {@link SlotActuation} is taken from the event
+	 * queue, either to be actuated or to be discarded.
+	 *
+	 * @param slotActuation The taken {@link SlotActuation}.
+	 * @param actuated Whether the slot is going to be actuated.
+	 */
+	final void dequeued(final Signal<?>.SlotActuation slotActuation, final boolean actuated) {
+		if (slotActuation.measured) {
+			final Dispatcher owner = metricsOwner();
+			final int depth = owner.depth.decrementAndGet();
+			final Metrics metrics = Signal.getMetrics();
+			if (actuated && metrics != null) metrics.dequeued(owner, slotActuation.getSignal(), System.nanoTime() - slotActuation.queuedAt, depth);
+		}
+	}
+
+	/**
+	 * Adds the given {@link SlotActuation} to the event queue and wakes up the
+	 * dispatcher thread.
+	 *
+	 * @param slotActuation The {@link SlotActuation} to add.
+	 */
+	void enqueue(final Signal<?>.SlotActuation slotActuation) {
+		slots.add(slotActuation);
+		semaphore.release();
+	}
+
+	/**
+	 * Polls the next {@link SlotActuation} from the event queue.
+	 *
+	 * @return The next {@link SlotActuation}, or {@code null} if the event queue is empty.
+	 */
+	Signal<?>.SlotActuation poll() {
+		return slots.poll();
+	}
+
+	/**
+	 * Blocks the current thread until a slot may need to be actuated.
+	 *
+	 * @see #waitFor()
+	 * @throws InterruptedException If the the current thread was interrupted.
+	 */
+	void await() throws InterruptedException {
+		semaphore.acquire();
+	}
+
+	/**
+	 * Is called by {@link #dispatch()} after it actuated the given number of
+	 * slots for one wakeup, to consume the wakeups of the additionally
+	 * drained slots. Missing wakeups only cause an empty dispatch later.
+	 *
+	 * @param dispatched The number of actuated slots.
+	 */
+	void drained(final int dispatched) {
+		for (int i = 1; i < dispatched; i ++) {
+			if (!semaphore.tryAcquire()) break;
+		}
+	}
+
 	/**
 	 * Blocks the current thread until a slot needs to be actuated. Throws an
 	 * {@link InterruptedException} if the threads gets interrupted while
@@ -108,33 +292,40 @@ public abstract class Dispatcher {
 	 */
 	@SuppressWarnings("WeakerAccess")
 	protected final void waitFor() throws InterruptedException {
-		semaphore.acquire();
+		await();
 	}
 
 	/**
-	 * Polls the next {@link SlotActuation} from the event queue and actuates
-	 * it. Does nothing if the event queue is empty. This function will never
-	 * throw a {@link RuntimeException}, but emit {@link #onError()}.
+	 * Polls the next {@link SlotActuation}s from the event queue, up to
+	 * {@link #getBatchSize()}, and actuates them. Does nothing if the event
+	 * queue is empty. This function will never throw a
+	 * {@link RuntimeException}, but emit {@link #onError()}.
 	 */
 	protected final void dispatch() {
+		Signal<?>.SlotActuation sa = poll();
+		if (sa == null) return;
+		final int batchSize = getBatchSize();
+		int dispatched = 0;
 		try {
-			final Signal<?>.SlotActuation sa = slots.poll();
-			if (sa != null) {
-				final Connection conn = sa.getConnection();
-				beforeActuation();
+			beforeActuation();
+		} catch (final RuntimeException e) {
+			onError.emit(e);
+		}
+		do {
+			dequeued(sa, true);
+			try {
 				sa.actuate();
-				afterActuation();
-				int connectionType = conn.type;
-				if (connectionType == AUTO) connectionType = QUEUED;
-				if (connectionType == QUEUED && !(conn.slot instanceof VoidSlot)) connectionType = BLOCKING_QUEUED;
-				if (connectionType == BLOCKING_QUEUED) {
-					blocking.release();
-					blockingReleased = true;
-				}
+			} catch (final RuntimeException e) {
+				onError.emit(e);
 			}
+			dispatched ++;
+		} while (dispatched < batchSize && (sa = poll()) != null);
+		try {
+			afterActuation();
 		} catch (final RuntimeException e) {
 			onError.emit(e);
 		}
+		drained(dispatched);
 	}
 
 	/**
@@ -146,7 +337,7 @@ public abstract class Dispatcher {
 
 	/**
 	 * This is a callback which gets executed by {@link #dispatch()} right
-	 * before a slot is actuated. Override it to add some custom code. If a
+	 * before a slot, or a batch of slots, is actuated. Override it to add some custom code. If a
 	 * {@link RuntimeException} is thrown by this callback, {@link #dispatch()}
 	 * will catch it and emit the signal returned by {@link #onError()}. If
 	 * there is no slot to actuate {@link #dispatch()} omits this callback.
@@ -155,7 +346,7 @@ public abstract class Dispatcher {
 
 	/**
 	 * This is a callback which gets executed by {@link #dispatch()} right
-	 * after a slot has been actuated. Override it to add some custom code. If
+	 * after a slot, or a batch of slots, has been actuated. Override it to add some custom code. If
 	 * a {@link RuntimeException} is thrown by this callback,
 	 * {@link #dispatch()} will catch it and emit the signal returned by
 	 * {@link #onError()}. If there is no slot to actuate {@link #dispatch()}
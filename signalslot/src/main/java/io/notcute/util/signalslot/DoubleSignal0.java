@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A double signal with no argument.
  */
@@ -12,6 +14,13 @@ public class DoubleSignal0 extends FunctionalDoubleSignal<DoubleSlot0> {
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Double> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	protected double actuateDouble(Slot<?> slot, Object... args) {
 		if (slot instanceof DynamicDoubleSlot) return ((DynamicDoubleSlot) slot).accept(args);
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A double signal with 1 generic argument.
  *
@@ -14,6 +16,13 @@ public class DoubleSignal1<A> extends FunctionalDoubleSignal<DoubleSlot1<A>> {
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Double> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected double actuateDouble(Slot<?> slot, Object... args) {
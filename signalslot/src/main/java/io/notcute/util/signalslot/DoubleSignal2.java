@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A double signal with 2 generic arguments.
  *
@@ -15,6 +17,13 @@ public class DoubleSignal2<A, B> extends FunctionalDoubleSignal<DoubleSlot2<A, B
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Double> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected double actuateDouble(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A double signal with 3 generic arguments.
  *
@@ -16,6 +18,13 @@ public class DoubleSignal3<A, B, C> extends FunctionalDoubleSignal<DoubleSlot3<A
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Double> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected double actuateDouble(Slot<?> slot, Object... args) {
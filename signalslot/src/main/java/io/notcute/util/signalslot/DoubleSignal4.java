@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A double signal with 4 generic arguments.
  *
@@ -17,6 +19,13 @@ public class DoubleSignal4<A, B, C, D> extends FunctionalDoubleSignal<DoubleSlot
 		return super.emit(a, b, c, d);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Double> emitAsync(A a, B b, C c, D d) {
+		return super.emitAsync(a, b, c, d);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected double actuateDouble(Slot<?> slot, Object... args) {
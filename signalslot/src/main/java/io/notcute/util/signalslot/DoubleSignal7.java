@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A double signal with 7 generic arguments.
  *
@@ -20,6 +22,13 @@ public class DoubleSignal7<A, B, C, D, E, F, G> extends FunctionalDoubleSignal<D
 		return super.emit(a, b, c, d, e, f, g);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Double> emitAsync(final A a, final B b, final C c, final D d, final E e, final F f, final G g) {
+		return super.emitAsync(a, b, c, d, e, f, g);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected double actuateDouble(Slot<?> slot, final Object... args) {
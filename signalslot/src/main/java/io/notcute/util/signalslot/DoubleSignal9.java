@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A double signal with 9 generic arguments.
  *
@@ -22,6 +24,13 @@ public class DoubleSignal9<A, B, C, D, E, F, G, H, I> extends FunctionalDoubleSi
 		return super.emit(a, b, c, d, e, f, g, h, i);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Double> emitAsync(A a, B b, C c, D d, E e, F f, G g, H h, I i) {
+		return super.emitAsync(a, b, c, d, e, f, g, h, i);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected double actuateDouble(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A signal with specific object and unlimited arguments.
  */
@@ -12,6 +14,13 @@ public class DynamicBooleanSignal extends BooleanSignal {
 		return super.invoke(args);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Boolean> emitAsync(final Object... args) {
+		return super.invokeAsync(args);
+	}
+
 	@Override
 	protected boolean actuateBoolean(final Slot<?> slot, final Object... args) {
 		if (slot instanceof DynamicBooleanSlot) return ((DynamicBooleanSlot) slot).accept(args);
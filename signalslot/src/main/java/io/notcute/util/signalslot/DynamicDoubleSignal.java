@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A signal with specific object and unlimited arguments.
  */
@@ -12,6 +14,13 @@ public class DynamicDoubleSignal extends DoubleSignal {
 		return super.invoke(args);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Double> emitAsync(final Object... args) {
+		return super.invokeAsync(args);
+	}
+
 	@Override
 	protected double actuateDouble(final Slot<?> slot, final Object... args) {
 		if (slot instanceof DynamicDoubleSlot) return ((DynamicDoubleSlot) slot).accept(args);
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 public class DynamicSignal<R> extends Signal<R> {
 
     /**
@@ -9,6 +11,13 @@ public class DynamicSignal<R> extends Signal<R> {
         return super.invoke(args);
     }
 
+    /**
+     * @see Signal#invokeAsync(Object...)
+     */
+    public CompletableFuture<R> emitAsync(final Object... args) {
+        return super.invokeAsync(args);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected R actuate(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A float signal with no argument.
  */
@@ -12,6 +14,13 @@ public class FloatSignal0 extends FunctionalFloatSignal<FloatSlot0> {
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Float> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	protected float actuateFloat(Slot<?> slot, Object... args) {
 		if (slot instanceof DynamicFloatSlot) return ((DynamicFloatSlot) slot).accept(args);
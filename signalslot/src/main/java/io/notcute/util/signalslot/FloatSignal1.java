@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A float signal with 1 generic argument.
  *
@@ -14,6 +16,13 @@ public class FloatSignal1<A> extends FunctionalFloatSignal<FloatSlot1<A>> {
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Float> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected float actuateFloat(Slot<?> slot, Object... args) {
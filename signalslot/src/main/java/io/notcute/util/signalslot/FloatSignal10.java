@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A float signal with 10 generic arguments.
  *
@@ -23,6 +25,13 @@ public class FloatSignal10<A, B, C, D, E, F, G, H, I, J> extends FunctionalFloat
 		return super.emit(a, b, c, d, e, f, g, h, i, j);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Float> emitAsync(A a, B b, C c, D d, E e, F f, G g, H h, I i, J j) {
+		return super.emitAsync(a, b, c, d, e, f, g, h, i, j);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected float actuateFloat(Slot<?> slot, Object... args) {
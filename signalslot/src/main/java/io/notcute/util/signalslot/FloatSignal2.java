@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A float signal with 2 generic arguments.
  *
@@ -15,6 +17,13 @@ public class FloatSignal2<A, B> extends FunctionalFloatSignal<FloatSlot2<A, B>>
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Float> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected float actuateFloat(Slot<?> slot, Object... args) {
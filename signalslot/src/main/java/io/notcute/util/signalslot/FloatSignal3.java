@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A float signal with 3 generic arguments.
  *
@@ -16,6 +18,13 @@ public class FloatSignal3<A, B, C> extends FunctionalFloatSignal<FloatSlot3<A, B
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Float> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected float actuateFloat(Slot<?> slot, Object... args) {
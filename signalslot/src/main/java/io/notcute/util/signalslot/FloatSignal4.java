@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A float signal with 4 generic arguments.
  *
@@ -17,6 +19,13 @@ public class FloatSignal4<A, B, C, D> extends FunctionalFloatSignal<FloatSlot4<A
 		return super.emit(a, b, c, d);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Float> emitAsync(A a, B b, C c, D d) {
+		return super.emitAsync(a, b, c, d);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected float actuateFloat(Slot<?> slot, Object... args) {
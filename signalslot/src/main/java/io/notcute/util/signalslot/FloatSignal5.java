@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A float signal with 5 generic arguments.
  *
@@ -18,6 +20,13 @@ public class FloatSignal5<A, B, C, D, E> extends FunctionalFloatSignal<FloatSlot
 		return super.emit(a, b, c, d, e);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Float> emitAsync(A a, B b, C c, D d, E e) {
+		return super.emitAsync(a, b, c, d, e);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected float actuateFloat(Slot<?> slot, Object... args) {
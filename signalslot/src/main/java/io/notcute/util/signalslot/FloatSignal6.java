@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A float signal with 6 generic arguments.
  *
@@ -19,6 +21,13 @@ public class FloatSignal6<A, B, C, D, E, F> extends FunctionalFloatSignal<FloatS
 		return super.emit(a, b, c, d, e, f);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Float> emitAsync(A a, B b, C c, D d, E e, F f) {
+		return super.emitAsync(a, b, c, d, e, f);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected float actuateFloat(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The base class of all functional signals. Note: Connecting and emitting slots
  * concurrently is thread-safe without blocking.
@@ -10,6 +12,10 @@ public abstract class FunctionalBooleanSignal<T extends FunctionalBooleanSlot> e
         return invoke(args);
     }
 
+    protected CompletableFuture<Boolean> emitAsync(Object... args) {
+        return invokeAsync(args);
+    }
+
     /**
      * @see Signal#connect(Slot)
      */
@@ -0,0 +1,105 @@
+package io.notcute.util.signalslot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative values with power-of-two buckets.
+ * Recording a value costs a few atomic operations; percentiles are
+ * approximated by the upper bound of the bucket they fall into.
+ */
+public class Histogram {
+
+    /**
+     * The counts of values in [2^(i-1), 2^i), bucket 0 counts zeros.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+    private final AtomicLong count = new AtomicLong(0);
+    private final AtomicLong sum = new AtomicLong(0);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Records the given value. Negative values are recorded as zero.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) break;
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of recorded values.
+     *
+     * @return the sum of recorded values
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Returns the maximum recorded value.
+     *
+     * @return the maximum recorded value, 0 if nothing has been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of recorded values.
+     *
+     * @return the mean of recorded values, 0 if nothing has been recorded
+     */
+    public double getMean() {
+        final long count = this.count.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of recorded values.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the bucket the percentile falls into, 0 if nothing has been recorded
+     */
+    public long getPercentile(final double percentile) {
+        final long count = this.count.get();
+        if (count == 0) return 0;
+        final long rank = (long) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < 64; i ++) {
+            seen += buckets.get(i);
+            if (seen >= rank && seen > 0) return Math.min((1L << i) - 1, max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < 64; i ++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+}
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A int signal with no argument.
  */
@@ -12,6 +14,13 @@ public class IntegerSignal0 extends FunctionalIntegerSignal<IntegerSlot0> {
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Integer> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	protected int actuateInteger(Slot<?> slot, Object... args) {
 		if (slot instanceof DynamicIntegerSlot) return ((DynamicIntegerSlot) slot).accept(args);
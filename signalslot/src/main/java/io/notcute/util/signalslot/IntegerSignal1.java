@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A int signal with 1 generic argument.
  *
@@ -14,6 +16,13 @@ public class IntegerSignal1<A> extends FunctionalIntegerSignal<IntegerSlot1<A>>
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Integer> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected int actuateInteger(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A int signal with 2 generic arguments.
  *
@@ -15,6 +17,13 @@ public class IntegerSignal2<A, B> extends FunctionalIntegerSignal<IntegerSlot2<A
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Integer> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected int actuateInteger(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A int signal with 3 generic arguments.
  *
@@ -16,6 +18,13 @@ public class IntegerSignal3<A, B, C> extends FunctionalIntegerSignal<IntegerSlot
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Integer> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected int actuateInteger(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A long signal with no argument.
  */
@@ -12,6 +14,13 @@ public class LongSignal0 extends FunctionalLongSignal<LongSlot0> {
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Long> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	protected long actuateLong(Slot<?> slot, Object... args) {
 		if (slot instanceof DynamicLongSlot) return ((DynamicLongSlot) slot).accept(args);
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A long signal with 1 generic argument.
  *
@@ -14,6 +16,13 @@ public class LongSignal1<A> extends FunctionalLongSignal<LongSlot1<A>> {
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Long> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected long actuateLong(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A long signal with 2 generic arguments.
  *
@@ -15,6 +17,13 @@ public class LongSignal2<A, B> extends FunctionalLongSignal<LongSlot2<A, B>> {
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Long> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected long actuateLong(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A long signal with 3 generic arguments.
  *
@@ -16,6 +18,13 @@ public class LongSignal3<A, B, C> extends FunctionalLongSignal<LongSlot3<A, B, C
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Long> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected long actuateLong(Slot<?> slot, Object... args) {
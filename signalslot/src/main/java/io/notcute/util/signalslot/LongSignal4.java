@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A long signal with 4 generic arguments.
  *
@@ -17,6 +19,13 @@ public class LongSignal4<A, B, C, D> extends FunctionalLongSignal<LongSlot4<A, B
 		return super.emit(a, b, c, d);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Long> emitAsync(A a, B b, C c, D d) {
+		return super.emitAsync(a, b, c, d);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected long actuateLong(Slot<?> slot, Object... args) {
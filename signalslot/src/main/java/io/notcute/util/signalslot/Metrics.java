@@ -0,0 +1,52 @@
+package io.notcute.util.signalslot;
+
+/**
+ * An opt-in listener of signal emissions and slot actuations, installed
+ * with {@link Signal#setMetrics(Metrics)}. While no listener is installed,
+ * signals and dispatchers do not measure anything.
+ * <p>
+ * The callbacks are invoked synchronously in the emitting or dispatching
+ * thread, so implementations must be thread-safe and cheap.
+ *
+ * @see MetricsRecorder
+ */
+public interface Metrics {
+
+    /**
+     * Is called when a signal is emitted.
+     *
+     * @param signal The emitted signal.
+     * @param connections The number of connected slots.
+     */
+    void emitted(Signal<?> signal, int connections);
+
+    /**
+     * Is called when a slot is added to the event queue of a dispatcher.
+     *
+     * @param dispatcher The dispatcher.
+     * @param signal The emitted signal.
+     * @param depth The number of pending slots of the dispatcher.
+     */
+    void queued(Dispatcher dispatcher, Signal<?> signal, int depth);
+
+    /**
+     * Is called when a queued slot is taken from the event queue of a dispatcher.
+     *
+     * @param dispatcher The dispatcher.
+     * @param signal The emitted signal.
+     * @param waitNanos The time the slot has been waiting in the event queue, in nanoseconds.
+     * @param depth The number of pending slots of the dispatcher.
+     */
+    void dequeued(Dispatcher dispatcher, Signal<?> signal, long waitNanos, int depth);
+
+    /**
+     * Is called after a slot has been actuated.
+     *
+     * @param signal The emitted signal.
+     * @param dispatcher The dispatcher of the connection.
+     * @param direct true if the slot has been actuated in the signalling thread, false if queued
+     * @param nanos The execution time of the slot, in nanoseconds.
+     */
+    void actuated(Signal<?> signal, Dispatcher dispatcher, boolean direct, long nanos);
+
+}
@@ -0,0 +1,281 @@
+package io.notcute.util.signalslot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Metrics} implementation which aggregates statistics per signal
+ * name and per dispatcher. Signals without a {@link Signal#setName(String) name}
+ * are aggregated per class, and the lanes of a {@link VirtualThreadDispatcher}
+ * count for the dispatcher, so the number of entries does not grow with the
+ * number of signal or connection instances.
+ * <pre>{@code
+ * MetricsRecorder recorder = new MetricsRecorder();
+ * Signal.setMetrics(recorder);
+ * ...
+ * for (MetricsRecorder.SignalStatistics statistics : recorder.getSignalStatistics()) {
+ *     System.out.println(statistics);
+ * }
+ * }</pre>
+ */
+public class MetricsRecorder implements Metrics {
+
+    /**
+     * The statistics of signals with the same name, or of the unnamed signals of a class.
+     */
+    public static final class SignalStatistics {
+
+        private final String name;
+        private final AtomicLong emits = new AtomicLong(0);
+        private final AtomicInteger connections = new AtomicInteger(0);
+        private final AtomicLong directActuations = new AtomicLong(0);
+        private final AtomicLong queuedActuations = new AtomicLong(0);
+        private final Histogram queueTime = new Histogram();
+        private final Histogram executionTime = new Histogram();
+
+        private SignalStatistics(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getEmits() {
+            return emits.get();
+        }
+
+        /**
+         * Returns the number of connected slots at the last emission.
+         *
+         * @return the number of connected slots
+         */
+        public int getConnections() {
+            return connections.get();
+        }
+
+        public long getDirectActuations() {
+            return directActuations.get();
+        }
+
+        public long getQueuedActuations() {
+            return queuedActuations.get();
+        }
+
+        /**
+         * Returns the time queued slots have been waiting in the event queue, in nanoseconds.
+         *
+         * @return the queue time histogram
+         */
+        public Histogram getQueueTime() {
+            return queueTime;
+        }
+
+        /**
+         * Returns the execution time of slots, in nanoseconds.
+         *
+         * @return the execution time histogram
+         */
+        public Histogram getExecutionTime() {
+            return executionTime;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": emits=" + emits.get() + ", connections=" + connections.get() +
+                    ", direct=" + directActuations.get() + ", queued=" + queuedActuations.get() +
+                    ", queueTime(p50/p99/max ns)=" + queueTime.getPercentile(50) + "/" + queueTime.getPercentile(99) + "/" + queueTime.getMax() +
+                    ", executionTime(p50/p99/max ns)=" + executionTime.getPercentile(50) + "/" + executionTime.getPercentile(99) + "/" + executionTime.getMax();
+        }
+
+    }
+
+    /**
+     * The statistics of a dispatcher.
+     */
+    public static final class DispatcherStatistics {
+
+        private final String name;
+        private final AtomicLong queued = new AtomicLong(0);
+        private final AtomicInteger depth = new AtomicInteger(0);
+        private final AtomicInteger highWaterMark = new AtomicInteger(0);
+        private final Histogram queueTime = new Histogram();
+
+        private DispatcherStatistics(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of slots which have been queued.
+         *
+         * @return the number of queued slots
+         */
+        public long getQueued() {
+            return queued.get();
+        }
+
+        /**
+         * Returns the current number of pending slots.
+         *
+         * @return the queue depth
+         */
+        public int getDepth() {
+            return depth.get();
+        }
+
+        /**
+         * Returns the maximum number of pending slots.
+         *
+         * @return the high-water mark of the queue depth
+         */
+        public int getHighWaterMark() {
+            return highWaterMark.get();
+        }
+
+        /**
+         * Returns the time slots have been waiting in the event queue, in nanoseconds.
+         *
+         * @return the queue time histogram
+         */
+        public Histogram getQueueTime() {
+            return queueTime;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": queued=" + queued.get() + ", depth=" + depth.get() + ", highWaterMark=" + highWaterMark.get() +
+                    ", queueTime(p50/p99/max ns)=" + queueTime.getPercentile(50) + "/" + queueTime.getPercentile(99) + "/" + queueTime.getMax();
+        }
+
+    }
+
+    private final ConcurrentHashMap<String, SignalStatistics> signals = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Dispatcher, DispatcherStatistics> dispatchers = new ConcurrentHashMap<>();
+
+    private SignalStatistics statistics(final Signal<?> signal) {
+        final String name = signal.getMetricsName();
+        SignalStatistics statistics = signals.get(name);
+        if (statistics == null) {
+            statistics = new SignalStatistics(name);
+            final SignalStatistics previous = signals.putIfAbsent(name, statistics);
+            if (previous != null) statistics = previous;
+        }
+        return statistics;
+    }
+
+    private DispatcherStatistics statistics(final Dispatcher dispatcher) {
+        DispatcherStatistics statistics = dispatchers.get(dispatcher);
+        if (statistics == null) {
+            statistics = new DispatcherStatistics(String.valueOf(dispatcher));
+            final DispatcherStatistics previous = dispatchers.putIfAbsent(dispatcher, statistics);
+            if (previous != null) statistics = previous;
+        }
+        return statistics;
+    }
+
+    @Override
+    public void emitted(final Signal<?> signal, final int connections) {
+        final SignalStatistics statistics = statistics(signal);
+        statistics.emits.incrementAndGet();
+        statistics.connections.set(connections);
+    }
+
+    @Override
+    public void queued(final Dispatcher dispatcher, final Signal<?> signal, final int depth) {
+        final DispatcherStatistics statistics = statistics(dispatcher);
+        statistics.queued.incrementAndGet();
+        statistics.depth.set(depth);
+        int current;
+        while (depth > (current = statistics.highWaterMark.get())) {
+            if (statistics.highWaterMark.compareAndSet(current, depth)) break;
+        }
+    }
+
+    @Override
+    public void dequeued(final Dispatcher dispatcher, final Signal<?> signal, final long waitNanos, final int depth) {
+        final DispatcherStatistics statistics = statistics(dispatcher);
+        statistics.depth.set(depth);
+        statistics.queueTime.record(waitNanos);
+        statistics(signal).queueTime.record(waitNanos);
+    }
+
+    @Override
+    public void actuated(final Signal<?> signal, final Dispatcher dispatcher, final boolean direct, final long nanos) {
+        final SignalStatistics statistics = statistics(signal);
+        if (direct) statistics.directActuations.incrementAndGet();
+        else statistics.queuedActuations.incrementAndGet();
+        statistics.executionTime.record(nanos);
+    }
+
+    /**
+     * Returns the statistics of all signals which have been emitted since the last {@link #reset()}.
+     *
+     * @return the signal statistics
+     */
+    public Collection<SignalStatistics> getSignalStatistics() {
+        return Collections.unmodifiableList(new ArrayList<>(signals.values()));
+    }
+
+    /**
+     * Returns the statistics of the signals with the given name.
+     *
+     * @param name the signal name, or the class name of unnamed signals
+     * @return the signal statistics, {@code null} if no such signal has been emitted
+     */
+    public SignalStatistics getSignalStatistics(final String name) {
+        return signals.get(name);
+    }
+
+    /**
+     * Returns the statistics of all dispatchers which have queued slots since the last {@link #reset()}.
+     *
+     * @return the dispatcher statistics
+     */
+    public Collection<DispatcherStatistics> getDispatcherStatistics() {
+        return Collections.unmodifiableList(new ArrayList<>(dispatchers.values()));
+    }
+
+    /**
+     * Returns the statistics of the given dispatcher.
+     *
+     * @param dispatcher the dispatcher
+     * @return the dispatcher statistics, {@code null} if the dispatcher has not queued any slot
+     */
+    public DispatcherStatistics getDispatcherStatistics(final Dispatcher dispatcher) {
+        return dispatchers.get(dispatcher);
+    }
+
+    /**
+     * Clears all statistics.
+     */
+    public void reset() {
+        signals.clear();
+        dispatchers.clear();
+    }
+
+    /**
+     * Returns a human-readable report of all statistics, one line per signal and dispatcher.
+     *
+     * @return the report
+     */
+    public List<String> report() {
+        final List<String> report = new ArrayList<>();
+        for (final SignalStatistics statistics : signals.values()) {
+            report.add(statistics.toString());
+        }
+        for (final DispatcherStatistics statistics : dispatchers.values()) {
+            report.add(statistics.toString());
+        }
+        return report;
+    }
+
+}
@@ -0,0 +1,154 @@
+package io.notcute.util.signalslot;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Dispatcher} implementation with several worker threads.
+ * Each connection is bound to one of the worker threads (lanes), so the
+ * slots of one connection are still actuated in order and never
+ * concurrently, while a heavy slot only stalls the connections sharing
+ * its lane. {@link #start()} and {@link #stop()} are convenience methods
+ * to start (and stop) all worker threads.
+ * <p>
+ * {@link #beforeActuation()} and {@link #afterActuation()} are called once
+ * per batch in the worker thread which actuates it, so overrides may run
+ * concurrently in several worker threads.
+ *
+ * @see Dispatcher
+ * @see SimpleDispatcher
+ */
+public class PoolDispatcher extends Dispatcher {
+
+    /**
+     * The worker lanes.
+     */
+    private final Lane[] lanes;
+
+    /**
+     * This ID is used to generate thread names.
+     */
+    private final static AtomicInteger nextSerialNumber = new AtomicInteger(0);
+    private static int serialNumber() {
+        return nextSerialNumber.getAndIncrement();
+    }
+
+    /**
+     * A worker lane. Its batch size, {@link #beforeActuation()},
+     * {@link #afterActuation()} and statistics are those of the pool, so the
+     * callbacks of a subclass run once per batch in the worker thread of the lane.
+     */
+    private final class Lane extends SimpleDispatcher {
+
+        private Lane(final String name) {
+            super(name);
+            onError().connect(PoolDispatcher.this.onError()::emit, Connection.Type.DIRECT);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return PoolDispatcher.this.getBatchSize();
+        }
+
+        @Override
+        protected void beforeActuation() {
+            PoolDispatcher.this.beforeActuation();
+        }
+
+        @Override
+        protected void afterActuation() {
+            PoolDispatcher.this.afterActuation();
+        }
+
+        @Override
+        Dispatcher metricsOwner() {
+            return PoolDispatcher.this;
+        }
+
+    }
+
+    @Override
+    protected boolean isDispatchThread() {
+        for (final Lane lane : lanes) {
+            if (lane.isDispatchThread()) return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void switchContext() {
+        dispatch();
+    }
+
+    @Override
+    Dispatcher laneOf(final Connection conn) {
+        return lanes[Math.floorMod(System.identityHashCode(conn), lanes.length)];
+    }
+
+    /**
+     * Creates a new dispatcher with as many worker threads as available processors.
+     * The associated threads specified to run as daemons.
+     */
+    public PoolDispatcher() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new dispatcher with the specified number of worker threads.
+     * The associated threads specified to run as daemons.
+     *
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if {@code threads} is less than 1
+     */
+    public PoolDispatcher(final int threads) throws IllegalArgumentException {
+        this("PoolDispatcher-" + serialNumber(), threads);
+    }
+
+    /**
+     * Creates a new dispatcher with the specified number of worker threads, whose
+     * names are the specified name followed by the index of the thread.
+     * The associated threads specified to run as daemons.
+     *
+     * @param name the name prefix of the associated threads
+     * @param threads the number of worker threads
+     * @throws NullPointerException if {@code name} is null
+     * @throws IllegalArgumentException if {@code threads} is less than 1
+     */
+    public PoolDispatcher(final String name, final int threads) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(name);
+        if (threads < 1) throw new IllegalArgumentException("Invalid thread count: " + threads);
+        lanes = new Lane[threads];
+        for (int i = 0; i < threads; i ++) {
+            lanes[i] = new Lane(name + "-" + i);
+        }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the number of worker threads
+     */
+    public int getThreadCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Starts all worker threads. Does nothing for the threads which are already running.
+     */
+    public final synchronized void start() {
+        for (final Lane lane : lanes) {
+            lane.start();
+        }
+    }
+
+    /**
+     * Stops all worker threads created by {@link #start()}. Does nothing for the
+     * threads which are not running.
+     */
+    public final synchronized void stop() {
+        for (final Lane lane : lanes) {
+            lane.stop();
+        }
+    }
+
+}
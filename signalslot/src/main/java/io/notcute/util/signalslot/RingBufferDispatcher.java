@@ -0,0 +1,341 @@
+package io.notcute.util.signalslot;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link SimpleDispatcher} whose event queue is a bounded, preallocated,
+ * lock-free ring buffer instead of an unbounded linked queue. Queueing a
+ * slot does not allocate, and waking up the worker thread follows the
+ * configured {@link WaitStrategy}. If the ring buffer is full, the
+ * configured {@link Backpressure} policy applies.
+ *
+ * @see Dispatcher
+ * @see SimpleDispatcher
+ */
+public class RingBufferDispatcher extends SimpleDispatcher {
+
+    /**
+     * The constants of supported wait strategies, i.e. how the worker thread
+     * waits for slots to actuate.
+     */
+    public static final class WaitStrategy {
+
+        private WaitStrategy() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Spins on the ring buffer. Lowest latency, but occupies a processor.
+         */
+        public static final int BUSY_SPIN = 0;
+
+        /**
+         * Spins on the ring buffer, yielding the processor between checks.
+         */
+        public static final int YIELD = 1;
+
+        /**
+         * (Default) Parks the waiting thread until it gets unparked by the other side.
+         */
+        public static final int PARK = 2;
+
+    }
+
+    /**
+     * The constants of supported backpressure policies, i.e. what happens if a slot
+     * is queued while the ring buffer is full.
+     */
+    public static final class Backpressure {
+
+        private Backpressure() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * (Default) The signalling thread waits until there is free space. If the
+         * signalling thread is the worker thread itself, the slot is rejected
+         * as with {@link Backpressure#REJECT} instead of deadlocking.
+         */
+        public static final int BLOCK = 0;
+
+        /**
+         * The oldest pending slot is discarded to make room for the new one.
+         */
+        public static final int DROP_OLDEST = 1;
+
+        /**
+         * The new slot is discarded and {@link Dispatcher#onError()} is emitted
+         * with a {@link RejectedExecutionException}.
+         */
+        public static final int REJECT = 2;
+
+    }
+
+    /**
+     * The default capacity of the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The preallocated ring buffer.
+     */
+    private final AtomicReferenceArray<Signal<?>.SlotActuation> buffer;
+
+    /**
+     * The sequence number of each cell, used to detect whether a cell is
+     * free or published.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The mask to map a sequence number to a cell index.
+     */
+    private final int mask;
+
+    /**
+     * The next sequence number to write.
+     */
+    private final AtomicLong tail = new AtomicLong(0);
+
+    /**
+     * The next sequence number to read.
+     */
+    private final AtomicLong head = new AtomicLong(0);
+
+    /**
+     * The wait strategy.
+     */
+    private final int waitStrategy;
+
+    /**
+     * The backpressure policy.
+     */
+    private final int backpressure;
+
+    /**
+     * The worker thread if it is parked by {@link WaitStrategy#PARK}.
+     */
+    private volatile Thread waiter;
+
+    /**
+     * Creates a new dispatcher with {@link #DEFAULT_CAPACITY}, {@link WaitStrategy#PARK}
+     * and {@link Backpressure#BLOCK}. The associated thread specified to run as a daemon.
+     */
+    public RingBufferDispatcher() {
+        this(DEFAULT_CAPACITY, WaitStrategy.PARK, Backpressure.BLOCK);
+    }
+
+    /**
+     * Creates a new dispatcher. The associated thread specified to run as a daemon.
+     *
+     * @param capacity the capacity of the ring buffer, rounded up to a power of two
+     * @param waitStrategy the wait strategy
+     * @param backpressure the backpressure policy
+     * @throws IllegalArgumentException if {@code capacity} is not positive, or
+     * {@code waitStrategy} or {@code backpressure} is invalid
+     */
+    public RingBufferDispatcher(final int capacity, final int waitStrategy, final int backpressure)
+            throws IllegalArgumentException {
+        super();
+        this.waitStrategy = checkWaitStrategy(waitStrategy);
+        this.backpressure = checkBackpressure(backpressure);
+        mask = checkCapacity(capacity) - 1;
+        buffer = new AtomicReferenceArray<>(mask + 1);
+        sequences = new AtomicLongArray(mask + 1);
+        for (int i = 0; i <= mask; i ++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Creates a new dispatcher whose associated thread has the specified name.
+     * The associated thread specified to run as a daemon.
+     *
+     * @param name the name of the associated thread
+     * @param capacity the capacity of the ring buffer, rounded up to a power of two
+     * @param waitStrategy the wait strategy
+     * @param backpressure the backpressure policy
+     * @throws NullPointerException if {@code name} is null
+     * @throws IllegalArgumentException if {@code capacity} is not positive, or
+     * {@code waitStrategy} or {@code backpressure} is invalid
+     */
+    public RingBufferDispatcher(final String name, final int capacity, final int waitStrategy, final int backpressure)
+            throws NullPointerException, IllegalArgumentException {
+        super(name);
+        this.waitStrategy = checkWaitStrategy(waitStrategy);
+        this.backpressure = checkBackpressure(backpressure);
+        mask = checkCapacity(capacity) - 1;
+        buffer = new AtomicReferenceArray<>(mask + 1);
+        sequences = new AtomicLongArray(mask + 1);
+        for (int i = 0; i <= mask; i ++) {
+            sequences.set(i, i);
+        }
+    }
+
+    private static int checkCapacity(final int capacity) throws IllegalArgumentException {
+        if (capacity < 1 || capacity > (1 << 30)) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private static int checkWaitStrategy(final int waitStrategy) throws IllegalArgumentException {
+        switch (waitStrategy) {
+            case WaitStrategy.BUSY_SPIN:
+            case WaitStrategy.YIELD:
+            case WaitStrategy.PARK:
+                return waitStrategy;
+            default:
+                throw new IllegalArgumentException("Invalid wait strategy: " + waitStrategy);
+        }
+    }
+
+    private static int checkBackpressure(final int backpressure) throws IllegalArgumentException {
+        switch (backpressure) {
+            case Backpressure.BLOCK:
+            case Backpressure.DROP_OLDEST:
+            case Backpressure.REJECT:
+                return backpressure;
+            default:
+                throw new IllegalArgumentException("Invalid backpressure policy: " + backpressure);
+        }
+    }
+
+    /**
+     * Returns the capacity of the ring buffer.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the wait strategy.
+     *
+     * @see WaitStrategy
+     * @return the wait strategy
+     */
+    public int getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Returns the backpressure policy.
+     *
+     * @see Backpressure
+     * @return the backpressure policy
+     */
+    public int getBackpressure() {
+        return backpressure;
+    }
+
+    /**
+     * Returns the number of pending slots. The value is only a snapshot.
+     *
+     * @return the number of pending slots
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head.get(), mask + 1));
+    }
+
+    /**
+     * Tries to add the given actuation to the ring buffer.
+     *
+     * @param slotActuation the actuation to add
+     * @return true if added, false if the ring buffer is full
+     */
+    private boolean offer(final Signal<?>.SlotActuation slotActuation) {
+        long pos = tail.get();
+        for (;;) {
+            final int index = (int) pos & mask;
+            final long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer.lazySet(index, slotActuation);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            }
+            else if (diff < 0) return false;
+            else pos = tail.get();
+        }
+    }
+
+    @Override
+    Signal<?>.SlotActuation poll() {
+        long pos = head.get();
+        for (;;) {
+            final int index = (int) pos & mask;
+            final long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    final Signal<?>.SlotActuation slotActuation = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    sequences.set(index, pos + mask + 1);
+                    return slotActuation;
+                }
+                pos = head.get();
+            }
+            else if (diff < 0) return null;
+            else pos = head.get();
+        }
+    }
+
+    @Override
+    void enqueue(final Signal<?>.SlotActuation slotActuation) {
+        while (!offer(slotActuation)) {
+            if (backpressure == Backpressure.DROP_OLDEST) {
+                final Signal<?>.SlotActuation dropped = poll();
+                if (dropped != null) {
+                    dequeued(dropped, false);
+                    dropped.reject(new RejectedExecutionException("Dropped by a full ring buffer"));
+                }
+            }
+            else if (backpressure == Backpressure.REJECT || isDispatchThread()) {
+                final RejectedExecutionException e = new RejectedExecutionException("Rejected by a full ring buffer");
+                dequeued(slotActuation, false);
+                slotActuation.reject(e);
+                onError().emit(e);
+                return;
+            }
+            else idle();
+        }
+        if (waitStrategy == WaitStrategy.PARK) {
+            final Thread waiter = this.waiter;
+            if (waiter != null) LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    void await() throws InterruptedException {
+        while (tail.get() == head.get()) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (waitStrategy == WaitStrategy.PARK) {
+                waiter = Thread.currentThread();
+                if (tail.get() == head.get()) LockSupport.park(this);
+                waiter = null;
+            }
+            else if (waitStrategy == WaitStrategy.YIELD) Thread.yield();
+        }
+    }
+
+    @Override
+    void drained(final int dispatched) {
+    }
+
+    /**
+     * Lets a signalling thread wait shortly for free space. It is never
+     * unparked by the worker thread, so {@link WaitStrategy#PARK} parks for
+     * a microsecond, and {@link WaitStrategy#BUSY_SPIN} yields as well to
+     * not starve the worker thread.
+     */
+    private void idle() {
+        if (waitStrategy == WaitStrategy.PARK) LockSupport.parkNanos(this, 1000L);
+        else Thread.yield();
+    }
+
+}
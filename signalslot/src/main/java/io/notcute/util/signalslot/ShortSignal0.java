@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A short signal with no argument.
  */
@@ -12,6 +14,13 @@ public class ShortSignal0 extends FunctionalShortSignal<ShortSlot0> {
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Short> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	protected short actuateShort(Slot<?> slot, Object... args) {
 		if (slot instanceof DynamicShortSlot) return ((DynamicShortSlot) slot).accept(args);
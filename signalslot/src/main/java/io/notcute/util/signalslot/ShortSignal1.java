@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A short signal with 1 generic argument.
  *
@@ -14,6 +16,13 @@ public class ShortSignal1<A> extends FunctionalShortSignal<ShortSlot1<A>> {
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Short> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected short actuateShort(Slot<?> slot, Object... args) {
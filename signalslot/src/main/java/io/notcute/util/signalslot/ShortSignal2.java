@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A short signal with 2 generic arguments.
  *
@@ -15,6 +17,13 @@ public class ShortSignal2<A, B> extends FunctionalShortSignal<ShortSlot2<A, B>>
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Short> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected short actuateShort(Slot<?> slot, Object... args) {
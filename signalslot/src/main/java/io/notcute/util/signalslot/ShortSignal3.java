@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A short signal with 3 generic arguments.
  *
@@ -16,6 +18,13 @@ public class ShortSignal3<A, B, C> extends FunctionalShortSignal<ShortSlot3<A, B
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Short> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected short actuateShort(Slot<?> slot, Object... args) {
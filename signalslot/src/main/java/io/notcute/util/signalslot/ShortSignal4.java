@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A short signal with 4 generic arguments.
  *
@@ -17,6 +19,13 @@ public class ShortSignal4<A, B, C, D> extends FunctionalShortSignal<ShortSlot4<A
 		return super.emit(a, b, c, d);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<Short> emitAsync(A a, B b, C c, D d) {
+		return super.emitAsync(a, b, c, d);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected short actuateShort(Slot<?> slot, Object... args) {
@@ -2,10 +2,10 @@ package io.notcute.util.signalslot;
 
 import io.notcute.util.collections.ConcurrentHashSet;
 
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -17,6 +17,38 @@ import static io.notcute.util.signalslot.Connection.Type.*;
  */
 public abstract class Signal<R> {
 
+	/**
+	 * The installed metrics listener, {@code null} if disabled.
+	 * @see #setMetrics(Metrics)
+	 */
+	private static volatile Metrics metrics = null;
+
+	/**
+	 * Returns the installed metrics listener.
+	 * @see #setMetrics(Metrics)
+	 * @return the metrics listener, {@code null} if disabled
+	 */
+	public static Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Installs the given metrics listener, which gets notified of all signal
+	 * emissions and slot actuations. While no listener is installed, nothing
+	 * is measured.
+	 * @see MetricsRecorder
+	 * @param metrics the metrics listener, {@code null} to disable
+	 */
+	public static void setMetrics(final Metrics metrics) {
+		Signal.metrics = metrics;
+	}
+
+	/**
+	 * The name of the signal, used by {@link Metrics}.
+	 * @see #setName(String)
+	 */
+	private volatile String name = null;
+
 	/**
 	 * Indicates whether a signal is enabled/disabled.
 	 * @see #enable()
@@ -25,10 +57,17 @@ public abstract class Signal<R> {
 	private final AtomicBoolean enabled = new AtomicBoolean(true);
 
 	/**
-	 * The queue of dispatched connections.
+	 * The empty connection array.
+	 */
+	private static final Connection[] EMPTY_CONNECTIONS = new Connection[0];
+
+	/**
+	 * The copy-on-write array of dispatched connections. Emitting iterates
+	 * over the current snapshot, connecting and disconnecting atomically swap
+	 * in a new array.
 	 * @see Dispatcher
 	 */
-	private final Queue<Connection> connections = new ConcurrentLinkedQueue<>();
+	private final AtomicReference<Connection[]> connections = new AtomicReference<>(EMPTY_CONNECTIONS);
 
 	/**
 	 * The set of unique slots.
@@ -36,6 +75,38 @@ public abstract class Signal<R> {
 	 */
 	private final Set<Slot<R>> uniques = new ConcurrentHashSet<>();
 
+	/**
+	 * Returns the name of the signal. If no name has been set, a name is
+	 * derived from the class name and the identity hash code.
+	 * @see #setName(String)
+	 * @return the name of the signal
+	 */
+	public String getName() {
+		final String name = this.name;
+		if (name == null) return getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(this));
+		return name;
+	}
+
+	/**
+	 * Returns the name {@link MetricsRecorder} aggregates the statistics of
+	 * this signal under: the name if set, otherwise the class name, so the
+	 * unnamed signals of a class share one entry instead of one per instance.
+	 * @return the name to aggregate statistics under
+	 */
+	final String getMetricsName() {
+		final String name = this.name;
+		return name == null ? getClass().getName() : name;
+	}
+
+	/**
+	 * Sets the name of the signal, e.g. {@code "AWTCanvas.onPaint"}, to make
+	 * the output of {@link Metrics} readable.
+	 * @param name the name of the signal, {@code null} to derive it
+	 */
+	public void setName(final String name) {
+		this.name = name;
+	}
+
 	/**
 	 * Returns whether the signal is enabled.
 	 * @see #enable()
@@ -79,7 +150,7 @@ public abstract class Signal<R> {
 	 * 'connect' methods is used concurrently.
 	 */
 	public void clear() {
-		connections.clear();
+		connections.set(EMPTY_CONNECTIONS);
 		uniques.clear();
 	}
 
@@ -140,17 +211,20 @@ public abstract class Signal<R> {
 		if (dispatcher == null) dispatcher = Dispatcher.getDefaultDispatcher();
 		final boolean unique = (type & UNIQUE) == UNIQUE;
 		final boolean singleShot = (type & SINGLE_SHOT) == SINGLE_SHOT;
+		final boolean coalesce = (type & COALESCE) == COALESCE;
+		final boolean weak = (type & WEAK) == WEAK;
 		type = type << 29 >>> 29;
+		Connection.expunge();
 		boolean broken = false;
 		if (uniques.contains(slot)) broken = true;
-		else if (unique) uniques.add(slot);
+		else if (unique && !weak) uniques.add(slot);
 		final Connection conn;
 		switch (type) {
 			case AUTO:
 			case DIRECT:
 			case QUEUED:
 			case BLOCKING_QUEUED:
-				connections.add((conn = new Connection(slot, type, dispatcher, singleShot, broken)));
+				add((conn = new Connection(slot, type, dispatcher, singleShot, coalesce, weak ? this : null, broken)));
 				break;
 			default:
 				throw new IllegalArgumentException("Invalid connection type: " + type);
@@ -160,57 +234,121 @@ public abstract class Signal<R> {
 
 	public boolean disconnect(final Connection conn) {
 		if (conn == null) return false;
-		if (!connections.contains(conn)) return false;
+		if (!remove(conn)) return false;
 		conn.setBroken(true);
-		connections.remove(conn);
 		return true;
 	}
 
 	public boolean disconnect(final Slot<R> slot) {
 		if (slot == null) return disconnect();
-		for (final Connection connection : connections) {
-			if (connection.slot == slot) {
-				connection.setBroken(true);
-				connections.remove(connection);
-				return true;
-			}
+		for (final Connection connection : connections.get()) {
+			if (connection.slot() == slot) return disconnect(connection);
 		}
 		return false;
 	}
 
 	public boolean disconnect(Dispatcher dispatcher) {
 		if (dispatcher == null) dispatcher = Dispatcher.getDefaultDispatcher();
-		for (final Connection connection : connections) {
-			if (connection.dispatcher == dispatcher) {
-				connection.setBroken(true);
-				connections.remove(connection);
-				return true;
-			}
+		for (final Connection connection : connections.get()) {
+			if (connection.dispatcher == dispatcher) return disconnect(connection);
 		}
 		return false;
 	}
 
 	public boolean disconnect(final Slot<R> slot, final Dispatcher dispatcher) {
 		if (slot == null) return disconnect(dispatcher);
-		for (final Connection connection : connections) {
-			if (connection.dispatcher == dispatcher && connection.slot == slot) {
-				connection.setBroken(true);
-				connections.remove(connection);
-				return true;
-			}
+		for (final Connection connection : connections.get()) {
+			if (connection.dispatcher == dispatcher && connection.slot() == slot) return disconnect(connection);
 		}
 		return false;
 	}
 
 	public boolean disconnect() {
-		for (final Connection connection : connections) {
-			connection.setBroken(true);
-			connections.remove(connection);
-			return true;
+		for (final Connection connection : connections.get()) {
+			return disconnect(connection);
 		}
 		return false;
 	}
 
+	/**
+	 * Returns the current snapshot of connections. The returned array must
+	 * not be modified.
+	 *
+	 * @return The current snapshot of connections.
+	 */
+	final Connection[] connections() {
+		return connections.get();
+	}
+
+	/**
+	 * Atomically appends the given connection.
+	 *
+	 * @param conn The connection to append.
+	 */
+	private void add(final Connection conn) {
+		Connection[] current, updated;
+		do {
+			current = connections.get();
+			updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = conn;
+		} while (!connections.compareAndSet(current, updated));
+	}
+
+	/**
+	 * Atomically removes the given connection.
+	 *
+	 * @param conn The connection to remove.
+	 * @return true if the connection has been removed, false if it was not connected
+	 */
+	private boolean remove(final Connection conn) {
+		Connection[] current, updated;
+		do {
+			current = connections.get();
+			int index = -1;
+			for (int i = 0; i < current.length; i ++) {
+				if (current[i].equals(conn)) {
+					index = i;
+					break;
+				}
+			}
+			if (index == -1) return false;
+			if (current.length == 1) updated = EMPTY_CONNECTIONS;
+			else {
+				updated = new Connection[current.length - 1];
+				System.arraycopy(current, 0, updated, 0, index);
+				System.arraycopy(current, index + 1, updated, index, updated.length - index);
+			}
+		} while (!connections.compareAndSet(current, updated));
+		return true;
+	}
+
+	/**
+	 * Atomically removes all broken connections in one pass.
+	 *
+	 * @see Connection.Type#SINGLE_SHOT
+	 * @see Connection.Type#WEAK
+	 */
+	final void prune() {
+		Connection[] current, updated;
+		do {
+			current = connections.get();
+			int alive = 0;
+			for (final Connection connection : current) {
+				if (!connection.isBroken()) alive ++;
+			}
+			if (alive == current.length) return;
+			if (alive == 0) updated = EMPTY_CONNECTIONS;
+			else {
+				updated = new Connection[alive];
+				int i = 0;
+				for (final Connection connection : current) {
+					if (!connection.isBroken() && i < alive) updated[i ++] = connection;
+				}
+				if (i < alive) updated = Arrays.copyOf(updated, i);
+			}
+		} while (!connections.compareAndSet(current, updated));
+	}
+
 	/**
 	 * Emits this signal with the given arguments.
 	 *
@@ -218,16 +356,79 @@ public abstract class Signal<R> {
 	 */
 	protected R invoke(final Object... args) {
 		if (enabled.get()) {
+			final Connection[] connections = this.connections.get();
+			final Metrics metrics = Signal.metrics;
+			if (metrics != null) metrics.emitted(this, connections.length);
 			R result = null;
+			boolean prune = false;
 			for (final Connection connection : connections) {
 				if (!connection.isBroken()) result = connection.dispatcher.actuate(new SlotActuation(connection, args));
-				else connections.remove(connection);
+				prune |= connection.isBroken();
 			}
+			if (prune) prune();
 			return result;
 		}
 		else return null;
 	}
 
+	/**
+	 * Emits this signal with the given arguments without blocking the
+	 * signalling thread. Connections which would be
+	 * {@link Connection.Type#BLOCKING_QUEUED} are queued instead, each with
+	 * its own completion, so the signalling thread may fan out to several
+	 * dispatchers in parallel.
+	 *
+	 * @param args The arguments to use pass to the connected slots.
+	 * @return The future which completes with the result of the last connected
+	 * slot after all connected slots have been actuated, or exceptionally if one
+	 * of them threw a {@link RuntimeException}.
+	 */
+	protected CompletableFuture<R> invokeAsync(final Object... args) {
+		if (enabled.get()) {
+			final Connection[] connections = this.connections.get();
+			final Metrics metrics = Signal.metrics;
+			if (metrics != null) metrics.emitted(this, connections.length);
+			final CompletableFuture<?>[] futures = new CompletableFuture<?>[connections.length];
+			CompletableFuture<R> last = null;
+			int count = 0;
+			boolean prune = false;
+			for (final Connection connection : connections) {
+				if (!connection.isBroken()) futures[count ++] = last = connection.dispatcher.actuateAsync(new SlotActuation(connection, args));
+				prune |= connection.isBroken();
+			}
+			if (prune) prune();
+			if (count == 0) return CompletableFuture.completedFuture(null);
+			else if (count == 1) return last;
+			final CompletableFuture<R> result = last;
+			return CompletableFuture.allOf(Arrays.copyOf(futures, count)).thenApply(v -> result.join());
+		}
+		else return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Actuates the given connection with the given arguments through its
+	 * {@link Dispatcher}. Used by primitive signals for connections which
+	 * cannot be actuated directly.
+	 *
+	 * @param connection The connection to actuate.
+	 * @param args The arguments to pass to the connected slot.
+	 */
+	final R invoke(final Connection connection, final Object... args) {
+		return connection.dispatcher.actuate(new SlotActuation(connection, args));
+	}
+
+	/**
+	 * Must be called after a connection has been actuated directly, without
+	 * a {@link SlotActuation}, to break it if it is
+	 * {@link Connection.Type#SINGLE_SHOT}. Broken connections are pruned by
+	 * {@link #prune()} after the emitting loop.
+	 *
+	 * @param connection The actuated connection.
+	 */
+	final void actuated(final Connection connection) {
+		if (connection.singleShot) connection.setBroken(true);
+	}
+
 	/**
 	 * A callback method used for slot actuation.
 	 *
@@ -253,15 +454,35 @@ public abstract class Signal<R> {
 		private final Connection connection;
 
 		/**
-		 * The arguments to pass to {@link #connection}.
+		 * The arguments to pass to {@link #connection}. Taken, i.e. set to
+		 * {@code null}, when the slot is actuated.
 		 */
-		private final Object[] arguments;
+		private final AtomicReference<Object[]> arguments;
 
 		/**
 		 * The result.
 		 */
 		private final AtomicReference<R> result = new AtomicReference<>(null);
 
+		/**
+		 * The completion of this actuation, if someone waits for it.
+		 *
+		 * @see #future()
+		 */
+		private CompletableFuture<R> future;
+
+		/**
+		 * Whether this actuation has been queued by its {@link Dispatcher}.
+		 */
+		boolean queued;
+
+		/**
+		 * Whether this actuation has been queued while {@link Metrics} were
+		 * enabled, and since when.
+		 */
+		boolean measured;
+		long queuedAt;
+
 		/**
 		 * Creates a new instance with given slot and arguments.
 		 *
@@ -272,7 +493,7 @@ public abstract class Signal<R> {
 		 */
 		private SlotActuation(final Connection conn, final Object... args) {
 			connection = Objects.requireNonNull(conn);
-			arguments = Objects.requireNonNull(args);
+			arguments = new AtomicReference<>(Objects.requireNonNull(args));
 		}
 
 		/**
@@ -283,15 +504,79 @@ public abstract class Signal<R> {
 			return connection;
 		}
 
+		/**
+		 * Gets the emitted signal.
+		 * @return the signal
+		 */
+		Signal<R> getSignal() {
+			return Signal.this;
+		}
+
+		/**
+		 * Replaces the arguments of this actuation with the arguments of the given
+		 * one, if this actuation has not been actuated yet.
+		 *
+		 * @see Connection.Type#COALESCE
+		 * @param other The newer actuation of the same connection.
+		 * @return true if the arguments have been replaced, false if this actuation has already been actuated
+		 */
+		boolean coalesce(final Signal<?>.SlotActuation other) {
+			final Object[] replacement = other.arguments.get();
+			Object[] current;
+			do {
+				current = arguments.get();
+				if (current == null) return false;
+			} while (!arguments.compareAndSet(current, replacement));
+			return true;
+		}
+
+		/**
+		 * Returns the completion of this actuation, creating it if necessary.
+		 * Must be called by the signalling thread before the actuation is
+		 * queued.
+		 *
+		 * @return the completion of this actuation
+		 */
+		CompletableFuture<R> future() {
+			if (future == null) future = new CompletableFuture<>();
+			return future;
+		}
+
+		/**
+		 * Discards this actuation without actuating the slot. A waiting
+		 * signalling thread is released with the given exception.
+		 *
+		 * @param e The reason.
+		 */
+		void reject(final RuntimeException e) {
+			if (arguments.getAndSet(null) != null && future != null) future.completeExceptionally(e);
+		}
+
 		/**
 		 * Actuates {@link #connection} with its arguments {@link #arguments}.
 		 */
 		void actuate() {
-			result.set(Signal.this.actuate(connection.slot, arguments));
-			if (connection.singleShot) {
+			final Object[] args = arguments.getAndSet(null);
+			if (args == null) return;
+			final Metrics metrics = Signal.metrics;
+			final long start = metrics == null ? 0 : System.nanoTime();
+			final Slot<?> slot = connection.slot();
+			if (slot == null) {
 				connection.setBroken(true);
-				connections.remove(connection);
+				if (future != null) future.complete(null);
+				return;
+			}
+			final R r;
+			try {
+				r = Signal.this.actuate(slot, args);
+			} catch (final RuntimeException e) {
+				if (future != null) future.completeExceptionally(e);
+				throw e;
 			}
+			if (metrics != null) metrics.actuated(Signal.this, connection.dispatcher, !queued, System.nanoTime() - start);
+			result.set(r);
+			actuated(connection);
+			if (future != null) future.complete(r);
 		}
 
 		/**
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A signal with no argument.
  *
@@ -14,6 +16,13 @@ public class Signal0<R> extends FunctionalSignal<Slot0<R>, R> {
 		return super.emit();
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<R> emitAsync() {
+		return super.emitAsync();
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected R actuate(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A signal with 1 generic argument.
  *
@@ -15,6 +17,13 @@ public class Signal1<A, R> extends FunctionalSignal<Slot1<A, R>, R> {
 		return super.emit(a);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<R> emitAsync(A a) {
+		return super.emitAsync(a);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected R actuate(Slot<?> slot, Object... args) {
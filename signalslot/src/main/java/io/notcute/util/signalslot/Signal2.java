@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A signal with 2 generic arguments.
  *
@@ -16,6 +18,13 @@ public class Signal2<A, B, R> extends FunctionalSignal<Slot2<A, B, R>, R> {
 		return super.emit(a, b);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<R> emitAsync(A a, B b) {
+		return super.emitAsync(a, b);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected R actuate(Slot<?> slot, Object... args) {
@@ -1,5 +1,7 @@
 package io.notcute.util.signalslot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A signal with 3 generic arguments.
  *
@@ -17,6 +19,13 @@ public class Signal3<A, B, C, R> extends FunctionalSignal<Slot3<A, B, C, R>, R>
 		return super.emit(a, b, c);
 	}
 
+	/**
+	 * @see Signal#invokeAsync(Object...)
+	 */
+	public CompletableFuture<R> emitAsync(A a, B b, C c) {
+		return super.emitAsync(a, b, c);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected R actuate(Slot<?> slot, Object... args) {
@@ -71,6 +71,11 @@ public class SimpleDispatcher extends Dispatcher {
         workerThreadName = Objects.requireNonNull(name);
     }
 
+    @Override
+    public String toString() {
+        return workerThreadName;
+    }
+
     /**
      * Creates a new {@link Thread} which runs {@link #run()}. Does nothing if
      * there already is a running thread.
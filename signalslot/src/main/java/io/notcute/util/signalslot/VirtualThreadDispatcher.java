@@ -0,0 +1,262 @@
+package io.notcute.util.signalslot;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Dispatcher} implementation without a dedicated worker thread.
+ * Each connection gets its own serialized lane, so the slots of one
+ * connection are still actuated in order and never concurrently. A lane
+ * only occupies a thread while it has pending slots; the thread is started
+ * when the first slot is queued and finishes once the lane is drained.
+ * <p>
+ * On a runtime which supports virtual threads (Java 21 and later), lanes
+ * run on virtual threads, so thousands of receivers can each have an ordered
+ * lane without a platform thread each. Otherwise, lanes run on a shared pool
+ * of daemon platform threads which are discarded when idle. The runtime
+ * is detected once by reflection, see {@link #isVirtual()}.
+ * <p>
+ * Unlike {@link SimpleDispatcher}, this dispatcher needs neither
+ * {@link #run()} nor a start; lanes are created on demand and are collected
+ * with their connections.
+ *
+ * @see Dispatcher
+ * @see PoolDispatcher
+ */
+public class VirtualThreadDispatcher extends Dispatcher {
+
+    /**
+     * The factory of virtual threads, {@code null} if the runtime does not support them.
+     */
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = virtualThreadFactory();
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            // Thread.ofVirtual().name("VirtualThreadDispatcher-", 0).factory()
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "VirtualThreadDispatcher-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        }
+        catch (final ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The shared pool of daemon platform threads, used if virtual threads are not supported.
+     */
+    private static volatile ExecutorService fallbackExecutor = null;
+
+    private static Executor fallbackExecutor() {
+        ExecutorService executor = fallbackExecutor;
+        if (executor == null) {
+            synchronized (VirtualThreadDispatcher.class) {
+                executor = fallbackExecutor;
+                if (executor == null) {
+                    final AtomicInteger threadNumber = new AtomicInteger(0);
+                    executor = Executors.newCachedThreadPool(runnable -> {
+                        final Thread thread = new Thread(runnable, "VirtualThreadDispatcher-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    fallbackExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns whether lanes run on virtual threads.
+     *
+     * @return true if the runtime supports virtual threads, false if lanes run on platform threads
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * The lane running in the current thread, if any.
+     */
+    private final ThreadLocal<Lane> currentLane = new ThreadLocal<>();
+
+    /**
+     * The name of the dispatcher.
+     */
+    private final String name;
+
+    /**
+     * This ID is used to generate dispatcher names.
+     */
+    private final static AtomicInteger nextSerialNumber = new AtomicInteger(0);
+    private static int serialNumber() {
+        return nextSerialNumber.getAndIncrement();
+    }
+
+    /**
+     * A serialized lane of one connection. It is drained in a thread of its
+     * own while it has pending slots.
+     */
+    private final class Lane extends Dispatcher {
+
+        private final Queue<Signal<?>.SlotActuation> slots = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Drains this lane, see {@link #drain()}.
+         */
+        private final Runnable drain = this::drain;
+
+        /**
+         * Whether a thread has been started to drain this lane.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        private Lane() {
+            onError().connect(VirtualThreadDispatcher.this.onError()::emit, Connection.Type.DIRECT);
+        }
+
+        @Override
+        protected boolean isDispatchThread() {
+            return currentLane.get() == this;
+        }
+
+        @Override
+        protected void switchContext() {
+            dispatch();
+        }
+
+        @Override
+        public int getBatchSize() {
+            return VirtualThreadDispatcher.this.getBatchSize();
+        }
+
+        @Override
+        protected void beforeActuation() {
+            VirtualThreadDispatcher.this.beforeActuation();
+        }
+
+        @Override
+        protected void afterActuation() {
+            VirtualThreadDispatcher.this.afterActuation();
+        }
+
+        @Override
+        void enqueue(final Signal<?>.SlotActuation slotActuation) {
+            slots.add(slotActuation);
+            if (scheduled.compareAndSet(false, true)) execute(drain);
+        }
+
+        @Override
+        Signal<?>.SlotActuation poll() {
+            return slots.poll();
+        }
+
+        /**
+         * Does nothing. A lane is drained by the thread started when its
+         * first pending slot is queued, so there is nothing to wait for.
+         */
+        @Override
+        void await() {
+        }
+
+        @Override
+        void drained(final int dispatched) {
+        }
+
+        @Override
+        Dispatcher metricsOwner() {
+            return VirtualThreadDispatcher.this;
+        }
+
+        /**
+         * Actuates the pending slots of this lane until it is empty.
+         */
+        private void drain() {
+            currentLane.set(this);
+            try {
+                for (;;) {
+                    while (!slots.isEmpty()) dispatch();
+                    scheduled.set(false);
+                    // A slot queued after the last check but before resetting
+                    // the flag did not start a thread, so drain it here
+                    if (slots.isEmpty() || !scheduled.compareAndSet(false, true)) break;
+                }
+            }
+            finally {
+                currentLane.remove();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+    }
+
+    @Override
+    protected boolean isDispatchThread() {
+        return currentLane.get() != null;
+    }
+
+    @Override
+    protected void switchContext() {
+        dispatch();
+    }
+
+    @Override
+    Dispatcher laneOf(final Connection conn) {
+        Dispatcher lane = conn.lane;
+        if (lane == null) {
+            synchronized (conn) {
+                lane = conn.lane;
+                if (lane == null) {
+                    lane = new Lane();
+                    conn.lane = lane;
+                }
+            }
+        }
+        return lane;
+    }
+
+    /**
+     * Creates a new dispatcher.
+     */
+    public VirtualThreadDispatcher() {
+        this("VirtualThreadDispatcher-" + serialNumber());
+    }
+
+    /**
+     * Creates a new dispatcher with the specified name.
+     *
+     * @param name the name of the dispatcher
+     * @throws NullPointerException if {@code name} is null
+     */
+    public VirtualThreadDispatcher(final String name) throws NullPointerException {
+        this.name = Objects.requireNonNull(name);
+    }
+
+    /**
+     * Starts a thread which drains a lane.
+     *
+     * @param drain the drain of the lane
+     */
+    private static void execute(final Runnable drain) {
+        if (VIRTUAL_THREAD_FACTORY == null) fallbackExecutor().execute(drain);
+        else VIRTUAL_THREAD_FACTORY.newThread(drain).start();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
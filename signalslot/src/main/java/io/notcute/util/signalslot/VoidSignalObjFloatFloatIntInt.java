@@ -0,0 +1,53 @@
+package io.notcute.util.signalslot;
+
+/**
+ * A void signal with a generic argument followed by primitive arguments
+ * ({@code A, float, float, int, int}). Connections which are actuated directly in the
+ * signalling thread are invoked without boxing the arguments and without
+ * any allocation; queued connections box the arguments as usual.
+ *
+ * @param <A> The type of the first argument.
+ */
+public class VoidSignalObjFloatFloatIntInt<A> extends FunctionalVoidSignal<VoidSlotObjFloatFloatIntInt<A>> {
+
+	/**
+	 * @see Signal#invoke(Object...)
+	 */
+	@SuppressWarnings("unchecked")
+	public void emit(A a, float b, float c, int d, int e) {
+		if (!isEnabled()) return;
+		final Connection[] connections = connections();
+		final Metrics metrics = getMetrics();
+		if (metrics != null) metrics.emitted(this, connections.length);
+		Object[] args = null;
+		boolean prune = false;
+		for (final Connection connection : connections) {
+			if (connection.isBroken()) {
+				prune = true;
+				continue;
+			}
+			final Slot<?> slot = connection.slot();
+			if (slot instanceof VoidSlotObjFloatFloatIntInt && connection.dispatcher.isDirect(connection)) {
+				final long start = metrics == null ? 0 : System.nanoTime();
+				((VoidSlotObjFloatFloatIntInt<A>) slot).accept(a, b, c, d, e);
+				if (metrics != null) metrics.actuated(this, connection.dispatcher, true, System.nanoTime() - start);
+				actuated(connection);
+			}
+			else {
+				if (args == null) args = new Object[] { a, b, c, d, e };
+				invoke(connection, args);
+			}
+			prune |= connection.isBroken();
+		}
+		if (prune) prune();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void actuateVoid(Slot<?> slot, Object... args) {
+		if (slot instanceof DynamicVoidSlot) ((DynamicVoidSlot) slot).accept(args);
+		else if (slot instanceof VoidSlotObjFloatFloatIntInt) ((VoidSlotObjFloatFloatIntInt<A>) slot).accept((A) args[0], (Float) args[1], (Float) args[2], (Integer) args[3], (Integer) args[4]);
+		else throw new IllegalArgumentException("Invalid slot type: " + slot.getClass());
+	}
+
+}
@@ -0,0 +1,26 @@
+package io.notcute.util.signalslot;
+
+import java.util.Objects;
+
+/**
+ * A void slot with a generic argument followed by primitive arguments
+ * ({@code A, float, float}), which is actuated without boxing by
+ * {@link VoidSignalObjFloatFloat}.
+ *
+ * @param <A> The type of the first argument.
+ */
+@FunctionalInterface
+public interface VoidSlotObjFloatFloat<A> extends FunctionalVoidSlot {
+
+	void accept(A a, float b, float c);
+
+	default VoidSlotObjFloatFloat<A> andThen(
+			VoidSlotObjFloatFloat<? super A> after) {
+		Objects.requireNonNull(after);
+		return (a, b, c) -> {
+			accept(a, b, c);
+			after.accept(a, b, c);
+		};
+	}
+
+}
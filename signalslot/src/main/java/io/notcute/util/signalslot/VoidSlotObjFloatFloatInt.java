@@ -0,0 +1,26 @@
+package io.notcute.util.signalslot;
+
+import java.util.Objects;
+
+/**
+ * A void slot with a generic argument followed by primitive arguments
+ * ({@code A, float, float, int}), which is actuated without boxing by
+ * {@link VoidSignalObjFloatFloatInt}.
+ *
+ * @param <A> The type of the first argument.
+ */
+@FunctionalInterface
+public interface VoidSlotObjFloatFloatInt<A> extends FunctionalVoidSlot {
+
+	void accept(A a, float b, float c, int d);
+
+	default VoidSlotObjFloatFloatInt<A> andThen(
+			VoidSlotObjFloatFloatInt<? super A> after) {
+		Objects.requireNonNull(after);
+		return (a, b, c, d) -> {
+			accept(a, b, c, d);
+			after.accept(a, b, c, d);
+		};
+	}
+
+}
@@ -0,0 +1,26 @@
+package io.notcute.util.signalslot;
+
+import java.util.Objects;
+
+/**
+ * A void slot with a generic argument followed by primitive arguments
+ * ({@code A, float, float, int, int}), which is actuated without boxing by
+ * {@link VoidSignalObjFloatFloatIntInt}.
+ *
+ * @param <A> The type of the first argument.
+ */
+@FunctionalInterface
+public interface VoidSlotObjFloatFloatIntInt<A> extends FunctionalVoidSlot {
+
+	void accept(A a, float b, float c, int d, int e);
+
+	default VoidSlotObjFloatFloatIntInt<A> andThen(
+			VoidSlotObjFloatFloatIntInt<? super A> after) {
+		Objects.requireNonNull(after);
+		return (a, b, c, d, e) -> {
+			accept(a, b, c, d, e);
+			after.accept(a, b, c, d, e);
+		};
+	}
+
+}
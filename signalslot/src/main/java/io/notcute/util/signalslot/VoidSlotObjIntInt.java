@@ -0,0 +1,26 @@
+package io.notcute.util.signalslot;
+
+import java.util.Objects;
+
+/**
+ * A void slot with a generic argument followed by primitive arguments
+ * ({@code A, int, int}), which is actuated without boxing by
+ * {@link VoidSignalObjIntInt}.
+ *
+ * @param <A> The type of the first argument.
+ */
+@FunctionalInterface
+public interface VoidSlotObjIntInt<A> extends FunctionalVoidSlot {
+
+	void accept(A a, int b, int c);
+
+	default VoidSlotObjIntInt<A> andThen(
+			VoidSlotObjIntInt<? super A> after) {
+		Objects.requireNonNull(after);
+		return (a, b, c) -> {
+			accept(a, b, c);
+			after.accept(a, b, c);
+		};
+	}
+
+}
@@ -0,0 +1,101 @@
+package io.notcute.util.signalslot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalesceFloodTest {
+
+    private static final int EMITS = 100_000;
+
+    /**
+     * Dispatches everything queued on the given (not started) dispatcher.
+     *
+     * @return the number of queued actuations
+     */
+    private static int drain(SimpleDispatcher dispatcher) {
+        int queued = 0;
+        Signal<?>.SlotActuation slotActuation;
+        while ((slotActuation = dispatcher.poll()) != null) {
+            dispatcher.dequeued(slotActuation, true);
+            slotActuation.actuate();
+            queued ++;
+        }
+        return queued;
+    }
+
+    @Test
+    public void coalescedFloodKeepsOnePendingActuation() {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        VoidSignal1<Integer> signal = new VoidSignal1<>();
+        AtomicInteger actuations = new AtomicInteger();
+        AtomicReference<Integer> last = new AtomicReference<>();
+        signal.connect(value -> {
+            actuations.incrementAndGet();
+            last.set(value);
+        }, dispatcher, Connection.Type.QUEUED | Connection.Type.COALESCE);
+
+        for (int i = 0; i < EMITS; i ++) {
+            signal.emit(i);
+        }
+        assertEquals(1, drain(dispatcher));
+        assertEquals(1, actuations.get());
+        assertEquals(EMITS - 1, (int) last.get());
+
+        // A new actuation is queued once the pending one has been dispatched
+        signal.emit(-1);
+        assertEquals(1, drain(dispatcher));
+        assertEquals(-1, (int) last.get());
+    }
+
+    @Test
+    public void uncoalescedFloodQueuesEveryActuation() {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        VoidSignal1<Integer> signal = new VoidSignal1<>();
+        AtomicInteger actuations = new AtomicInteger();
+        signal.connect(value -> actuations.incrementAndGet(), dispatcher, Connection.Type.QUEUED);
+
+        for (int i = 0; i < EMITS; i ++) {
+            signal.emit(i);
+        }
+        assertEquals(EMITS, drain(dispatcher));
+        assertEquals(EMITS, actuations.get());
+    }
+
+    @Test
+    public void coalescedFloodDeliversLatestToRunningDispatcher() throws InterruptedException {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        dispatcher.start();
+        try {
+            VoidSignal1<Integer> signal = new VoidSignal1<>();
+            AtomicInteger actuations = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(1);
+            signal.connect(value -> {
+                actuations.incrementAndGet();
+                // Slower than the emitter, so the queue would grow without coalescing
+                try {
+                    Thread.sleep(1);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (value == EMITS - 1) done.countDown();
+            }, dispatcher, Connection.Type.QUEUED | Connection.Type.COALESCE);
+
+            for (int i = 0; i < EMITS; i ++) {
+                signal.emit(i);
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS), "The latest arguments have not been delivered");
+            assertTrue(actuations.get() < EMITS / 10, "Actuations: " + actuations.get());
+        }
+        finally {
+            dispatcher.stop();
+        }
+    }
+
+}
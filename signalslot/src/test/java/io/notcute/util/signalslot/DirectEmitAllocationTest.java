@@ -0,0 +1,84 @@
+package io.notcute.util.signalslot;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DirectEmitAllocationTest {
+
+    private static final int EMITS = 100_000;
+
+    private long sum = 0;
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "No allocation counter");
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "No allocation counter");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        return threadMXBean;
+    }
+
+    private void emit(VoidSignalObjIntInt<Object> signal, Object a, int count) {
+        for (int i = 0; i < count; i ++) {
+            signal.emit(a, i, -i);
+        }
+    }
+
+    private void emit(VoidSignalObjFloatFloatIntInt<Object> signal, Object a, int count) {
+        for (int i = 0; i < count; i ++) {
+            signal.emit(a, i, -i, i, -i);
+        }
+    }
+
+    @Test
+    public void directEmitDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Object a = new Object();
+
+        VoidSignalObjIntInt<Object> intSignal = new VoidSignalObjIntInt<>();
+        intSignal.connect((x, b, c) -> sum += b + c, Connection.Type.DIRECT);
+        intSignal.connect((x, b, c) -> sum -= b + c, Connection.Type.DIRECT);
+        VoidSignalObjFloatFloatIntInt<Object> floatSignal = new VoidSignalObjFloatFloatIntInt<>();
+        floatSignal.connect((x, b, c, d, e) -> sum += (long) (b + c) + d + e, Connection.Type.DIRECT);
+
+        // Warm up, so the emit loops are compiled
+        for (int i = 0; i < 20; i ++) {
+            emit(intSignal, a, EMITS);
+            emit(floatSignal, a, EMITS);
+        }
+
+        // The allocation of the counter itself
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i ++) {
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            overhead = Math.min(overhead, threadMXBean.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        long allocated = Long.MAX_VALUE;
+        for (int i = 0; i < 10 && allocated > 0; i ++) {
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            emit(intSignal, a, EMITS);
+            emit(floatSignal, a, EMITS);
+            allocated = Math.min(allocated, threadMXBean.getThreadAllocatedBytes(threadId) - before - overhead);
+        }
+        assertEquals(0, allocated, "Bytes allocated by " + EMITS + " direct emits");
+    }
+
+    @Test
+    public void queuedEmitStillDelivers() {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        VoidSignalObjIntInt<String> signal = new VoidSignalObjIntInt<>();
+        StringBuilder builder = new StringBuilder();
+        signal.connect((a, b, c) -> builder.append(a).append(b).append(c), dispatcher, Connection.Type.QUEUED);
+        signal.emit("x", 1, 2);
+        assertEquals(0, builder.length());
+        dispatcher.dispatch();
+        assertEquals("x12", builder.toString());
+    }
+
+}
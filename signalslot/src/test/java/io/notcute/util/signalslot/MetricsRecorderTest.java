@@ -0,0 +1,58 @@
+package io.notcute.util.signalslot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRecorderTest {
+
+    @Test
+    public void unnamedSignalsAreAggregatedPerClass() {
+        MetricsRecorder recorder = new MetricsRecorder();
+        Signal.setMetrics(recorder);
+        try {
+            for (int i = 0; i < 1000; i ++) {
+                VoidSignal0 signal = new VoidSignal0();
+                signal.connect(() -> { }, Connection.Type.DIRECT);
+                signal.emit();
+            }
+            VoidSignal0 named = new VoidSignal0();
+            named.setName("Test.named");
+            named.emit();
+        }
+        finally {
+            Signal.setMetrics(null);
+        }
+        assertEquals(2, recorder.getSignalStatistics().size());
+        assertEquals(1000, recorder.getSignalStatistics(VoidSignal0.class.getName()).getEmits());
+        assertEquals(1000, recorder.getSignalStatistics(VoidSignal0.class.getName()).getDirectActuations());
+        assertEquals(1, recorder.getSignalStatistics("Test.named").getEmits());
+    }
+
+    @Test
+    public void lanesCountForTheirDispatcher() throws InterruptedException {
+        MetricsRecorder recorder = new MetricsRecorder();
+        VirtualThreadDispatcher dispatcher = new VirtualThreadDispatcher();
+        CountDownLatch done = new CountDownLatch(100);
+        Signal.setMetrics(recorder);
+        try {
+            for (int i = 0; i < 100; i ++) {
+                VoidSignal0 signal = new VoidSignal0();
+                signal.connect(done::countDown, dispatcher, Connection.Type.QUEUED);
+                signal.emit();
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+        finally {
+            Signal.setMetrics(null);
+        }
+        assertEquals(1, recorder.getDispatcherStatistics().size());
+        MetricsRecorder.DispatcherStatistics statistics = recorder.getDispatcherStatistics(dispatcher);
+        assertNotNull(statistics);
+        assertEquals(100, statistics.getQueued());
+    }
+
+}
@@ -0,0 +1,66 @@
+package io.notcute.util.signalslot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolDispatcherTest {
+
+    private static final int SLOTS = 10;
+
+    private static class CountingDispatcher extends PoolDispatcher {
+        private final AtomicInteger before = new AtomicInteger();
+        private final AtomicInteger after = new AtomicInteger();
+        private final AtomicInteger outsideWorker = new AtomicInteger();
+        private final CountDownLatch batchDone = new CountDownLatch(1);
+        private CountingDispatcher() {
+            super(1);
+        }
+        @Override
+        protected void beforeActuation() {
+            if (!isDispatchThread()) outsideWorker.incrementAndGet();
+            before.incrementAndGet();
+        }
+        @Override
+        protected void afterActuation() {
+            after.incrementAndGet();
+            batchDone.countDown();
+        }
+    }
+
+    @Test
+    public void lanesRunCallbacksOncePerBatchAndCountForThePool() throws InterruptedException {
+        MetricsRecorder recorder = new MetricsRecorder();
+        CountingDispatcher dispatcher = new CountingDispatcher();
+        dispatcher.setBatchSize(SLOTS);
+        AtomicInteger actuations = new AtomicInteger();
+        Signal.setMetrics(recorder);
+        try {
+            for (int i = 0; i < SLOTS; i ++) {
+                VoidSignal0 signal = new VoidSignal0();
+                signal.connect(actuations::incrementAndGet, dispatcher, Connection.Type.QUEUED);
+                signal.emit();
+            }
+            // All slots are pending before the worker starts, so they form one batch
+            dispatcher.start();
+            assertTrue(dispatcher.batchDone.await(10, TimeUnit.SECONDS));
+        }
+        finally {
+            dispatcher.stop();
+            Signal.setMetrics(null);
+        }
+        assertEquals(SLOTS, actuations.get());
+        assertEquals(1, dispatcher.before.get());
+        assertEquals(1, dispatcher.after.get());
+        assertEquals(0, dispatcher.outsideWorker.get());
+        assertEquals(1, recorder.getDispatcherStatistics().size());
+        MetricsRecorder.DispatcherStatistics statistics = recorder.getDispatcherStatistics(dispatcher);
+        assertNotNull(statistics);
+        assertEquals(SLOTS, statistics.getQueued());
+    }
+
+}
@@ -0,0 +1,134 @@
+package io.notcute.util.signalslot;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeakConnectionTest {
+
+    private static final int ROUNDS = 20;
+    private static final int WIDGETS = 1_000;
+    private static final int KEPT = 10;
+    private static final int EMITS = 10_000;
+
+    private static final class Widget {
+        private int stops = 0;
+        private final VoidSlot0 onStop = this::stop;
+        private void stop() {
+            stops ++;
+        }
+    }
+
+    /**
+     * Runs the garbage collector until the given reference has been cleared.
+     */
+    private static void collect(WeakReference<?> reference) throws InterruptedException {
+        for (int i = 0; i < 100 && reference.get() != null; i ++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get(), "The garbage collector did not run");
+    }
+
+    /**
+     * Runs the given action until the signal has the expected number of connections, as
+     * the garbage collector may clear the slots over several runs, and the reference handler
+     * enqueues cleared references asynchronously.
+     */
+    private static void awaitConnections(Signal<?> signal, int expected, Runnable action) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        action.run();
+        while (signal.connections().length != expected && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+            action.run();
+        }
+        assertEquals(expected, signal.connections().length);
+    }
+
+    /**
+     * Returns the fastest time of a batch of emits, in nanoseconds per emit.
+     */
+    private static double emitNanos(VoidSignal0 signal) {
+        long best = Long.MAX_VALUE;
+        for (int batch = 0; batch < 20; batch ++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < EMITS; i ++) {
+                signal.emit();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / EMITS;
+    }
+
+    @Test
+    public void discardedWidgetsAreExpunged() throws InterruptedException {
+        VoidSignal0 signal = new VoidSignal0();
+        List<Widget> kept = new ArrayList<>();
+        for (int i = 0; i < KEPT; i ++) {
+            Widget widget = new Widget();
+            kept.add(widget);
+            signal.connect(widget.onStop, Connection.Type.DIRECT | Connection.Type.WEAK);
+        }
+        double firstNanos = 0;
+        for (int round = 0; round < ROUNDS; round ++) {
+            WeakReference<Widget> sentinel = null;
+            for (int i = 0; i < WIDGETS; i ++) {
+                Widget widget = new Widget();
+                signal.connect(widget.onStop, Connection.Type.DIRECT | Connection.Type.WEAK);
+                sentinel = new WeakReference<>(widget);
+            }
+            collect(sentinel);
+            awaitConnections(signal, KEPT, signal::emit);
+            if (round == 0) firstNanos = emitNanos(signal);
+        }
+        // Without pruning, the last emits would iterate ROUNDS * WIDGETS dead connections
+        double lastNanos = emitNanos(signal);
+        assertTrue(lastNanos < firstNanos * 4, "Emit cost grew from " + firstNanos + " ns to " + lastNanos + " ns");
+        for (Widget widget : kept) {
+            assertTrue(widget.stops > 0);
+        }
+    }
+
+    @Test
+    public void expungeRemovesConnectionsOfSignalsNeverEmitted() throws InterruptedException {
+        VoidSignal0 idle = new VoidSignal0();
+        // Kept until all are connected, as every connect expunges what has been collected so far
+        List<Widget> widgets = new ArrayList<>();
+        for (int i = 0; i < WIDGETS; i ++) {
+            Widget widget = new Widget();
+            widgets.add(widget);
+            idle.connect(widget.onStop, Connection.Type.DIRECT | Connection.Type.WEAK);
+        }
+        assertEquals(WIDGETS, idle.connections().length);
+        WeakReference<Widget> sentinel = new WeakReference<>(widgets.get(WIDGETS - 1));
+        widgets = null;
+        collect(sentinel);
+        // Connecting any signal expunges the collected slots of all signals
+        VoidSignal0 other = new VoidSignal0();
+        awaitConnections(idle, 0, () -> other.connect(() -> { }));
+    }
+
+    @Test
+    public void copyOfCollectedWeakConnection() throws InterruptedException {
+        VoidSignal0 signal = new VoidSignal0();
+        Widget widget = new Widget();
+        Connection connection = signal.connect(widget.onStop, Connection.Type.DIRECT | Connection.Type.WEAK);
+        WeakReference<Widget> sentinel = new WeakReference<>(widget);
+        widget = null;
+        collect(sentinel);
+        assertTrue(connection.isBroken());
+
+        Connection copy = new Connection(connection);
+        assertTrue(copy.isBroken());
+        assertTrue(copy.isWeak());
+        assertEquals(connection, copy);
+        assertEquals(connection.hashCode(), copy.hashCode());
+    }
+
+}
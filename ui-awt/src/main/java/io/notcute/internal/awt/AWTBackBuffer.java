@@ -0,0 +1,185 @@
+package io.notcute.internal.awt;
+
+import java.awt.AlphaComposite;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * A persistent back buffer of a component, with the damage region accumulated
+ * since the last repaint. Damage may be added from any thread; the buffer
+ * itself must only be used on the event dispatch thread.
+ * <p>
+ * The buffer is sized in device pixels, using the scale of the default transform of
+ * the component's graphics configuration, so painting stays sharp on HiDPI displays.
+ * Damage is added in component coordinates, and taken in device pixels.
+ */
+public final class AWTBackBuffer {
+
+    private final int transparency;
+    private volatile BufferedImage image = null;
+    private double scaleX = 1, scaleY = 1;
+
+    // The damage region, empty if left >= right or top >= bottom
+    private int left, top, right, bottom;
+
+    /**
+     * Creates a new back buffer.
+     *
+     * @param transparency the transparency of the buffer, see {@link Transparency}
+     */
+    public AWTBackBuffer(int transparency) {
+        this.transparency = transparency;
+        addDamage();
+    }
+
+    /**
+     * Adds the whole surface to the damage region.
+     */
+    public synchronized void addDamage() {
+        left = top = Integer.MIN_VALUE;
+        right = bottom = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Adds the given region to the damage region, rounded outwards to whole pixels.
+     */
+    public synchronized void addDamage(float x, float y, float width, float height) {
+        if (!(width > 0 && height > 0)) return;
+        int x1 = (int) Math.floor(x), y1 = (int) Math.floor(y);
+        int x2 = (int) Math.ceil(x + width), y2 = (int) Math.ceil(y + height);
+        if (left >= right || top >= bottom) {
+            left = x1;
+            top = y1;
+            right = x2;
+            bottom = y2;
+        }
+        else {
+            left = Math.min(left, x1);
+            top = Math.min(top, y1);
+            right = Math.max(right, x2);
+            bottom = Math.max(bottom, y2);
+        }
+    }
+
+    /**
+     * Validates the buffer against the size and scale of the given component, then takes
+     * and resets the damage region. A new or resized buffer is damaged entirely.
+     *
+     * @param component the component
+     * @param region the rectangle to store the damage region in device pixels, clipped to the buffer
+     * @return true if there is anything to repaint, false otherwise
+     */
+    public synchronized boolean takeDamage(Component component, Rectangle region) {
+        int width = component.getWidth(), height = component.getHeight();
+        if (width < 1 || height < 1) return false;
+        GraphicsConfiguration configuration = component.getGraphicsConfiguration();
+        double scaleX = 1, scaleY = 1;
+        if (configuration != null) {
+            AffineTransform transform = configuration.getDefaultTransform();
+            scaleX = transform.getScaleX();
+            scaleY = transform.getScaleY();
+        }
+        int deviceWidth = (int) Math.ceil(width * scaleX), deviceHeight = (int) Math.ceil(height * scaleY);
+        BufferedImage image = this.image;
+        if (image == null || image.getWidth() != deviceWidth || image.getHeight() != deviceHeight
+                || scaleX != this.scaleX || scaleY != this.scaleY) {
+            if (image != null) image.flush();
+            if (configuration == null) image = new BufferedImage(deviceWidth, deviceHeight,
+                    transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            else image = configuration.createCompatibleImage(deviceWidth, deviceHeight, transparency);
+            this.image = image;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            addDamage();
+        }
+        int x1 = Math.max(left, 0), y1 = Math.max(top, 0);
+        int x2 = Math.min(right, width), y2 = Math.min(bottom, height);
+        left = top = right = bottom = 0;
+        if (x1 >= x2 || y1 >= y2) return false;
+        // Rounded outwards, so that pixels partially covered by the damage are repainted
+        int deviceX1 = (int) Math.floor(x1 * scaleX), deviceY1 = (int) Math.floor(y1 * scaleY);
+        int deviceX2 = x2 == width ? deviceWidth : Math.min((int) Math.ceil(x2 * scaleX), deviceWidth);
+        int deviceY2 = y2 == height ? deviceHeight : Math.min((int) Math.ceil(y2 * scaleY), deviceHeight);
+        region.setBounds(deviceX1, deviceY1, deviceX2 - deviceX1, deviceY2 - deviceY1);
+        return true;
+    }
+
+    /**
+     * Stores the bounds of the whole buffer in device pixels.
+     *
+     * @param region the rectangle to store the bounds
+     */
+    public void getBounds(Rectangle region) {
+        BufferedImage image = this.image;
+        if (image == null) region.setBounds(0, 0, 0, 0);
+        else region.setBounds(0, 0, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Creates a graphics to paint the given region of the buffer, in component coordinates.
+     *
+     * @param region the region to paint in device pixels, as taken by {@link #takeDamage(Component, Rectangle)}
+     * @return the graphics, null if there is no buffer
+     */
+    public Graphics2D createGraphics(Rectangle region) {
+        BufferedImage image = this.image;
+        if (image == null) return null;
+        Graphics2D g = image.createGraphics();
+        // Clipped in device space, so the clip matches the pixels blitted later
+        g.clipRect(region.x, region.y, region.width, region.height);
+        g.scale(scaleX, scaleY);
+        return g;
+    }
+
+    /**
+     * Replaces the contents of the buffer with the given image in component pixels,
+     * e.g. a full snapshot, if the buffer is not scaled.
+     *
+     * @param contents the image
+     * @return true if the contents have been replaced, false if the buffer is scaled and
+     * must be painted instead to stay sharp, or if there is no buffer
+     */
+    public boolean setContents(BufferedImage contents) {
+        BufferedImage image = this.image;
+        if (image == null || scaleX != 1 || scaleY != 1) return false;
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(contents, 0, 0, null);
+        g.dispose();
+        return true;
+    }
+
+    /**
+     * Draws the buffer 1:1 in device pixels to the given graphics of the component,
+     * e.g. of its buffer strategy, which is scaled by the default transform.
+     *
+     * @param g the graphics of the component
+     * @param region the region to draw in device pixels, null to draw the whole buffer
+     */
+    public void drawTo(Graphics2D g, Rectangle region) {
+        BufferedImage image = this.image;
+        if (image == null) return;
+        AffineTransform transform = g.getTransform();
+        // Keep only the translation, which is already in device pixels
+        g.setTransform(AffineTransform.getTranslateInstance(transform.getTranslateX(), transform.getTranslateY()));
+        if (region != null) g.clipRect(region.x, region.y, region.width, region.height);
+        g.drawImage(image, 0, 0, null);
+        g.setTransform(transform);
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public void dispose() {
+        BufferedImage image = this.image;
+        this.image = null;
+        if (image != null) image.flush();
+    }
+
+}
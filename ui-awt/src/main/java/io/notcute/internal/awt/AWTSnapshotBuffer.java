@@ -0,0 +1,207 @@
+package io.notcute.internal.awt;
+
+import io.notcute.g2d.awt.AWTImage;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.IntBuffer;
+import java.util.Objects;
+
+/**
+ * A pool of snapshot images of a component, keyed by size and handed out
+ * in turn, so continuous snapshots do not allocate a full-window image each.
+ * A handed out image is overwritten after {@code count} further snapshots;
+ * receivers which keep it longer must clone it.
+ * <p>
+ * Optionally, each snapshot is streamed into a caller-supplied {@code int[]}
+ * or {@link IntBuffer} as ARGB pixels, without an {@link AWTImage} per frame.
+ * Snapshots which do not fit the stream target, e.g. after a resize, are skipped.
+ * <p>
+ * The pool must only be used on the event dispatch thread; the stream target
+ * may be set from any thread.
+ */
+public final class AWTSnapshotBuffer {
+
+    private final BufferedImage[] images;
+    private final AWTImage[] wrappers;
+    private int index = -1;
+
+    private int[] streamArray = null;
+    private int streamOffset, streamStride;
+    private IntBuffer streamBuffer = null;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param count the number of images handed out in turn, at least 1
+     */
+    public AWTSnapshotBuffer(int count) {
+        if (count < 1) throw new IllegalArgumentException("Invalid count: " + count);
+        images = new BufferedImage[count];
+        wrappers = new AWTImage[count];
+    }
+
+    /**
+     * Returns the next image of the pool, reallocating the pool if the size differs.
+     * The contents of the image are undefined.
+     *
+     * @param width the width of the snapshot
+     * @param height the height of the snapshot
+     * @return the image to render the snapshot into
+     */
+    public BufferedImage acquire(int width, int height) {
+        index = (index + 1) % images.length;
+        BufferedImage image = images[index];
+        if (image != null && (image.getWidth() != width || image.getHeight() != height)) {
+            clear();
+            index = 0;
+            image = null;
+        }
+        if (image == null) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            images[index] = image;
+        }
+        return image;
+    }
+
+    /**
+     * Returns the last acquired image, wrapped. The wrapper is reused as long as it is not disposed.
+     *
+     * @return the snapshot image
+     */
+    public AWTImage getImage() {
+        AWTImage wrapper = wrappers[index];
+        if (wrapper == null || wrapper.isDisposed()) {
+            wrapper = new AWTImage(images[index]);
+            wrappers[index] = wrapper;
+        }
+        return wrapper;
+    }
+
+    /**
+     * Returned by {@link #stream()} if the snapshot has been copied into the stream target.
+     */
+    public static final int STREAMED = 0;
+    /**
+     * Returned by {@link #stream()} if there is no stream target.
+     */
+    public static final int NOT_STREAMING = 1;
+    /**
+     * Returned by {@link #stream()} if the snapshot does not fit the stream target
+     * and has been skipped, e.g. after the component has been resized.
+     */
+    public static final int DROPPED = 2;
+
+    /**
+     * Sets an array to stream snapshots into. A snapshot of width {@code w} and height {@code h}
+     * is stored row by row, the row {@code y} starting at {@code offset + y * stride}.
+     * Snapshots which do not fit the array are skipped.
+     *
+     * @param pixels the array of ARGB pixels
+     * @param offset the index of the first pixel
+     * @param stride the distance between rows
+     * @throws NullPointerException if {@code pixels} is null
+     * @throws IllegalArgumentException if {@code offset} is not within the array or {@code stride} is less than 1
+     */
+    public synchronized void setStream(int[] pixels, int offset, int stride) {
+        Objects.requireNonNull(pixels);
+        if (offset < 0 || offset > pixels.length) throw new IllegalArgumentException("Invalid offset: " + offset);
+        if (stride < 1) throw new IllegalArgumentException("Invalid stride: " + stride);
+        streamArray = pixels;
+        streamOffset = offset;
+        streamStride = stride;
+        streamBuffer = null;
+    }
+
+    /**
+     * Sets a buffer to stream snapshots into. Each snapshot is put row by row from
+     * the position of the buffer, which is kept, the rows being {@code stride} apart.
+     * Snapshots which do not fit the remaining buffer are skipped.
+     *
+     * @param pixels the buffer of ARGB pixels
+     * @param stride the distance between rows
+     * @throws NullPointerException if {@code pixels} is null
+     * @throws IllegalArgumentException if {@code stride} is less than 1
+     */
+    public synchronized void setStream(IntBuffer pixels, int stride) {
+        if (stride < 1) throw new IllegalArgumentException("Invalid stride: " + stride);
+        streamBuffer = Objects.requireNonNull(pixels);
+        streamStride = stride;
+        streamArray = null;
+    }
+
+    /**
+     * Sets a buffer to stream snapshots into. Each snapshot is put row by row from
+     * the position of the buffer, which is kept, without gaps between the rows.
+     * Snapshots which do not fit the remaining buffer are skipped.
+     *
+     * @param pixels the buffer of ARGB pixels
+     * @throws NullPointerException if {@code pixels} is null
+     */
+    public synchronized void setStream(IntBuffer pixels) {
+        streamBuffer = Objects.requireNonNull(pixels);
+        // The width of each snapshot
+        streamStride = 0;
+        streamArray = null;
+    }
+
+    /**
+     * Stops streaming snapshots.
+     */
+    public synchronized void clearStream() {
+        streamArray = null;
+        streamBuffer = null;
+    }
+
+    public synchronized boolean isStreaming() {
+        return streamArray != null || streamBuffer != null;
+    }
+
+    /**
+     * Copies the last acquired image into the stream target, if it fits.
+     *
+     * @return {@link #STREAMED} if the pixels have been streamed, {@link #NOT_STREAMING} if there
+     * is no stream target, or {@link #DROPPED} if the image does not fit the stream target
+     */
+    public synchronized int stream() {
+        if (!isStreaming()) return NOT_STREAMING;
+        BufferedImage image = images[index];
+        int width = image.getWidth(), height = image.getHeight();
+        int stride = streamStride == 0 ? width : streamStride;
+        if (stride < width) return DROPPED;
+        // The index after the last pixel, relative to the first one
+        long extent = (long) (height - 1) * stride + width;
+        int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        if (streamArray != null) {
+            if (streamOffset + extent > streamArray.length) return DROPPED;
+            for (int y = 0; y < height; y ++) {
+                System.arraycopy(data, y * width, streamArray, streamOffset + y * stride, width);
+            }
+        }
+        else {
+            if (extent > streamBuffer.remaining()) return DROPPED;
+            int position = streamBuffer.position();
+            if (stride == width) streamBuffer.put(data, 0, width * height);
+            else {
+                for (int y = 0; y < height; y ++) {
+                    streamBuffer.position(position + y * stride);
+                    streamBuffer.put(data, y * width, width);
+                }
+            }
+            streamBuffer.position(position);
+        }
+        return STREAMED;
+    }
+
+    /**
+     * Releases all pooled images. Handed out images stay valid.
+     */
+    public void clear() {
+        for (int i = 0; i < images.length; i ++) {
+            if (images[i] != null) images[i].flush();
+            images[i] = null;
+            wrappers[i] = null;
+        }
+    }
+
+}
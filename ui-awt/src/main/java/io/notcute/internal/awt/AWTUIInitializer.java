@@ -10,6 +10,7 @@ import io.notcute.context.Identifier;
 import io.notcute.context.Initializer;
 import io.notcute.context.Producer;
 import io.notcute.ui.UIKit;
+import io.notcute.ui.awt.AWTContext;
 import io.notcute.ui.awt.AWTUIKit;
 
 public class AWTUIInitializer extends Initializer {
@@ -36,7 +37,7 @@ public class AWTUIInitializer extends Initializer {
 
     private static volatile JavaSEAudioPlayer audioPlayer = null;
     public synchronized static AudioPlayer getAudioPlayer() {
-        if (audioPlayer == null) audioPlayer = new JavaSEAudioPlayer();
+        if (audioPlayer == null) audioPlayer = new JavaSEAudioPlayer(new AWTContext().getContextHolder());
         return audioPlayer;
     }
 
@@ -10,14 +10,16 @@ import io.notcute.g2d.Graphics;
 import io.notcute.g2d.GraphicsKit;
 import io.notcute.g2d.Image;
 import io.notcute.g2d.awt.AWTGraphics;
-import io.notcute.g2d.awt.AWTImage;
 import io.notcute.g2d.geom.Rectangle;
 import io.notcute.input.Input;
+import io.notcute.internal.awt.AWTBackBuffer;
 import io.notcute.internal.awt.AWTG2DUtils;
+import io.notcute.internal.awt.AWTSnapshotBuffer;
 import io.notcute.internal.awt.AWTUIUtils;
 import io.notcute.internal.awt.Desktop;
 import io.notcute.internal.awt.MouseInputListener;
 import io.notcute.ui.Cursor;
+import io.notcute.ui.FrameStatistics;
 import io.notcute.ui.G2DContext;
 import io.notcute.ui.UIKit;
 import io.notcute.util.signalslot.*;
@@ -28,7 +30,11 @@ import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URI;
+import java.nio.IntBuffer;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 public class AWTCanvas extends Canvas implements AWTG2DContext, ComponentListener, FocusListener, MouseInputListener,
         MouseWheelListener, KeyListener, HierarchyListener {
@@ -177,6 +183,11 @@ public class AWTCanvas extends Canvas implements AWTG2DContext, ComponentListene
             context.requestUpdate();
         }
 
+        @Override
+        public void requestUpdate(Rectangle dirty) {
+            context.requestUpdate(dirty);
+        }
+
         @Override
         public void requestSnapshot() {
             context.requestSnapshot();
@@ -185,15 +196,44 @@ public class AWTCanvas extends Canvas implements AWTG2DContext, ComponentListene
         private final VoidSignal2<G2DContext, Long> onUpdate = new VoidSignal2<>();
         @Override
         public VoidSignal2<G2DContext, Long> onUpdate() {
-            return null;
+            return onUpdate;
         }
 
         private final VoidSignal2<G2DContext, Image> onSnapshot = new VoidSignal2<>();
+        /**
+         * Returns the signal of snapshots. The emitted images are reused for later
+         * snapshots; slots which keep one beyond the next snapshot must clone it.
+         *
+         * @return the signal of snapshots
+         */
         @Override
         public VoidSignal2<G2DContext, Image> onSnapshot() {
             return onSnapshot;
         }
 
+        private final VoidSignal3<G2DContext, Integer, Integer> onSnapshotStream = new VoidSignal3<>();
+        /**
+         * Returns the signal of streamed snapshots, emitted with the width and height of
+         * each frame stored into the stream target.
+         *
+         * @return the signal of streamed snapshots
+         */
+        public VoidSignal3<G2DContext, Integer, Integer> onSnapshotStream() {
+            return onSnapshotStream;
+        }
+
+        private final VoidSignal3<G2DContext, Integer, Integer> onSnapshotStreamDropped = new VoidSignal3<>();
+        /**
+         * Returns the signal of dropped snapshots, emitted with the width and height of
+         * each frame which did not fit the stream target and has been skipped, e.g. after
+         * a resize. Slots may start streaming into a larger target.
+         *
+         * @return the signal of dropped snapshots
+         */
+        public VoidSignal3<G2DContext, Integer, Integer> onSnapshotStreamDropped() {
+            return onSnapshotStreamDropped;
+        }
+
         private final VoidSignal1<G2DContext> onCreate = new VoidSignal1<>();
         @Override
         public VoidSignal1<G2DContext> onCreate() {
@@ -419,8 +459,12 @@ public class AWTCanvas extends Canvas implements AWTG2DContext, ComponentListene
     }
 
     private void renderOffscreen(final java.awt.Graphics g, final boolean snapshot) {
+        Graphics2D g2d = (Graphics2D) g;
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(AlphaComposite.Src);
         g.setColor(getBackground());
         g.fillRect(0, 0, getWidth(), getHeight());
+        g2d.setComposite(composite);
         holder.onPaint.emit(this, new AWTGraphics((Graphics2D) g, getWidth(), getHeight()), snapshot);
     }
 
@@ -428,37 +472,229 @@ public class AWTCanvas extends Canvas implements AWTG2DContext, ComponentListene
     private void requestSnapshot() {
         requestSnapshot = true;
     }
+
+    // Snapshots are handed to onSnapshot slots from two images in turn
+    private final AWTSnapshotBuffer snapshotBuffer = new AWTSnapshotBuffer(2);
+    /**
+     * Streams a snapshot of every update into the given array, as ARGB pixels row by
+     * row, instead of creating an {@link Image} per frame. After each frame,
+     * {@link Holder#onSnapshotStream()} is emitted with its width and height, in the
+     * event dispatch thread; the array is overwritten by the next frame. Frames which do
+     * not fit the array are skipped, and {@link Holder#onSnapshotStreamDropped()} is
+     * emitted instead.
+     *
+     * @param pixels the array to store the pixels
+     * @param offset the index of the first pixel
+     * @param stride the distance between rows, at least the width
+     * @throws NullPointerException if {@code pixels} is null
+     * @throws IllegalArgumentException if {@code offset} is not within the array or {@code stride} is less than 1
+     */
+    public void startSnapshotStream(final int[] pixels, final int offset, final int stride) {
+        snapshotBuffer.setStream(pixels, offset, stride);
+    }
+    /**
+     * Streams a snapshot of every update into the given buffer, as ARGB pixels row by
+     * row from its position, which is kept. See {@link #startSnapshotStream(int[], int, int)}.
+     *
+     * @param pixels the buffer to store the pixels
+     * @param stride the distance between rows, at least the width
+     * @throws NullPointerException if {@code pixels} is null
+     * @throws IllegalArgumentException if {@code stride} is less than 1
+     */
+    public void startSnapshotStream(final IntBuffer pixels, final int stride) {
+        snapshotBuffer.setStream(pixels, stride);
+    }
+    /**
+     * Streams a snapshot of every update into the given buffer, as ARGB pixels row by
+     * row from its position, which is kept, without gaps between the rows.
+     * See {@link #startSnapshotStream(int[], int, int)}.
+     *
+     * @param pixels the buffer to store the pixels
+     * @throws NullPointerException if {@code pixels} is null
+     */
+    public void startSnapshotStream(final IntBuffer pixels) {
+        snapshotBuffer.setStream(pixels);
+    }
+    public void stopSnapshotStream() {
+        snapshotBuffer.clearStream();
+    }
+    private final AWTBackBuffer backBuffer = new AWTBackBuffer(Transparency.OPAQUE);
+    private final java.awt.Rectangle damage = new java.awt.Rectangle();
     public void requestUpdate() {
-        EventQueue.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                long time = System.currentTimeMillis();
-                boolean snapshot = requestSnapshot;
-                BufferedImage bufferedImage = null;
-                if (requestSnapshot) {
-                    requestSnapshot = false;
-                    bufferedImage = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_ARGB);
-                    Graphics2D g2d = bufferedImage.createGraphics();
-                    renderOffscreen(g2d, true);
-                    g2d.dispose();
-                    holder.onSnapshot.emit(AWTCanvas.this, new AWTImage(bufferedImage));
-                }
-                if (!isDisposed() && getBufferStrategy() == null) createBufferStrategy(2);
-                BufferStrategy bufferStrategy = getBufferStrategy();
-                if (bufferStrategy != null) do {
-                    do {
-                        java.awt.Graphics g = bufferStrategy.getDrawGraphics();
-                        if (snapshot) g.drawImage(bufferedImage, 0, 0, null);
-                        else renderOffscreen(g, false);
-                        g.dispose();
-                        bufferStrategy.show();
-                        Toolkit.getDefaultToolkit().sync();
-                    } while (bufferStrategy.contentsRestored());
-                } while (bufferStrategy.contentsLost());
-                long now = System.currentTimeMillis();
-                holder.onUpdate.emit(AWTCanvas.this, now - time);
+        requestUpdate(null);
+    }
+    public void requestUpdate(final Rectangle dirty) {
+        if (dirty == null) backBuffer.addDamage();
+        else backBuffer.addDamage(dirty.getX(), dirty.getY(), dirty.getWidth(), dirty.getHeight());
+        if (framePacer == null) postUpdate();
+        else {
+            updateRequested = true;
+            // The render loop may have been stopped meanwhile
+            if (framePacer == null && updateRequested) {
+                updateRequested = false;
+                postUpdate();
             }
-        });
+        }
+    }
+
+    /**
+     * Whether an update has been posted to the event queue and has not started yet.
+     * Requests made meanwhile are coalesced into it; it is cleared when the update starts,
+     * so requests made during rendering post another one.
+     */
+    private final AtomicBoolean updatePosted = new AtomicBoolean(false);
+    /**
+     * Whether an update is painting or presenting a frame.
+     */
+    private volatile boolean rendering = false;
+    private volatile boolean updateRequested = false;
+    private final Runnable updateTask = this::update;
+    private void postUpdate() {
+        if (updatePosted.compareAndSet(false, true)) EventQueue.invokeLater(updateTask);
+    }
+
+    private void update() {
+        updatePosted.set(false);
+        rendering = true;
+        try {
+            render();
+        }
+        finally {
+            rendering = false;
+        }
+    }
+
+    private void render() {
+        long time = System.nanoTime();
+        boolean snapshot = requestSnapshot || snapshotBuffer.isStreaming();
+        // Requests are accumulated, so a previous run may have repainted this damage already
+        boolean damaged = backBuffer.takeDamage(this, damage);
+        if (!snapshot && !damaged) return;
+        boolean paint = !snapshot;
+        if (snapshot && getWidth() > 0 && getHeight() > 0) {
+            BufferedImage bufferedImage = snapshotBuffer.acquire(getWidth(), getHeight());
+            Graphics2D g2d = bufferedImage.createGraphics();
+            renderOffscreen(g2d, true);
+            g2d.dispose();
+            switch (snapshotBuffer.stream()) {
+                case AWTSnapshotBuffer.STREAMED:
+                    holder.onSnapshotStream.emit(this, bufferedImage.getWidth(), bufferedImage.getHeight());
+                    break;
+                case AWTSnapshotBuffer.DROPPED:
+                    holder.onSnapshotStreamDropped.emit(this, bufferedImage.getWidth(), bufferedImage.getHeight());
+                    break;
+            }
+            if (requestSnapshot) {
+                requestSnapshot = false;
+                holder.onSnapshot.emit(this, snapshotBuffer.getImage());
+            }
+            // The snapshot is in component pixels; a scaled buffer is painted itself to stay sharp
+            if (!backBuffer.setContents(bufferedImage)) {
+                backBuffer.getBounds(damage);
+                paint = true;
+            }
+        }
+        if (backBuffer.getImage() == null) return;
+        if (paint) {
+            Graphics2D g2d = backBuffer.createGraphics(damage);
+            renderOffscreen(g2d, false);
+            g2d.dispose();
+        }
+        if (!isDisposed() && getBufferStrategy() == null) createBufferStrategy(2);
+        BufferStrategy bufferStrategy = getBufferStrategy();
+        if (bufferStrategy != null) {
+            // Blit strategies keep their contents, so only the damage is copied; the contents
+            // of a flip strategy's buffer are undefined after show(), so it gets everything
+            java.awt.Rectangle region = snapshot || bufferStrategy.getCapabilities().isPageFlipping() ? null : damage;
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
+                    backBuffer.drawTo(g, region);
+                    g.dispose();
+                    bufferStrategy.show();
+                    Toolkit.getDefaultToolkit().sync();
+                    // Retries after the contents were restored or lost blit everything
+                    region = null;
+                } while (bufferStrategy.contentsRestored());
+            } while (bufferStrategy.contentsLost());
+        }
+        long elapsed = System.nanoTime() - time;
+        frameStatistics.record(elapsed);
+        holder.onUpdate.emit(this, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private final FrameStatistics frameStatistics = new FrameStatistics();
+    /**
+     * Returns the frame-time statistics of updates, i.e. the time to paint and present
+     * a frame, and the number of frames dropped by the render loop.
+     *
+     * @return the frame statistics
+     */
+    public FrameStatistics getFrameStatistics() {
+        return frameStatistics;
+    }
+
+    private volatile Thread framePacer = null;
+    private volatile int targetFPS = 0;
+    /**
+     * Sets the target frame rate of the render loop. With a positive frame rate, update
+     * requests are coalesced into at most one update per tick of a fixed-rate clock; ticks
+     * which are missed, because the previous update has not finished or the clock fell
+     * behind, are skipped and counted as dropped frames if an update was requested.
+     * With 0 (default), every request posts an update unless one is already pending.
+     *
+     * @param fps the target frame rate, 0 to disable the render loop
+     * @throws IllegalArgumentException if {@code fps} is negative
+     */
+    public synchronized void setTargetFPS(final int fps) {
+        if (fps < 0) throw new IllegalArgumentException("Invalid frame rate: " + fps);
+        if (fps == targetFPS) return;
+        targetFPS = fps;
+        Thread previous = framePacer;
+        framePacer = null;
+        if (previous != null) previous.interrupt();
+        if (fps > 0 && !isDisposed()) {
+            Thread thread = new Thread(() -> pace(fps), "AWTCanvas-FramePacer");
+            thread.setDaemon(true);
+            framePacer = thread;
+            thread.start();
+        }
+        else if (updateRequested) {
+            updateRequested = false;
+            postUpdate();
+        }
+    }
+
+    public int getTargetFPS() {
+        return targetFPS;
+    }
+
+    private void pace(final int fps) {
+        final Thread current = Thread.currentThread();
+        final long period = TimeUnit.SECONDS.toNanos(1) / fps;
+        long next = System.nanoTime() + period;
+        while (framePacer == current) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(this, next - now);
+                continue;
+            }
+            long missed = (now - next) / period;
+            next += (missed + 1) * period;
+            if (!updateRequested) continue;
+            if (updatePosted.get() || rendering) {
+                // The last update is still pending or rendering, skip this tick
+                frameStatistics.recordDropped(missed + 1);
+                continue;
+            }
+            if (missed > 0) frameStatistics.recordDropped(missed);
+            updateRequested = false;
+            postUpdate();
+        }
+        if (updateRequested && framePacer == null && targetFPS == 0) {
+            updateRequested = false;
+            postUpdate();
+        }
     }
 
     @Override
@@ -475,8 +711,11 @@ public class AWTCanvas extends Canvas implements AWTG2DContext, ComponentListene
     public void dispose() {
         if (isDisposed()) return;
         disposed = true;
+        setTargetFPS(0);
         BufferStrategy bufferStrategy = getBufferStrategy();
         if (bufferStrategy != null) bufferStrategy.dispose();
+        backBuffer.dispose();
+        snapshotBuffer.clear();
         awtContext.dispose();
     }
 
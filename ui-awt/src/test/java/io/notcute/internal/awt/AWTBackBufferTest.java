@@ -0,0 +1,128 @@
+package io.notcute.internal.awt;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DirectColorModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AWTBackBufferTest {
+
+    private static final int RED = Color.RED.getRGB();
+
+    private static class ScaledConfiguration extends GraphicsConfiguration {
+        private final double scale;
+        private ScaledConfiguration(double scale) {
+            this.scale = scale;
+        }
+        @Override
+        public GraphicsDevice getDevice() {
+            return null;
+        }
+        @Override
+        public ColorModel getColorModel() {
+            return new DirectColorModel(32, 0xFF0000, 0xFF00, 0xFF, 0xFF000000);
+        }
+        @Override
+        public ColorModel getColorModel(int transparency) {
+            return transparency == Transparency.OPAQUE ? new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF) : getColorModel();
+        }
+        @Override
+        public AffineTransform getDefaultTransform() {
+            return AffineTransform.getScaleInstance(scale, scale);
+        }
+        @Override
+        public AffineTransform getNormalizingTransform() {
+            return new AffineTransform();
+        }
+        @Override
+        public Rectangle getBounds() {
+            return new Rectangle(0, 0, 1000, 1000);
+        }
+    }
+
+    private static Component component(int width, int height, double scale) {
+        GraphicsConfiguration configuration = new ScaledConfiguration(scale);
+        Component component = new Component() {
+            @Override
+            public GraphicsConfiguration getGraphicsConfiguration() {
+                return configuration;
+            }
+        };
+        component.setSize(width, height);
+        return component;
+    }
+
+    @Test
+    public void bufferIsSizedAndPaintedInDevicePixels() {
+        AWTBackBuffer backBuffer = new AWTBackBuffer(Transparency.OPAQUE);
+        Component component = component(10, 10, 2);
+        Rectangle damage = new Rectangle();
+        assertTrue(backBuffer.takeDamage(component, damage));
+        BufferedImage image = backBuffer.getImage();
+        assertEquals(20, image.getWidth());
+        assertEquals(20, image.getHeight());
+        assertEquals(new Rectangle(0, 0, 20, 20), damage);
+
+        Graphics2D g = backBuffer.createGraphics(damage);
+        g.setColor(Color.RED);
+        g.fillRect(2, 2, 3, 3);
+        g.dispose();
+        assertEquals(RED, image.getRGB(4, 4));
+        assertEquals(RED, image.getRGB(9, 9));
+        assertNotEquals(RED, image.getRGB(3, 3));
+        assertNotEquals(RED, image.getRGB(10, 10));
+
+        // A scaled buffer is painted itself rather than filled from a snapshot in component pixels
+        assertFalse(backBuffer.setContents(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB)));
+    }
+
+    @Test
+    public void damageIsTakenInDevicePixels() {
+        AWTBackBuffer backBuffer = new AWTBackBuffer(Transparency.OPAQUE);
+        Component component = component(10, 10, 1.5);
+        Rectangle damage = new Rectangle();
+        assertTrue(backBuffer.takeDamage(component, damage));
+        assertEquals(new Rectangle(0, 0, 15, 15), damage);
+
+        backBuffer.addDamage(1, 1, 3, 1);
+        assertTrue(backBuffer.takeDamage(component, damage));
+        // (1, 1)-(4, 2) scaled by 1.5 and rounded outwards
+        assertEquals(new Rectangle(1, 1, 5, 2), damage);
+        assertFalse(backBuffer.takeDamage(component, damage));
+    }
+
+    @Test
+    public void drawToMapsDevicePixelsOneToOne() {
+        AWTBackBuffer backBuffer = new AWTBackBuffer(Transparency.OPAQUE);
+        Component component = component(10, 10, 2);
+        Rectangle damage = new Rectangle();
+        backBuffer.takeDamage(component, damage);
+        Graphics2D g = backBuffer.createGraphics(damage);
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 10, 10);
+        g.dispose();
+
+        // The screen graphics of a HiDPI component are scaled by the default transform
+        BufferedImage screen = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D screenGraphics = screen.createGraphics();
+        screenGraphics.scale(2, 2);
+        backBuffer.drawTo(screenGraphics, new Rectangle(0, 0, 10, 20));
+        screenGraphics.dispose();
+        assertEquals(RED, screen.getRGB(9, 19));
+        // Neither scaled again nor drawn outside the region
+        assertEquals(0, screen.getRGB(10, 5));
+        assertEquals(0, screen.getRGB(25, 25));
+    }
+
+}
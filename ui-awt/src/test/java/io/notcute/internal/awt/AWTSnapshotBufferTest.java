@@ -0,0 +1,87 @@
+package io.notcute.internal.awt;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.nio.IntBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AWTSnapshotBufferTest {
+
+    /**
+     * Acquires a snapshot whose pixel at (x, y) is {@code y * 100 + x}.
+     */
+    private static void snapshot(AWTSnapshotBuffer buffer, int width, int height) {
+        BufferedImage image = buffer.acquire(width, height);
+        for (int y = 0; y < height; y ++) {
+            for (int x = 0; x < width; x ++) {
+                image.setRGB(x, y, y * 100 + x);
+            }
+        }
+    }
+
+    @Test
+    public void arrayStreamUsesOffsetAndStride() {
+        AWTSnapshotBuffer buffer = new AWTSnapshotBuffer(2);
+        int[] pixels = new int[2 + 5 * 2 + 3];
+        buffer.setStream(pixels, 2, 5);
+        snapshot(buffer, 3, 3);
+        assertEquals(AWTSnapshotBuffer.STREAMED, buffer.stream());
+        assertEquals(0, pixels[2]);
+        assertEquals(102, pixels[2 + 5 + 2]);
+        assertEquals(202, pixels[2 + 10 + 2]);
+        assertEquals(0, pixels[2 + 3]);
+    }
+
+    @Test
+    public void bufferStreamUsesStrideAndKeepsPosition() {
+        AWTSnapshotBuffer buffer = new AWTSnapshotBuffer(2);
+        IntBuffer pixels = IntBuffer.allocate(1 + 4 * 2 + 3);
+        pixels.position(1);
+        buffer.setStream(pixels, 4);
+        snapshot(buffer, 3, 3);
+        assertEquals(AWTSnapshotBuffer.STREAMED, buffer.stream());
+        assertEquals(1, pixels.position());
+        assertEquals(102, pixels.get(1 + 4 + 2));
+        assertEquals(200, pixels.get(1 + 8));
+        assertEquals(0, pixels.get(1 + 3));
+    }
+
+    @Test
+    public void framesWhichDoNotFitAreDropped() {
+        AWTSnapshotBuffer buffer = new AWTSnapshotBuffer(2);
+        assertEquals(AWTSnapshotBuffer.NOT_STREAMING, buffer.stream());
+
+        int[] pixels = new int[9];
+        buffer.setStream(pixels, 0, 3);
+        snapshot(buffer, 3, 3);
+        assertEquals(AWTSnapshotBuffer.STREAMED, buffer.stream());
+        // Resized: the rows no longer fit the stride, then the frame no longer fits the array
+        snapshot(buffer, 4, 2);
+        assertEquals(AWTSnapshotBuffer.DROPPED, buffer.stream());
+        snapshot(buffer, 3, 4);
+        assertEquals(AWTSnapshotBuffer.DROPPED, buffer.stream());
+        assertEquals(202, pixels[8]);
+
+        IntBuffer packed = IntBuffer.allocate(9);
+        buffer.setStream(packed);
+        assertEquals(AWTSnapshotBuffer.DROPPED, buffer.stream());
+        assertEquals(0, packed.position());
+        snapshot(buffer, 3, 3);
+        assertEquals(AWTSnapshotBuffer.STREAMED, buffer.stream());
+        assertEquals(202, packed.get(8));
+    }
+
+    @Test
+    public void invalidStreamTargetsAreRejected() {
+        AWTSnapshotBuffer buffer = new AWTSnapshotBuffer(1);
+        assertThrows(IllegalArgumentException.class, () -> buffer.setStream(new int[4], -1, 2));
+        assertThrows(IllegalArgumentException.class, () -> buffer.setStream(new int[4], 5, 2));
+        assertThrows(IllegalArgumentException.class, () -> buffer.setStream(new int[4], 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> buffer.setStream(IntBuffer.allocate(4), 0));
+        assertThrows(NullPointerException.class, () -> buffer.setStream((int[]) null, 0, 1));
+        assertFalse(buffer.isStreaming());
+    }
+
+}
@@ -0,0 +1,130 @@
+package io.notcute.ui;
+
+import java.util.Arrays;
+
+/**
+ * Frame-time statistics of a render loop. Percentiles are exact over a window
+ * of the most recent frames; the frame and dropped frame counts are totals
+ * since the last {@link #reset()}. The statistics are thread-safe.
+ */
+public class FrameStatistics {
+
+    public static final int DEFAULT_WINDOW = 240;
+
+    private final long[] samples;
+    private final long[] sorted;
+    private int size = 0;
+    private int index = 0;
+    private boolean sortedValid = false;
+
+    private long frames = 0;
+    private long droppedFrames = 0;
+
+    public FrameStatistics() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Creates new statistics.
+     *
+     * @param window the number of recent frames to compute percentiles over
+     * @throws IllegalArgumentException if {@code window} is less than 1
+     */
+    public FrameStatistics(int window) {
+        if (window < 1) throw new IllegalArgumentException("Invalid window: " + window);
+        samples = new long[window];
+        sorted = new long[window];
+    }
+
+    /**
+     * Records a rendered frame.
+     *
+     * @param nanos the frame time, in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        samples[index] = nanos;
+        index = (index + 1) % samples.length;
+        if (size < samples.length) size ++;
+        frames ++;
+        sortedValid = false;
+    }
+
+    /**
+     * Records frames which were due but not rendered.
+     *
+     * @param count the number of dropped frames
+     */
+    public synchronized void recordDropped(long count) {
+        droppedFrames += count;
+    }
+
+    public synchronized long getFrames() {
+        return frames;
+    }
+
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Returns the given percentile of the recent frame times.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the frame time in nanoseconds, 0 if no frame has been recorded
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (size == 0) return 0;
+        if (!sortedValid) {
+            System.arraycopy(samples, 0, sorted, 0, size);
+            Arrays.sort(sorted, 0, size);
+            sortedValid = true;
+        }
+        int rank = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Returns the mean of the recent frame times.
+     *
+     * @return the mean frame time in nanoseconds, 0 if no frame has been recorded
+     */
+    public synchronized double getMean() {
+        if (size == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < size; i ++) {
+            sum += samples[i];
+        }
+        return (double) sum / size;
+    }
+
+    /**
+     * Returns the maximum of the recent frame times.
+     *
+     * @return the maximum frame time in nanoseconds, 0 if no frame has been recorded
+     */
+    public synchronized long getMax() {
+        long max = 0;
+        for (int i = 0; i < size; i ++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Clears all statistics.
+     */
+    public synchronized void reset() {
+        size = 0;
+        index = 0;
+        sortedValid = false;
+        frames = 0;
+        droppedFrames = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "frames=" + frames + ", dropped=" + droppedFrames +
+                ", frameTime(p50/p99/max ns)=" + getPercentile(50) + "/" + getPercentile(99) + "/" + getMax();
+    }
+
+}
@@ -24,6 +24,19 @@ public interface G2DContext extends Context {
         void setBackgroundColor(int color);
 
         void requestUpdate();
+
+        /**
+         * Requests an update which repaints only the given region, in pixels. Regions
+         * requested before the update is performed are accumulated; the paint is clipped
+         * to their bounds, and the pixels outside are kept from the last update.
+         * <p>
+         * By default, the whole surface is repainted, as with {@link #requestUpdate()}.
+         *
+         * @param dirty the region to repaint, {@code null} for the whole surface
+         */
+        default void requestUpdate(Rectangle dirty) {
+            requestUpdate();
+        }
         void requestSnapshot();
 
         VoidSignal2<G2DContext, Long> onUpdate();
@@ -10,10 +10,11 @@ import io.notcute.g2d.Graphics;
 import io.notcute.g2d.GraphicsKit;
 import io.notcute.g2d.Image;
 import io.notcute.g2d.awt.AWTGraphics;
-import io.notcute.g2d.awt.AWTImage;
 import io.notcute.g2d.geom.Rectangle;
 import io.notcute.input.Input;
+import io.notcute.internal.awt.AWTBackBuffer;
 import io.notcute.internal.awt.AWTG2DUtils;
+import io.notcute.internal.awt.AWTSnapshotBuffer;
 import io.notcute.internal.awt.AWTUIUtils;
 import io.notcute.internal.awt.Desktop;
 import io.notcute.ui.Cursor;
@@ -31,6 +32,7 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URI;
+import java.nio.IntBuffer;
 import java.util.Objects;
 
 public class SwingJPanel extends JPanel implements SwingG2DContext, ComponentListener, FocusListener, MouseInputListener,
@@ -180,6 +182,11 @@ public class SwingJPanel extends JPanel implements SwingG2DContext, ComponentLis
             context.requestUpdate();
         }
 
+        @Override
+        public void requestUpdate(Rectangle dirty) {
+            context.requestUpdate(dirty);
+        }
+
         @Override
         public void requestSnapshot() {
             context.requestSnapshot();
@@ -188,15 +195,44 @@ public class SwingJPanel extends JPanel implements SwingG2DContext, ComponentLis
         private final VoidSignal2<G2DContext, Long> onUpdate = new VoidSignal2<>();
         @Override
         public VoidSignal2<G2DContext, Long> onUpdate() {
-            return null;
+            return onUpdate;
         }
 
         private final VoidSignal2<G2DContext, Image> onSnapshot = new VoidSignal2<>();
+        /**
+         * Returns the signal of snapshots. The emitted images are reused for later
+         * snapshots; slots which keep one beyond the next snapshot must clone it.
+         *
+         * @return the signal of snapshots
+         */
         @Override
         public VoidSignal2<G2DContext, Image> onSnapshot() {
             return onSnapshot;
         }
 
+        private final VoidSignal3<G2DContext, Integer, Integer> onSnapshotStream = new VoidSignal3<>();
+        /**
+         * Returns the signal of streamed snapshots, emitted with the width and height of
+         * each frame stored into the stream target.
+         *
+         * @return the signal of streamed snapshots
+         */
+        public VoidSignal3<G2DContext, Integer, Integer> onSnapshotStream() {
+            return onSnapshotStream;
+        }
+
+        private final VoidSignal3<G2DContext, Integer, Integer> onSnapshotStreamDropped = new VoidSignal3<>();
+        /**
+         * Returns the signal of dropped snapshots, emitted with the width and height of
+         * each frame which did not fit the stream target and has been skipped, e.g. after
+         * a resize. Slots may start streaming into a larger target.
+         *
+         * @return the signal of dropped snapshots
+         */
+        public VoidSignal3<G2DContext, Integer, Integer> onSnapshotStreamDropped() {
+            return onSnapshotStreamDropped;
+        }
+
         private final VoidSignal1<G2DContext> onCreate = new VoidSignal1<>();
         @Override
         public VoidSignal1<G2DContext> onCreate() {
@@ -424,8 +460,12 @@ public class SwingJPanel extends JPanel implements SwingG2DContext, ComponentLis
     }
 
     private void renderOffscreen(final java.awt.Graphics g, final boolean snapshot) {
+        Graphics2D g2d = (Graphics2D) g;
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(AlphaComposite.Src);
         g.setColor(getBackground());
         g.fillRect(0, 0, getWidth(), getHeight());
+        g2d.setComposite(composite);
         holder.onPaint.emit(this, new AWTGraphics((Graphics2D) g, getWidth(), getHeight()), snapshot);
     }
 
@@ -433,25 +473,103 @@ public class SwingJPanel extends JPanel implements SwingG2DContext, ComponentLis
     private void requestSnapshot() {
         requestSnapshot = true;
     }
+
+    // Snapshots are handed to onSnapshot slots from two images in turn
+    private final AWTSnapshotBuffer snapshotBuffer = new AWTSnapshotBuffer(2);
+    /**
+     * Streams a snapshot of every update into the given array, as ARGB pixels row by
+     * row, instead of creating an {@link Image} per frame. After each frame,
+     * {@link Holder#onSnapshotStream()} is emitted with its width and height, in the
+     * event dispatch thread; the array is overwritten by the next frame. Frames which do
+     * not fit the array are skipped, and {@link Holder#onSnapshotStreamDropped()} is
+     * emitted instead.
+     *
+     * @param pixels the array to store the pixels
+     * @param offset the index of the first pixel
+     * @param stride the distance between rows, at least the width
+     * @throws NullPointerException if {@code pixels} is null
+     * @throws IllegalArgumentException if {@code offset} is not within the array or {@code stride} is less than 1
+     */
+    public void startSnapshotStream(final int[] pixels, final int offset, final int stride) {
+        snapshotBuffer.setStream(pixels, offset, stride);
+    }
+    /**
+     * Streams a snapshot of every update into the given buffer, as ARGB pixels row by
+     * row from its position, which is kept. See {@link #startSnapshotStream(int[], int, int)}.
+     *
+     * @param pixels the buffer to store the pixels
+     * @param stride the distance between rows, at least the width
+     * @throws NullPointerException if {@code pixels} is null
+     * @throws IllegalArgumentException if {@code stride} is less than 1
+     */
+    public void startSnapshotStream(final IntBuffer pixels, final int stride) {
+        snapshotBuffer.setStream(pixels, stride);
+    }
+    /**
+     * Streams a snapshot of every update into the given buffer, as ARGB pixels row by
+     * row from its position, which is kept, without gaps between the rows.
+     * See {@link #startSnapshotStream(int[], int, int)}.
+     *
+     * @param pixels the buffer to store the pixels
+     * @throws NullPointerException if {@code pixels} is null
+     */
+    public void startSnapshotStream(final IntBuffer pixels) {
+        snapshotBuffer.setStream(pixels);
+    }
+    public void stopSnapshotStream() {
+        snapshotBuffer.clearStream();
+    }
+    private final AWTBackBuffer backBuffer = new AWTBackBuffer(Transparency.TRANSLUCENT);
+    private final java.awt.Rectangle damage = new java.awt.Rectangle();
     public void requestUpdate() {
+        requestUpdate(null);
+    }
+    public void requestUpdate(final Rectangle dirty) {
+        if (dirty == null) backBuffer.addDamage();
+        else backBuffer.addDamage(dirty.getX(), dirty.getY(), dirty.getWidth(), dirty.getHeight());
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
                 long time = System.currentTimeMillis();
-                boolean snapshot = requestSnapshot;
-                BufferedImage bufferedImage = null;
-                if (requestSnapshot) {
-                    requestSnapshot = false;
-                    bufferedImage = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_ARGB);
+                boolean snapshot = requestSnapshot || snapshotBuffer.isStreaming();
+                // Requests are accumulated, so a previous run may have repainted this damage already
+                boolean damaged = backBuffer.takeDamage(SwingJPanel.this, damage);
+                if (!snapshot && !damaged) return;
+                boolean paint = !snapshot;
+                if (snapshot && getWidth() > 0 && getHeight() > 0) {
+                    BufferedImage bufferedImage = snapshotBuffer.acquire(getWidth(), getHeight());
                     Graphics2D g2d = bufferedImage.createGraphics();
                     renderOffscreen(g2d, true);
                     g2d.dispose();
-                    holder.onSnapshot.emit(SwingJPanel.this, new AWTImage(bufferedImage));
+                    switch (snapshotBuffer.stream()) {
+                        case AWTSnapshotBuffer.STREAMED:
+                            holder.onSnapshotStream.emit(SwingJPanel.this, bufferedImage.getWidth(), bufferedImage.getHeight());
+                            break;
+                        case AWTSnapshotBuffer.DROPPED:
+                            holder.onSnapshotStreamDropped.emit(SwingJPanel.this, bufferedImage.getWidth(), bufferedImage.getHeight());
+                            break;
+                    }
+                    if (requestSnapshot) {
+                        requestSnapshot = false;
+                        holder.onSnapshot.emit(SwingJPanel.this, snapshotBuffer.getImage());
+                    }
+                    // The snapshot is in component pixels; a scaled buffer is painted itself to stay sharp
+                    if (!backBuffer.setContents(bufferedImage)) {
+                        backBuffer.getBounds(damage);
+                        paint = true;
+                    }
+                }
+                if (backBuffer.getImage() == null) return;
+                if (paint) {
+                    Graphics2D g2d = backBuffer.createGraphics(damage);
+                    renderOffscreen(g2d, false);
+                    g2d.dispose();
+                }
+                Graphics2D g = (Graphics2D) SwingJPanel.this.getGraphics();
+                if (g != null) {
+                    backBuffer.drawTo(g, snapshot ? null : damage);
+                    g.dispose();
                 }
-                java.awt.Graphics g = SwingJPanel.this.getGraphics();
-                if (snapshot) g.drawImage(bufferedImage, 0, 0, null);
-                else renderOffscreen(g, false);
-                g.dispose();
                 Toolkit.getDefaultToolkit().sync();
                 long now = System.currentTimeMillis();
                 holder.onUpdate.emit(SwingJPanel.this, now - time);
@@ -473,6 +591,8 @@ public class SwingJPanel extends JPanel implements SwingG2DContext, ComponentLis
     public void dispose() {
         if (isDisposed()) return;
         disposed = true;
+        backBuffer.dispose();
+        snapshotBuffer.clear();
         awtContext.dispose();
     }
 